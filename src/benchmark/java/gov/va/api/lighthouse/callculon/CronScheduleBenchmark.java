@@ -0,0 +1,97 @@
+package gov.va.api.lighthouse.callculon;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Parse and find the next time for 100,000 generated cron and rate expressions, a mix of the
+ * everyday forms and the AWS special cases. Times are per expression.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CronScheduleBenchmark {
+
+  static final int EXPRESSIONS = 100_000;
+
+  static final ZonedDateTime NOW = ZonedDateTime.of(2020, 6, 6, 12, 34, 56, 0, ZoneOffset.UTC);
+
+  private List<String> expressions;
+
+  private List<CronSchedule> schedules;
+
+  private static String expression(Random random) {
+    int minute = random.nextInt(60);
+    int hour = random.nextInt(24);
+    switch (random.nextInt(10)) {
+      case 0:
+        return minute + " * * * *";
+      case 1:
+        return minute + " " + hour + " * * *";
+      case 2:
+        return "*/" + (1 + random.nextInt(30)) + " * * * *";
+      case 3:
+        return minute + " " + hour + " " + (1 + random.nextInt(28)) + " * *";
+      case 4:
+        return minute + " " + hour + " * * 1-5";
+      case 5:
+        return "cron(" + minute + " " + hour + " ? * MON-FRI *)";
+      case 6:
+        return "cron(" + minute + " " + hour + " L * ? *)";
+      case 7:
+        return "cron(" + minute + " " + hour + " ? * " + (1 + random.nextInt(7)) + "#2 *)";
+      case 8:
+        return "cron(" + minute + " " + hour + " " + (1 + random.nextInt(28)) + "W JAN,JUL ? *)";
+      default:
+        return "rate(" + (1 + random.nextInt(120)) + " minutes)";
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(EXPRESSIONS)
+  public void next(Blackhole blackhole) {
+    for (CronSchedule schedule : schedules) {
+      blackhole.consume(schedule.next(NOW));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(EXPRESSIONS)
+  public void parse(Blackhole blackhole) {
+    for (String expression : expressions) {
+      blackhole.consume(CronSchedule.parse(expression));
+    }
+  }
+
+  /** The same expressions every run, so results can be compared. */
+  @Setup
+  public void setUp() {
+    Random random = new Random(1);
+    expressions = new ArrayList<>(EXPRESSIONS);
+    schedules = new ArrayList<>(EXPRESSIONS);
+    for (int i = 0; i < EXPRESSIONS; i++) {
+      String expression = expression(random);
+      expressions.add(expression);
+      schedules.add(CronSchedule.parse(expression));
+    }
+  }
+}
@@ -0,0 +1,139 @@
+package gov.va.api.lighthouse.callculon;
+
+import static java.util.stream.Collectors.toList;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+import gov.va.api.lighthouse.callculon.CallculonConfiguration.Deployment;
+import gov.va.api.lighthouse.callculon.CallculonConfiguration.Notification;
+import gov.va.api.lighthouse.callculon.CallculonConfiguration.Protocol;
+import gov.va.api.lighthouse.callculon.CallculonConfiguration.Request;
+import gov.va.api.lighthouse.callculon.CallculonConfiguration.RequestMethod;
+import gov.va.api.lighthouse.callculon.CallculonConfiguration.Slack;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.mockserver.client.MockServerClient;
+import org.mockserver.netty.MockServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.services.ssm.model.GetParametersRequest;
+import software.amazon.awssdk.services.ssm.model.GetParametersResponse;
+import software.amazon.awssdk.services.ssm.model.Parameter;
+
+/**
+ * Handle a configuration from start to finish against a local MockServer, with secrets from a
+ * fake Parameter Store and a Slack notifier that has nothing to send for a successful call. This
+ * is the warm path of a timer that is working, including the HTTP round trip on localhost.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class HandlerBenchmark {
+
+  private MockServer server;
+
+  private MockServerClient mockHttp;
+
+  private CallculonHandler handler;
+
+  private CallculonConfiguration config;
+
+  private LocalLogger logger;
+
+  private static GetParametersResponse fakeParameterStore(GetParametersRequest request) {
+    return GetParametersResponse.builder()
+        .parameters(
+            request.names().stream()
+                .map(name -> Parameter.builder().name(name).value("value-of-" + name).build())
+                .collect(toList()))
+        .build();
+  }
+
+  @Benchmark
+  public CallculonResponse handleRequest() {
+    return handler.handleRequest(
+        config, new LocalContext("benchmark", logger, Duration.ofMinutes(15)));
+  }
+
+  @Setup
+  public void setUp() {
+    server = new MockServer();
+    mockHttp = new MockServerClient("localhost", server.getLocalPort());
+    mockHttp
+        .when(request().withPath("/fhir/v0/dstu2/Patient/1011537977V693883"))
+        .respond(response().withStatusCode(200).withBody("{\"resourceType\":\"Patient\"}"));
+    handler =
+        CallculonHandler.builder()
+            .options(
+                CallculonHandler.HandlerOptions.builder()
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .requestTimeout(Duration.ofSeconds(10))
+                    .build())
+            .secretProcessor(
+                AwsSecretProcessor.builder()
+                    .ssmInvoker(HandlerBenchmark::fakeParameterStore)
+                    .cache(SecretCache.builder().build())
+                    .build())
+            .notifier(SlackNotifier.builder().invoker(request -> null).build())
+            .build();
+    logger =
+        new LocalLogger(
+            new PrintStream(OutputStream.nullOutputStream()), "benchmark", Clock.systemUTC());
+    config =
+        CallculonConfiguration.builder()
+            .name("callculon-benchmark")
+            .deployment(
+                Deployment.builder()
+                    .enabled(true)
+                    .cron("0 0 * * *")
+                    .product("callculon-benchmark")
+                    .version("1.0.0")
+                    .id("0-callculon-benchmark-0-0-0-000")
+                    .environment("local")
+                    .build())
+            .request(
+                Request.builder()
+                    .protocol(Protocol.HTTP)
+                    .hostname("localhost")
+                    .port(server.getLocalPort())
+                    .path("/fhir/v0/dstu2/Patient/1011537977V693883")
+                    .method(RequestMethod.GET)
+                    .headers(Map.of("Authorization", "Bearer aws-secret(/dvp/local/token)"))
+                    .build())
+            .notification(
+                Notification.builder()
+                    .slack(
+                        Slack.builder()
+                            .channel("shanktovoid")
+                            .webhook("aws-secret(/dvp/slack/webhook)")
+                            .onFailure(true)
+                            .onSuccess(false)
+                            .build())
+                    .build())
+            .build();
+  }
+
+  @TearDown
+  public void tearDown() {
+    server.stop();
+    server.close();
+    mockHttp.stop(true);
+    mockHttp.close();
+  }
+}
@@ -0,0 +1,63 @@
+package gov.va.api.lighthouse.callculon;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import lombok.SneakyThrows;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Compare Slack message rendering against the original read-and-replace implementation. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MrGarveyBenchmark {
+
+  static final String RESOURCE = "/slack-failure-message-template.json";
+
+  static final Map<String, String> SUBSTITUTIONS =
+      Map.of(
+          "environment", "qa",
+          "channel", "shanktovoid",
+          "name", "callculon-manual-test",
+          "url", "https://blue.qa.lighthouse.va.gov:443/fhir/v0/dstu2/Patient/1011537977V693883",
+          "statusCode", "0",
+          "note", "Error `HttpConnectTimeoutException` with message: _HTTP connect timed out_",
+          "product", "callculon-manual-test",
+          "version", "1.0.0",
+          "cron", "0 0 * * *",
+          "deploymentId", "0-callculon-manual-test-0-0-0-000");
+
+  @Benchmark
+  public String current() {
+    return MrGarveyTheSubstitute.builder()
+        .resource(RESOURCE)
+        .substitutions(SUBSTITUTIONS)
+        .build()
+        .rollCall();
+  }
+
+  /** The original implementation of {@link MrGarveyTheSubstitute}. */
+  @Benchmark
+  @SneakyThrows
+  public String readAndReplace() {
+    try (InputStream stream = getClass().getResourceAsStream(RESOURCE)) {
+      String template = new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+      for (var entry : SUBSTITUTIONS.entrySet()) {
+        template = template.replace("${" + entry.getKey() + "}", entry.getValue());
+      }
+      return template;
+    }
+  }
+}
@@ -0,0 +1,80 @@
+package gov.va.api.lighthouse.callculon;
+
+import gov.va.api.lighthouse.callculon.CallculonConfiguration.Deployment;
+import gov.va.api.lighthouse.callculon.CallculonConfiguration.Notification;
+import gov.va.api.lighthouse.callculon.CallculonConfiguration.Slack;
+import gov.va.api.lighthouse.callculon.Notifier.NotificationContext;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Render the Slack failure message, with and without a captured body. Sending is left out, since
+ * it is rate limited per webhook.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SlackNotifierBenchmark {
+
+  @Param({"0", "2000"})
+  int bodyLength;
+
+  private SlackNotifier slack;
+
+  private NotificationContext ctx;
+
+  @Benchmark
+  public String onFailure() {
+    return slack.failureMessage(ctx);
+  }
+
+  @Setup
+  public void setUp() {
+    slack = SlackNotifier.builder().invoker(request -> null).build();
+    CallculonConfiguration config =
+        CallculonConfiguration.builder()
+            .name("callculon-manual-test")
+            .deployment(
+                Deployment.builder()
+                    .enabled(true)
+                    .cron("0 0 * * *")
+                    .product("callculon-manual-test")
+                    .version("1.0.0")
+                    .id("0-callculon-manual-test-0-0-0-000")
+                    .environment("qa")
+                    .build())
+            .notification(
+                Notification.builder()
+                    .slack(
+                        Slack.builder()
+                            .channel("shanktovoid")
+                            .webhook("https://hooks.slack.com/services/NOPE/NOPE")
+                            .build())
+                    .build())
+            .build();
+    ctx =
+        NotificationContext.builder()
+            .config(config)
+            .url("https://blue.qa.lighthouse.va.gov:443/fhir/v0/dstu2/Patient/1011537977V693883")
+            .statusCode(503)
+            .note(Optional.of("Error `HttpConnectTimeoutException` with message: _timed out_"))
+            .body(bodyLength == 0 ? Optional.empty() : Optional.of("x".repeat(bodyLength)))
+            .duration(Duration.ofMillis(1234))
+            .build();
+  }
+}
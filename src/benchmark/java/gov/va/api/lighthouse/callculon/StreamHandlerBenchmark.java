@@ -0,0 +1,132 @@
+package gov.va.api.lighthouse.callculon;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gov.va.api.lighthouse.callculon.CallculonResponse.Attempt;
+import gov.va.api.lighthouse.callculon.CallculonResponse.Latency;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStreamReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import lombok.SneakyThrows;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compare reading a configuration and writing its response by reflection, as the Lambda runtime
+ * does for a RequestHandler, against the decoder and encoder used by the stream handler. Jackson
+ * stands in for the runtime's serializer. The cold benchmarks time the first use in a fresh JVM,
+ * which is what a cold start pays, the warm benchmarks time every invocation after that.
+ *
+ * <pre>
+ * mvn -Pbenchmark -DskipTests verify -Dbenchmark.include=StreamHandlerBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+public class StreamHandlerBenchmark {
+
+  static final byte[] INPUT =
+      ("{\"name\":\"callculon-manual-test\","
+              + "\"deployment\":{\"enabled\":true,\"cron\":\"0 0 * * *\","
+              + "\"product\":\"callculon-manual-test\",\"version\":\"1.0.0\","
+              + "\"id\":\"0-callculon-manual-test-0-0-0-000\",\"environment\":\"qa\"},"
+              + "\"request\":{\"protocol\":\"HTTPS\",\"hostname\":\"blue.qa.lighthouse.va.gov\","
+              + "\"port\":443,\"path\":\"/fhir/v0/dstu2/Patient/1011537977V693883\","
+              + "\"method\":\"GET\",\"headers\":{\"Authorization\":"
+              + "\"Bearer aws-secret(/dvp/production/health/static-access-token)\"},"
+              + "\"bodyMode\":\"CAPTURE\",\"captureBytes\":1024,"
+              + "\"retry\":{\"maxAttempts\":3,\"statuses\":[502,503,504]}},"
+              + "\"notification\":{\"slack\":{\"webhook\":\"aws-secret(/dvp/slack/liberty)\","
+              + "\"channel\":\"shanktovoid\",\"onFailure\":true,\"onSuccess\":true}}}")
+          .getBytes(UTF_8);
+
+  private ObjectMapper mapper;
+
+  private static CallculonResponse responseFor(CallculonConfiguration config) {
+    return CallculonResponse.builder()
+        .configuration(config)
+        .statusCode(200)
+        .requestTime("2020-06-01T12:00:00Z")
+        .duration("PT0.123S")
+        .latency(Latency.builder().timeToHeadersMillis(100).totalMillis(123).build())
+        .attempts(List.of(Attempt.builder().statusCode(200).millis(110).build()))
+        .body("{\"resourceType\":\"Patient\"}")
+        .build();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @Fork(20)
+  @Warmup(iterations = 0)
+  @Measurement(iterations = 1)
+  public byte[] coldReflection() {
+    return reflection();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @Fork(20)
+  @Warmup(iterations = 0)
+  @Measurement(iterations = 1)
+  public byte[] coldStream() {
+    return stream();
+  }
+
+  /** The serializer is created once and kept, like the runtime does. */
+  @SneakyThrows
+  private byte[] reflection() {
+    if (mapper == null) {
+      mapper =
+          new ObjectMapper()
+              .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+              .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+    }
+    CallculonConfiguration config =
+        mapper.readValue(new ByteArrayInputStream(INPUT), CallculonConfiguration.class);
+    ByteArrayOutputStream output = new ByteArrayOutputStream(2048);
+    mapper.writeValue(output, responseFor(config));
+    return output.toByteArray();
+  }
+
+  @SneakyThrows
+  private byte[] stream() {
+    CallculonConfiguration config =
+        ConfigurationDecoder.decode(new InputStreamReader(new ByteArrayInputStream(INPUT), UTF_8));
+    ByteArrayOutputStream output = new ByteArrayOutputStream(2048);
+    ResponseEncoder.encode(responseFor(config), output);
+    return output.toByteArray();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  @Fork(1)
+  @Warmup(iterations = 3, time = 2)
+  @Measurement(iterations = 5, time = 2)
+  public byte[] warmReflection() {
+    return reflection();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  @Fork(1)
+  @Warmup(iterations = 3, time = 2)
+  @Measurement(iterations = 5, time = 2)
+  public byte[] warmStream() {
+    return stream();
+  }
+}
@@ -3,9 +3,15 @@ package gov.va.api.lighthouse.callculon;
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toMap;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Function;
 import lombok.Builder;
 import software.amazon.awssdk.services.ssm.SsmClient;
@@ -16,17 +22,33 @@ import software.amazon.awssdk.services.ssm.model.Parameter;
 /** Look up secrets within an AWS Parameter Store. */
 public class AwsSecretProcessor implements SecretProcessor {
 
+  /** AWS limits the number of parameters that can be requested at once. */
+  static final int MAX_NAMES_PER_REQUEST = 10;
+
+  private static final ExecutorService CHUNK_EXECUTOR =
+      Executors.newCachedThreadPool(
+          r -> {
+            Thread thread = new Thread(r, "ssm-get-parameters");
+            thread.setDaemon(true);
+            return thread;
+          });
+
   private final Function<GetParametersRequest, GetParametersResponse> ssmInvoker;
 
+  private final SecretCache cache;
+
   /**
    * The injectable SSM invoker is primarily to allow testing everything _except_ the actual call to
    * AWS parameter store. However, it could be use for some obtuse case where the SSM client needs
    * to be configured special. If one is not specified, a default SSM client will be created and
-   * used.
+   * used. Values are cached in the given cache, or the cache shared by the whole container if one
+   * is not specified.
    */
   @Builder
-  public AwsSecretProcessor(Function<GetParametersRequest, GetParametersResponse> ssmInvoker) {
+  public AwsSecretProcessor(
+      Function<GetParametersRequest, GetParametersResponse> ssmInvoker, SecretCache cache) {
     this.ssmInvoker = ssmInvoker == null ? defaultSsmInvoker() : ssmInvoker;
+    this.cache = cache == null ? SecretCache.shared() : cache;
   }
 
   /** Create a new default instance. */
@@ -34,9 +56,41 @@ public class AwsSecretProcessor implements SecretProcessor {
     return AwsSecretProcessor.builder().build();
   }
 
+  /**
+   * The SSM client resolves credentials and region and starts its own HTTP client, so it is only
+   * created once a secret actually needs to be looked up.
+   */
   private static Function<GetParametersRequest, GetParametersResponse> defaultSsmInvoker() {
-    SsmClient ssmClient = SsmClient.builder().build();
-    return ssmClient::getParameters;
+    return request -> SharedSsmClient.INSTANCE.getParameters(request);
+  }
+
+  /**
+   * Request the secrets in chunks that AWS will accept. If more than one chunk is needed, they are
+   * requested in parallel.
+   */
+  private Map<String, String> fetch(List<String> secrets) {
+    if (secrets.size() <= MAX_NAMES_PER_REQUEST) {
+      return fetchChunk(secrets);
+    }
+    List<CompletableFuture<Map<String, String>>> chunks = new ArrayList<>();
+    for (int i = 0; i < secrets.size(); i += MAX_NAMES_PER_REQUEST) {
+      List<String> chunk = secrets.subList(i, Math.min(i + MAX_NAMES_PER_REQUEST, secrets.size()));
+      chunks.add(CompletableFuture.supplyAsync(() -> fetchChunk(chunk), CHUNK_EXECUTOR));
+    }
+    Map<String, String> values = new HashMap<>();
+    try {
+      chunks.forEach(chunk -> values.putAll(chunk.join()));
+    } catch (CompletionException e) {
+      throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+    }
+    return values;
+  }
+
+  private Map<String, String> fetchChunk(List<String> secrets) {
+    GetParametersRequest request =
+        GetParametersRequest.builder().names(secrets).withDecryption(true).build();
+    GetParametersResponse response = ssmInvoker.apply(request);
+    return response.parameters().stream().collect(toMap(Parameter::name, Parameter::value));
   }
 
   @Override
@@ -46,12 +100,14 @@ public class AwsSecretProcessor implements SecretProcessor {
 
   @Override
   public List<String> lookup(List<String> secrets) {
-    GetParametersRequest request =
-        GetParametersRequest.builder().names(secrets).withDecryption(true).build();
-    GetParametersResponse response = ssmInvoker.apply(request);
+    Map<String, String> values = cache.get(secrets, this::fetch);
     /* Don't trust the order returned, so we need to extract and force order to match. */
-    Map<String, String> values =
-        response.parameters().stream().collect(toMap(Parameter::name, Parameter::value));
     return secrets.stream().map(values::get).filter(Objects::nonNull).collect(toList());
   }
+
+  /** Lazily created on first use and shared by every processor in the container. */
+  private static final class SharedSsmClient {
+    private static final SsmClient INSTANCE =
+        StartupTimings.shared().time("ssmClient", () -> SsmClient.builder().build());
+  }
 }
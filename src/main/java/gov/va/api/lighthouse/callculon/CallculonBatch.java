@@ -0,0 +1,16 @@
+package gov.va.api.lighthouse.callculon;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** A collection of configurations to be processed in a single invocation. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CallculonBatch {
+  private List<CallculonConfiguration> configurations;
+}
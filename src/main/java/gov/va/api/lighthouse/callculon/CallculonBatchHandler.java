@@ -0,0 +1,143 @@
+package gov.va.api.lighthouse.callculon;
+
+import static java.util.stream.Collectors.toList;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.SneakyThrows;
+import lombok.experimental.Accessors;
+
+/**
+ * Process many configurations in one invocation. Each configuration is handled exactly as the
+ * {@link CallculonHandler} would, but up to a configurable number of them are in flight at once.
+ * A slow or failing configuration only occupies its own slot and never prevents the others from
+ * completing.
+ */
+public class CallculonBatchHandler
+    implements RequestHandler<CallculonBatch, CallculonBatchResponse> {
+
+  private final BatchOptions options;
+
+  private final CallculonHandler handler;
+
+  /** Create a new instance initialing options from environment variables if available. */
+  public CallculonBatchHandler() {
+    this(null, null);
+  }
+
+  /**
+   * Create a new instance. If no options are specified, they will be picked from environment
+   * variables. If no handler is specified, a default one will be created.
+   */
+  @Builder
+  public CallculonBatchHandler(BatchOptions options, CallculonHandler handler) {
+    this.options = options == null ? BatchOptions.fromEnvironmentVariables() : options;
+    this.handler = handler == null ? new CallculonHandler() : handler;
+  }
+
+  private CallculonResponse failed(
+      CallculonConfiguration config, Instant start, Throwable error, Context context) {
+    context
+        .getLogger()
+        .log(
+            "Failed to process "
+                + config.getName()
+                + ": "
+                + error.getClass().getSimpleName()
+                + ": "
+                + error.getMessage());
+    return CallculonResponse.builder()
+        .configuration(config)
+        .statusCode(0)
+        .requestTime(start.toString())
+        .duration(Duration.between(start, Instant.now()).toString())
+        .error(error.getClass().getSimpleName() + ": " + error.getMessage())
+        .build();
+  }
+
+  @Override
+  @SneakyThrows
+  public CallculonBatchResponse handleRequest(CallculonBatch batch, Context context) {
+    List<CallculonConfiguration> configs =
+        batch.getConfigurations() == null ? List.of() : batch.getConfigurations();
+    context
+        .getLogger()
+        .log("Batch of " + configs.size() + " with concurrency " + options.concurrency());
+    if (configs.isEmpty()) {
+      return CallculonBatchResponse.builder().responses(List.of()).build();
+    }
+    ExecutorService executor =
+        Executors.newFixedThreadPool(Math.min(options.concurrency(), configs.size()));
+    try {
+      List<Future<CallculonResponse>> futures =
+          configs.stream()
+              .map(config -> executor.submit(() -> process(config, context)))
+              .collect(toList());
+      List<CallculonResponse> responses = new ArrayList<>(configs.size());
+      for (Future<CallculonResponse> future : futures) {
+        responses.add(future.get());
+      }
+      handler.flushNotifications(context.getLogger());
+      return CallculonBatchResponse.builder().responses(responses).build();
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Handle one configuration, turning a failure into a response. The duration of a failure is
+   * measured from when this configuration started, not from when it was queued.
+   */
+  private CallculonResponse process(CallculonConfiguration config, Context context) {
+    var start = Instant.now();
+    try {
+      return handler.handleRequest(config, context);
+    } catch (Exception e) {
+      return failed(config, start, e, context);
+    }
+  }
+
+  /** BatchOptions. */
+  @Builder
+  @Getter
+  @Accessors(fluent = true)
+  public static class BatchOptions {
+
+    public static final String OPTION_BATCH_CONCURRENCY = "CALLCULON_BATCH_CONCURRENCY";
+
+    private final int concurrency;
+
+    /**
+     * Create options from System environment variables.
+     *
+     * <pre>
+     * CALLCULON_BATCH_CONCURRENCY = Integer (16)
+     * </pre>
+     */
+    public static BatchOptions fromEnvironmentVariables() {
+      return fromEnvironmentVariables(System.getenv());
+    }
+
+    /**
+     * Create options from a given environment map.
+     *
+     * <pre>
+     * CALLCULON_BATCH_CONCURRENCY = Integer (16)
+     * </pre>
+     */
+    public static BatchOptions fromEnvironmentVariables(Map<String, String> env) {
+      int concurrency = Integer.parseInt(env.getOrDefault(OPTION_BATCH_CONCURRENCY, "16"));
+      return BatchOptions.builder().concurrency(Math.max(1, concurrency)).build();
+    }
+  }
+}
@@ -0,0 +1,16 @@
+package gov.va.api.lighthouse.callculon;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** One response per configuration in a batch, in the same order as the batch. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CallculonBatchResponse {
+  private List<CallculonResponse> responses;
+}
@@ -1,5 +1,6 @@
 package gov.va.api.lighthouse.callculon;
 
+import java.util.List;
 import java.util.Map;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -31,6 +32,16 @@ public class CallculonConfiguration {
     GET
   }
 
+  /** What to do with the response body. */
+  public enum BodyMode {
+    /** Read the body and throw it away, so the connection can be reused. */
+    DISCARD,
+    /** Stop once the status and headers have arrived. The connection is closed, not reused. */
+    HEADERS_ONLY,
+    /** Keep up to `captureBytes` of the body for diagnostics and throw away the rest. */
+    CAPTURE
+  }
+
   /** Request protocol. */
   public enum Protocol {
     HTTP,
@@ -49,6 +60,25 @@ public class CallculonConfiguration {
     private String version;
     private String id;
     private String environment;
+    /**
+     * An ISO 8601 window, e.g. PT5M, to spread runs across. Each timer always runs at the same
+     * offset into the window, picked from its ID.
+     */
+    private String jitter;
+  }
+
+  /**
+   * Configure hedging, i.e. sending a second identical request if the first is slow and using
+   * whichever answers first. The delay is the given percentile of recent latencies for this
+   * configuration's name, or the fixed ISO 8601 delay until there are enough samples.
+   */
+  @Data
+  @Builder
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Hedge {
+    private String delay;
+    private int percentile;
   }
 
   /** Configure the notification(s) Callculon sends. */
@@ -72,6 +102,38 @@ public class CallculonConfiguration {
     private String path;
     private RequestMethod method;
     private Map<String, String> headers;
+    private BodyMode bodyMode;
+    private int captureBytes;
+    private Retry retry;
+    private Hedge hedge;
+
+    /**
+     * An ISO 8601 duration, e.g. PT30S, after which the call has failed even if it succeeded.
+     * Requests still waiting for a response are cancelled. Retries are included.
+     */
+    private String maxDuration;
+
+    /**
+     * An ISO 8601 duration after which a successful call is reported as a warning instead. Retries
+     * are included.
+     */
+    private String warnDuration;
+  }
+
+  /**
+   * Configure retrying failed requests. Durations are ISO 8601, e.g. PT0.2S. Exceptions are
+   * matched by simple or fully qualified class name, including super classes.
+   */
+  @Data
+  @Builder
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Retry {
+    private int maxAttempts;
+    private List<Integer> statuses;
+    private List<String> exceptions;
+    private String initialBackoff;
+    private String maxBackoff;
   }
 
   /** Configure Slack messaging. */
@@ -82,6 +144,13 @@ public class CallculonConfiguration {
   public static class Slack {
     @Builder.Default boolean onFailure = true;
     @Builder.Default boolean onSuccess = false;
+    /**
+     * Collect results into one periodic summary message per channel instead. Digests are held in
+     * memory. The batch handler and the daemon send them when a batch finishes or every window, but
+     * individual invocations only send the ones that are due when an invocation finishes, so
+     * results still held when Lambda retires an idle container are lost.
+     */
+    private boolean digest;
     private String webhook;
     private String channel;
   }
@@ -0,0 +1,280 @@
+package gov.va.api.lighthouse.callculon;
+
+import static java.util.stream.Collectors.toList;
+
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import gov.va.api.lighthouse.callculon.CallculonHandler.InvalidConfiguration;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.experimental.Accessors;
+
+/**
+ * Runs configurations on their `cron` schedules in a long-lived JVM instead of Lambda. Each
+ * configuration is handled exactly as the {@link CallculonHandler} would, with a {@link
+ * LocalContext} that gives it as long as a Lambda invocation would have. Timers wait in a single
+ * scheduler, ordered by when they fire next, and run on a bounded pool of workers. A timer that is
+ * still running when it is due again is skipped rather than run twice. Timers with a jitter window
+ * run at their own fixed offset after each scheduled time. Notifications held back for digests are
+ * flushed every digest window.
+ *
+ * <pre>
+ * java -cp callculon.jar gov.va.api.lighthouse.callculon.CallculonDaemon configurations/ ...
+ * </pre>
+ */
+public class CallculonDaemon {
+
+  private final DaemonOptions options;
+
+  private final CallculonHandler handler;
+
+  private final Clock clock;
+
+  private final PrintStream out;
+
+  private final LambdaLogger logger;
+
+  private final ScheduledExecutorService scheduler;
+
+  private final ExecutorService workers;
+
+  /**
+   * Create a new instance. If no options are specified, they will be picked from environment
+   * variables. If no handler is specified, a default one will be created. Times are UTC and output
+   * is written to standard out unless specified.
+   */
+  @Builder
+  public CallculonDaemon(
+      DaemonOptions options, CallculonHandler handler, Clock clock, PrintStream out) {
+    this.options = options == null ? DaemonOptions.fromEnvironmentVariables() : options;
+    this.handler = handler == null ? new CallculonHandler() : handler;
+    this.clock = clock == null ? Clock.systemUTC() : clock;
+    this.out = out == null ? System.out : out;
+    this.logger = new LocalLogger(this.out, "callculon-daemon", this.clock);
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(named("callculon-scheduler"));
+    this.workers =
+        Executors.newFixedThreadPool(this.options.concurrency(), named("callculon-worker"));
+  }
+
+  /**
+   * Read configurations, one per JSON file. Directories are searched for `.json` files, in name
+   * order.
+   */
+  static List<CallculonConfiguration> load(List<Path> paths) throws IOException {
+    List<CallculonConfiguration> configs = new ArrayList<>();
+    for (Path path : paths) {
+      List<Path> files;
+      if (Files.isDirectory(path)) {
+        try (Stream<Path> listing = Files.list(path)) {
+          files =
+              listing.filter(p -> p.toString().endsWith(".json")).sorted().collect(toList());
+        }
+      } else {
+        files = List.of(path);
+      }
+      for (Path file : files) {
+        try (Reader reader = Files.newBufferedReader(file)) {
+          configs.add(ConfigurationDecoder.decode(reader));
+        }
+      }
+    }
+    return configs;
+  }
+
+  /** Run the configurations in the given files and directories until the JVM is stopped. */
+  public static void main(String[] args) throws IOException {
+    var configs = load(Stream.of(args).map(Path::of).collect(toList()));
+    var daemon = CallculonDaemon.builder().build();
+    Runtime.getRuntime().addShutdownHook(new Thread(daemon::stop, "callculon-shutdown"));
+    daemon.start(configs);
+  }
+
+  private static ThreadFactory named(String prefix) {
+    AtomicInteger count = new AtomicInteger();
+    return r -> new Thread(r, prefix + "-" + count.incrementAndGet());
+  }
+
+  private void fire(Timer timer, ZonedDateTime at) {
+    schedule(timer, at);
+    if (!timer.running.compareAndSet(false, true)) {
+      logger.log(timer.config.getName() + " is still running, skipped " + at);
+      return;
+    }
+    workers.execute(
+        () -> {
+          try {
+            run(timer.config);
+          } finally {
+            timer.running.set(false);
+          }
+        });
+  }
+
+  private void flush() {
+    try {
+      handler.flushNotifications(logger);
+    } catch (RuntimeException e) {
+      logger.log("Failed to flush notifications: " + e.getMessage());
+    }
+  }
+
+  /** Handle a configuration now, as a Lambda invocation would. */
+  void run(CallculonConfiguration config) {
+    LambdaLogger runLogger = new LocalLogger(out, config.getName(), clock);
+    try {
+      handler.handleRequest(
+          config, new LocalContext(config.getName(), runLogger, options.invocationTimeout()));
+    } catch (RuntimeException e) {
+      runLogger.log("Failed: " + e.getClass().getSimpleName() + ": " + e.getMessage());
+    }
+  }
+
+  /**
+   * Schedule the next run after the given scheduled time, which does not include the jitter
+   * offset. When the scheduler has fallen behind, runs that were missed are not made up.
+   */
+  private void schedule(Timer timer, ZonedDateTime after) {
+    ZonedDateTime now = ZonedDateTime.now(clock);
+    ZonedDateTime scheduledNow = now.minus(timer.offset);
+    var next = timer.schedule.next(after.isBefore(scheduledNow) ? scheduledNow : after);
+    if (next.isEmpty()) {
+      logger.log(timer.config.getName() + " will not run again");
+      return;
+    }
+    long delayMillis =
+        Math.max(0, Duration.between(now, next.get().plus(timer.offset)).toMillis());
+    scheduler.schedule(() -> fire(timer, next.get()), delayMillis, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Start running configurations on their schedules. Configurations without a deployment, that are
+   * not enabled, or that have a cron or jitter that cannot be understood are left out. This returns
+   * the number scheduled without waiting for any to run.
+   */
+  public int start(List<CallculonConfiguration> configs) {
+    int scheduled = 0;
+    ZonedDateTime now = ZonedDateTime.now(clock);
+    for (CallculonConfiguration config : configs) {
+      var deployment = config.getDeployment();
+      if (deployment == null || !deployment.isEnabled()) {
+        logger.log(config.getName() + " is not enabled");
+        continue;
+      }
+      try {
+        var timer =
+            new Timer(config, CronSchedule.parse(deployment.getCron()), Jitter.offset(config));
+        schedule(timer, now.minus(timer.offset));
+        scheduled++;
+      } catch (InvalidConfiguration e) {
+        logger.log(config.getName() + " cannot be scheduled: " + e.getMessage());
+      }
+    }
+    long flushMillis = options.flushInterval().toMillis();
+    scheduler.scheduleAtFixedRate(this::flush, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+    logger.log("Scheduled " + scheduled + " of " + configs.size() + " configurations");
+    return scheduled;
+  }
+
+  /** Stop scheduling, let running configurations finish, then send held back notifications. */
+  public void stop() {
+    scheduler.shutdownNow();
+    workers.shutdown();
+    try {
+      long timeoutMillis = options.invocationTimeout().toMillis();
+      if (!workers.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)) {
+        workers.shutdownNow();
+      }
+    } catch (InterruptedException e) {
+      workers.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+    flush();
+  }
+
+  /** DaemonOptions. */
+  @Builder
+  @Getter
+  @Accessors(fluent = true)
+  public static class DaemonOptions {
+
+    public static final String OPTION_DAEMON_CONCURRENCY = "CALLCULON_DAEMON_CONCURRENCY";
+
+    public static final String OPTION_DAEMON_TIMEOUT = "CALLCULON_DAEMON_TIMEOUT";
+
+    /** How many configurations may run at the same time. */
+    private final int concurrency;
+
+    /** How long each run may take, like the timeout of a Lambda. */
+    @NonNull private final Duration invocationTimeout;
+
+    /** How often notifications held back for digests are sent. */
+    @NonNull private final Duration flushInterval;
+
+    /**
+     * Create options from System environment variables.
+     *
+     * <pre>
+     * CALLCULON_DAEMON_CONCURRENCY = Integer (16)
+     * CALLCULON_DAEMON_TIMEOUT = ISO 8601 Duration (PT15M)
+     * CALLCULON_DIGEST_WINDOW = ISO 8601 Duration (PT5M)
+     * </pre>
+     */
+    public static DaemonOptions fromEnvironmentVariables() {
+      return fromEnvironmentVariables(System.getenv());
+    }
+
+    /**
+     * Create options from a given environment map.
+     *
+     * <pre>
+     * CALLCULON_DAEMON_CONCURRENCY = Integer (16)
+     * CALLCULON_DAEMON_TIMEOUT = ISO 8601 Duration (PT15M)
+     * CALLCULON_DIGEST_WINDOW = ISO 8601 Duration (PT5M)
+     * </pre>
+     */
+    public static DaemonOptions fromEnvironmentVariables(Map<String, String> env) {
+      int concurrency = Integer.parseInt(env.getOrDefault(OPTION_DAEMON_CONCURRENCY, "16"));
+      return DaemonOptions.builder()
+          .concurrency(Math.max(1, concurrency))
+          .invocationTimeout(Duration.parse(env.getOrDefault(OPTION_DAEMON_TIMEOUT, "PT15M")))
+          .flushInterval(DigestNotifier.windowFromEnvironmentVariables(env))
+          .build();
+    }
+  }
+
+  /** A configuration, when it runs, and whether it is running now. */
+  private static final class Timer {
+    private final CallculonConfiguration config;
+
+    private final CronSchedule schedule;
+
+    private final Duration offset;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    Timer(CallculonConfiguration config, CronSchedule schedule, Duration offset) {
+      this.config = config;
+      this.schedule = schedule;
+      this.offset = offset;
+    }
+  }
+}
@@ -5,82 +5,152 @@ import static java.lang.String.format;
 import static java.util.Optional.ofNullable;
 
 import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import gov.va.api.lighthouse.callculon.CallculonConfiguration.Protocol;
 import gov.va.api.lighthouse.callculon.CallculonConfiguration.Request;
+import gov.va.api.lighthouse.callculon.CallculonConfiguration.Slack;
+import gov.va.api.lighthouse.callculon.CallculonResponse.Attempt;
+import gov.va.api.lighthouse.callculon.CallculonResponse.Latency;
+import gov.va.api.lighthouse.callculon.CallculonResponse.LatencyBreach;
+import gov.va.api.lighthouse.callculon.CallculonResponse.LatencyPercentiles;
 import gov.va.api.lighthouse.callculon.Notifier.NotificationContext;
-import java.io.IOException;
 import java.net.URI;
 import java.net.URL;
 import java.net.http.HttpClient;
-import java.net.http.HttpClient.Redirect;
 import java.net.http.HttpRequest;
-import java.net.http.HttpResponse.BodyHandlers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.SneakyThrows;
+import lombok.Value;
 import lombok.experimental.Accessors;
 
 /** The meat and bones of Callculon, takes a configuration and performs an action. */
 public class CallculonHandler implements RequestHandler<CallculonConfiguration, CallculonResponse> {
 
+  /** Notifications stop this long before Lambda would stop the function. */
+  private static final Duration NOTIFICATION_MARGIN = Duration.ofMillis(500);
+
+  /** Notifications that failed earlier are redelivered here, one drain at a time. */
+  private static final ExecutorService REDELIVERY_EXECUTOR =
+      Executors.newSingleThreadExecutor(
+          r -> {
+            Thread thread = new Thread(r, "callculon-redelivery");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  private static final AtomicBoolean REDELIVERING = new AtomicBoolean();
+
   private final HandlerOptions options;
 
-  private final HttpClient client;
+  private final Lazy<HttpClient> client;
+
+  private final Lazy<HttpClient> hedgeClient;
 
   private final SecretProcessor secretProcessor;
 
-  private final Notifier notifier;
+  private final CompositeNotifier notifier;
 
-  /** Create a new instance initialing options from environment variables if available. */
+  private final NotificationOutbox outbox;
+
+  private final HostLimiter hostLimiter;
+
+  private final EmbeddedMetrics metrics;
+
+  /**
+   * Create a new instance initialing options from environment variables if available. This is the
+   * constructor used by Lambda, so any origins listed in `CALLCULON_WARM_ORIGINS` are connected to
+   * now, while Lambda is initializing, rather than during the first invocation.
+   */
   public CallculonHandler() {
-    this(null, null, null, null);
+    this(null, null, null, null, null, null);
+    List<URI> origins = ConnectionWarmer.originsFromEnvironmentVariables(System.getenv());
+    if (!origins.isEmpty()) {
+      long start = System.nanoTime();
+      int warmed = ConnectionWarmer.warm(client.get(), origins, options.connectTimeout());
+      StartupTimings.shared().recordSince("warmOrigins", start);
+      StartupTimings.shared().record("warmedOrigins", warmed);
+    }
   }
 
   /**
    * Create a new instance from options (or not... whatever) If no options are specified, they will
    * be picked from environment variables, or we'll just assume some defaults if environment
-   * variables are not available.
+   * variables are not available. The hedge client is used for hedged requests and should not share
+   * a connection pool with the client. When the outbox has notifications that failed earlier,
+   * they are redelivered in the background. If no notifier is specified, the shared outbox used by
+   * the default notifiers is checked. Otherwise, no outbox is checked unless specified. Clients
+   * that are not specified are created when first needed, so a configuration that never hedges
+   * never pays for a hedge client.
    */
   @Builder
   public CallculonHandler(
       HandlerOptions options,
       SecretProcessor secretProcessor,
       Notifier notifier,
-      HttpClient client) {
+      HttpClient client,
+      HttpClient hedgeClient,
+      NotificationOutbox outbox) {
+    long start = System.nanoTime();
     this.options = options == null ? HandlerOptions.fromEnvironmentVariables() : options;
     this.secretProcessor =
         secretProcessor == null ? AwsSecretProcessor.defaultInstance() : secretProcessor;
-    this.client =
-        client == null
-            ? HttpClient.newBuilder()
-                .followRedirects(Redirect.NEVER)
-                .connectTimeout(this.options.connectTimeout())
-                .sslContext(SecurityContexts.relaxed())
-                .build()
-            : client;
-    this.notifier = notifier == null ? SlackNotifier.defaultInstance() : notifier;
-  }
-
-  private HttpRequest asHttpRequest(Request request) {
+    Duration connectTimeout = this.options.connectTimeout();
+    this.client = Lazy.orElse(client, () -> HttpClients.relaxed(connectTimeout));
+    this.hedgeClient = Lazy.orElse(hedgeClient, () -> HttpClients.hedging(connectTimeout));
+    this.notifier = CompositeNotifier.of(notifier == null ? defaultNotifier() : notifier);
+    this.outbox = outbox == null && notifier == null ? NotificationOutbox.shared() : outbox;
+    this.hostLimiter = HostLimiter.of(this.options.hostConcurrency());
+    this.metrics = EmbeddedMetrics.of(this.options.metricsNamespace());
+    StartupTimings.shared().recordSince("handler", start);
+  }
+
+  /**
+   * Slack, with results collected into digests for configurations that want them, and repeated
+   * failures suppressed for the rest.
+   */
+  private static Notifier defaultNotifier() {
+    SlackNotifier slack = SlackNotifier.defaultInstance();
+    return DigestNotifier.builder()
+        .slack(slack)
+        .delegate(SuppressingNotifier.builder().delegate(slack).build())
+        .build();
+  }
+
+  private HttpRequest asHttpRequest(
+      Request request, URI uri, SecretProcessor secrets, Duration timeout) {
     HttpRequest.Builder builder = HttpRequest.newBuilder();
     builder.GET();
-    builder.uri(asUri(request));
+    builder.uri(uri);
     if (request.getHeaders() != null) {
-      request.getHeaders().forEach((name, value) -> builder.header(name, secret(value)));
+      request.getHeaders().forEach((name, value) -> builder.header(name, secrets.apply(value)));
     }
-    builder.timeout(options.requestTimeout());
+    builder.timeout(timeout);
     return builder.build();
   }
 
   @SneakyThrows
-  private URI asUri(Request request) {
+  private URI asUri(Request request, SecretProcessor secrets) {
     check(request.getHostname() != null, "missing hostname");
     check(request.getPath() != null, "missing path");
     check(request.getPort() > 0, "missing port");
@@ -89,93 +159,402 @@ public class CallculonHandler implements RequestHandler<CallculonConfiguration,
             .orElse(Protocol.HTTPS)
             .toString()
             .toLowerCase(Locale.ENGLISH);
-    String secretPath = secret(request.getPath());
+    String secretPath = secrets.apply(request.getPath());
     String separator = secretPath.startsWith("/") ? "" : "/";
     String url =
         protocol + "://" + request.getHostname() + ":" + request.getPort() + separator + secretPath;
     return new URL(url).toURI();
   }
 
+  /**
+   * Wait for an exchange until the timeout has passed since the request was sent. The request
+   * timeout only covers waiting for the response headers, so this is what stops a slow body. Once
+   * the time is up, the requests are cancelled and the exchange is a timeout.
+   */
+  @SneakyThrows
+  private Exchange await(
+      CompletableFuture<Exchange> exchange,
+      long sendNanos,
+      Duration timeout,
+      CompletableFuture<?>... requests) {
+    long remainingNanos = sendNanos + timeout.toNanos() - System.nanoTime();
+    try {
+      return exchange.get(Math.max(remainingNanos, 0), TimeUnit.NANOSECONDS);
+    } catch (TimeoutException e) {
+      for (var request : requests) {
+        request.cancel(true);
+      }
+      var error =
+          new HttpTimeoutException("Request not finished after " + timeout.toMillis() + " ms");
+      return exchange(null, error, null, sendNanos);
+    }
+  }
+
+  /**
+   * The cron and jitter are only used to schedule the configuration, but one that cannot be
+   * scheduled is a mistake that should not wait to be found. Configurations without a cron are
+   * left alone.
+   */
+  private void checkSchedule(CallculonConfiguration config) {
+    String cron = config.getDeployment().getCron();
+    if (cron != null) {
+      CronSchedule.parse(cron);
+    }
+    Jitter.offset(config);
+  }
+
+  private BiConsumer<Notifier, NotificationContext> eventFor(
+      int statusCode, LatencyBreach breach) {
+    if (!isOk(statusCode, breach)) {
+      return Notifier::onFailure;
+    }
+    return breach == null ? Notifier::onSuccess : Notifier::onWarning;
+  }
+
+  private Exchange exchange(
+      HttpResponse<String> response,
+      Throwable error,
+      TimedBodyHandler<String> bodyHandler,
+      long sendNanos) {
+    long responseNanos = System.nanoTime();
+    if (response == null) {
+      Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+      return new Exchange(0, null, cause, sendNanos, responseNanos, responseNanos, false, false);
+    }
+    return new Exchange(
+        response.statusCode(),
+        response.body(),
+        null,
+        sendNanos,
+        bodyHandler.headersNanosOr(responseNanos),
+        responseNanos,
+        false,
+        false);
+  }
+
+  /**
+   * Send any notifications held back, e.g. digests. This should be called once a batch of
+   * configurations has been handled.
+   */
+  public void flushNotifications(LambdaLogger logger) {
+    notifier.flush(logger);
+  }
+
   @Override
   @SneakyThrows
   public CallculonResponse handleRequest(CallculonConfiguration config, Context context) {
+    redeliverNotifications(context.getLogger());
     context.getLogger().log(titleOf(config));
+    checkSchedule(config);
+    var budget = LatencyBudget.of(config.getRequest());
     var start = Instant.now();
-
-    var request = asHttpRequest(config.getRequest());
-    context.getLogger().log("Requesting " + request.uri());
-
-    Optional<String> note;
-    int statusCode;
-    try {
-      var response = client.send(request, BodyHandlers.ofString());
-      statusCode = response.statusCode();
-      note = Optional.empty();
-    } catch (IOException e) {
-      statusCode = 0;
-      note =
-          Optional.of(
-              "Error `"
-                  + e.getClass().getSimpleName()
-                  + "` with message: _"
-                  + e.getMessage()
-                  + "_");
+    long startNanos = System.nanoTime();
+    var deadline = budget.limit(Deadline.of(context, options.deadlineReserve()));
+
+    var secrets = resolveSecrets(config);
+    long secretsNanos = System.nanoTime();
+    var uri = asUri(config.getRequest(), secrets);
+    context.getLogger().log("Requesting " + uri);
+
+    boolean originRecentlyContacted = ConnectionWarmer.wasRecentlyContacted(uri);
+    var latencies = LatencyHistogram.of(config.getName());
+    var retryPolicy = RetryPolicy.of(config.getRequest().getRetry());
+    List<Attempt> attempts = new ArrayList<>();
+    Exchange exchange;
+    while (true) {
+      long waitNanos = System.nanoTime();
+      try (var permit =
+          hostLimiter.acquire(uri.getHost(), deadline.timeout(options.requestTimeout()))) {
+        Duration timeout = deadline.timeout(options.requestTimeout());
+        if (timeout.isZero()) {
+          throw new HttpTimeoutException("No time left to send the request");
+        }
+        var hedgeDelay = HedgePolicy.delay(config.getRequest().getHedge(), config.getName());
+        if (hedgeDelay.isPresent() && hedgeDelay.get().compareTo(timeout) < 0) {
+          exchange =
+              sendHedged(
+                  t -> asHttpRequest(config.getRequest(), uri, secrets, t),
+                  timeout,
+                  hedgeDelay.get(),
+                  config);
+        } else {
+          exchange =
+              send(asHttpRequest(config.getRequest(), uri, secrets, timeout), timeout, config);
+        }
+      } catch (HttpTimeoutException e) {
+        /*
+         * Other requests to the same host did not finish in time, or looking up secrets and waiting
+         * for the host used up the time before the request could be sent.
+         */
+        exchange = exchange(null, e, null, waitNanos);
+      }
+      if (exchange.error() == null) {
+        var took = Duration.ofNanos(exchange.responseNanos() - exchange.sendNanos());
+        latencies.record(took);
+        if (config.getRequest().getHedge() != null && isOk(exchange.statusCode(), null)) {
+          HedgePolicy.record(config.getName(), took);
+        }
+      }
+      attempts.add(exchange.asAttempt());
+      if (!shouldRetry(exchange, attempts.size(), retryPolicy)) {
+        break;
+      }
+      Duration backoff = retryPolicy.backoff(attempts.size());
+      if (deadline.remaining().compareTo(backoff.plus(RetryPolicy.MIN_ATTEMPT_TIMEOUT)) < 0) {
+        context.getLogger().log("Not enough time left to retry");
+        break;
+      }
+      context
+          .getLogger()
+          .log(
+              format(
+                  "Attempt %d failed with %s, retrying in %d ms",
+                  attempts.size(), exchange.outcome(), backoff.toMillis()));
+      Thread.sleep(backoff.toMillis());
     }
+    var requestDuration = Duration.between(start, Instant.now());
+    var breach = budget.breach(requestDuration).orElse(null);
     var notificationContext =
         NotificationContext.builder()
             .config(config)
-            .secretProcessor(secretProcessor)
+            .secretProcessor(secrets)
             .logger(context.getLogger())
-            .url(request.uri().toString())
-            .statusCode(statusCode)
-            .note(note)
+            .url(uri.toString())
+            .statusCode(exchange.statusCode())
+            .note(exchange.note(attempts.size()).or(() -> budget.note(requestDuration)))
+            .body(ofNullable(exchange.body()))
+            .duration(requestDuration)
             .build();
-    var requestDuration = Duration.between(start, Instant.now());
     context
         .getLogger()
         .log(
             format(
-                "Response is %d, call took %d ms",
-                notificationContext.getStatusCode(), requestDuration.toMillis()));
-
-    var notificationStatus = sendNotifications(notificationContext);
-
-    CallculonResponse result =
+                "Response is %d, call took %d ms in %d attempt(s) (origin %s%s)%s",
+                notificationContext.getStatusCode(),
+                requestDuration.toMillis(),
+                attempts.size(),
+                originRecentlyContacted ? "contacted recently" : "not contacted recently",
+                exchange.hedged() ? (exchange.hedgeWon() ? ", hedge won" : ", hedge lost") : "",
+                breach == null
+                    ? ""
+                    : breach == LatencyBreach.MAX ? ", over maxDuration" : ", over warnDuration"));
+
+    long notificationNanos = System.nanoTime();
+    var notificationTimeout =
+        Deadline.of(context, NOTIFICATION_MARGIN).timeout(options.notificationTimeout());
+    var notifications =
+        notifier.dispatch(
+            notificationContext, eventFor(exchange.statusCode(), breach), notificationTimeout);
+    /*
+     * Nothing else flushes digests between individual invocations, so send any that are due. The
+     * outcome is only logged, since those digests are not about this configuration.
+     */
+    var dueNotifications =
+        notifier.dispatch(
+            NotificationContext.builder().logger(context.getLogger()).build(),
+            (each, ctx) -> each.flushDue(ctx.getLogger()),
+            notificationTimeout);
+
+    /* Notifiers are running, get everything else ready in the meantime. */
+    var result =
         CallculonResponse.builder()
             .configuration(config)
             .statusCode(notificationContext.getStatusCode())
             .requestTime(start.toString())
             .duration(requestDuration.toString())
-            .notificationError(notificationStatus == NotificationStatus.ERROR)
+            .originRecentlyContacted(originRecentlyContacted)
+            .attempts(attempts)
+            .hedged(exchange.hedged())
+            .hedgeWon(exchange.hedgeWon())
+            .body(exchange.body())
+            .latencyPercentiles(latencies.percentiles())
+            .latencyBreach(breach)
             .build();
+    var latency =
+        Latency.builder()
+            .secretLookupMillis(millisBetween(startNanos, secretsNanos))
+            .timeToHeadersMillis(millisBetween(exchange.sendNanos(), exchange.headersNanos()))
+            .bodyMillis(millisBetween(exchange.headersNanos(), exchange.responseNanos()))
+            .build();
+    String secretCacheStatistics = "Secret cache " + SecretCache.shared().statistics();
+
+    var notifierResults = notifications.join();
+    dueNotifications.join();
+    long doneNanos = System.nanoTime();
+    latency.setNotificationMillis(millisBetween(notificationNanos, doneNanos));
+    latency.setTotalMillis(millisBetween(startNanos, doneNanos));
+    result.setLatency(latency);
+    result.setNotifications(notifierResults);
+    result.setNotificationError(notifierResults.stream().anyMatch(n -> n.getError() != null));
+    context
+        .getLogger()
+        .log(
+            format(
+                "Latency secretLookupMillis=%d timeToHeadersMillis=%d bodyMillis=%d"
+                    + " notificationMillis=%d totalMillis=%d",
+                latency.getSecretLookupMillis(),
+                latency.getTimeToHeadersMillis(),
+                latency.getBodyMillis(),
+                latency.getNotificationMillis(),
+                latency.getTotalMillis()));
 
     context.getLogger().log(result.toString());
+    if (latencies.reportDue(doneNanos, options.latencyReportInterval())) {
+      context.getLogger().log(percentilesOf(config, result.getLatencyPercentiles()));
+    }
+    metrics.log(context.getLogger(), config, result, requestDuration.toMillis());
+    context.getLogger().log(secretCacheStatistics);
+    context.getLogger().log(TlsHandshakes.statistics());
+    StartupTimings.shared()
+        .logOnce(context.getLogger(), Duration.ofNanos(doneNanos - startNanos));
     return result;
   }
 
-  private boolean isOk(int statusCode) {
-    return statusCode >= 200 && statusCode < 300;
+  /**
+   * A call is only OK if it ended with a 2xx status within its maxDuration. Going over the
+   * warnDuration is still OK, but slow.
+   */
+  private boolean isOk(int statusCode, LatencyBreach breach) {
+    return statusCode >= 200 && statusCode < 300 && breach != LatencyBreach.MAX;
   }
 
-  private String secret(String configValue) {
-    return secretProcessor.apply(configValue);
+  private long millisBetween(long startNanos, long endNanos) {
+    return TimeUnit.NANOSECONDS.toMillis(endNanos - startNanos);
   }
 
-  private NotificationStatus sendNotifications(NotificationContext notificationContext) {
-    try {
-      if (isOk(notificationContext.getStatusCode())) {
-        notifier.onSuccess(notificationContext);
-      } else {
-        notifier.onFailure(notificationContext);
+  private String percentilesOf(CallculonConfiguration config, LatencyPercentiles percentiles) {
+    return format(
+        "Latency percentiles %s count=%d p50Millis=%d p90Millis=%d p99Millis=%d maxMillis=%d",
+        config.getName(),
+        percentiles.getCount(),
+        percentiles.getP50Millis(),
+        percentiles.getP90Millis(),
+        percentiles.getP99Millis(),
+        percentiles.getMaxMillis());
+  }
+
+  /**
+   * Start redelivering notifications left in the outbox by earlier invocations, unless there are
+   * none or a redelivery is already running. This does not wait for the redelivery to finish.
+   */
+  private void redeliverNotifications(LambdaLogger logger) {
+    if (outbox == null || outbox.isEmpty() || !REDELIVERING.compareAndSet(false, true)) {
+      return;
+    }
+    REDELIVERY_EXECUTOR.execute(
+        () -> {
+          try {
+            notifier.redeliver(secretProcessor, logger);
+          } catch (RuntimeException e) {
+            logger.log("Failed to redeliver notifications: " + e.getMessage());
+          } finally {
+            REDELIVERING.set(false);
+          }
+        });
+  }
+
+  /**
+   * Look up every secret in the configuration at once, rather than once per value that may contain
+   * secrets.
+   */
+  private SecretProcessor resolveSecrets(CallculonConfiguration config) {
+    List<String> values = new ArrayList<>();
+    Request request = config.getRequest();
+    if (request != null) {
+      values.add(request.getPath());
+      if (request.getHeaders() != null) {
+        values.addAll(request.getHeaders().values());
       }
-      return NotificationStatus.OK;
-    } catch (Exception e) {
-      notificationContext.getLogger().log("Failed to send notification.");
-      notificationContext
-          .getLogger()
-          .log(e.getClass().getSimpleName() + ": " + e.getLocalizedMessage());
-      return NotificationStatus.ERROR;
     }
+    Slack slack = config.getNotification().getSlack();
+    if (slack != null) {
+      values.add(slack.getWebhook());
+    }
+    return secretProcessor.resolveAll(values);
+  }
+
+  /** Make a single attempt at the request, giving up on it once the timeout has passed. */
+  private Exchange send(HttpRequest request, Duration timeout, CallculonConfiguration config) {
+    var bodyHandler = TimedBodyHandler.of(ResponseBodies.forRequest(config.getRequest()));
+    long sendNanos = System.nanoTime();
+    var response = client.get().sendAsync(request, bodyHandler);
+    var result =
+        await(
+            response.handle((r, error) -> exchange(r, error, bodyHandler, sendNanos)),
+            sendNanos,
+            timeout,
+            response);
+    if (result.error() == null) {
+      ConnectionWarmer.contacted(request.uri());
+    }
+    return result;
+  }
+
+  /**
+   * Send the request and, if it has not been answered after the delay, send it again using the
+   * hedge client. The first successful (2xx) response wins and the other request is cancelled. A
+   * failure, including an error status, only wins if the other request has already finished, so
+   * whichever finished last is used when neither succeeds. Requests are built for a timeout so the
+   * hedge finishes within the same time as the first request. The hedge needs its own permit from
+   * the host limiter, and is not sent if none is free.
+   */
+  @SneakyThrows
+  private Exchange sendHedged(
+      Function<Duration, HttpRequest> requestWithTimeout,
+      Duration timeout,
+      Duration delay,
+      CallculonConfiguration config) {
+    long sendNanos = System.nanoTime();
+    var firstHandler = TimedBodyHandler.of(ResponseBodies.forRequest(config.getRequest()));
+    var firstRequest = requestWithTimeout.apply(timeout);
+    var first = client.get().sendAsync(firstRequest, firstHandler);
+    var firstExchange =
+        first.handle((response, error) -> exchange(response, error, firstHandler, sendNanos));
+    try {
+      return firstExchange.get(delay.toNanos(), TimeUnit.NANOSECONDS);
+    } catch (TimeoutException e) {
+      /* Too slow, time to hedge. */
+    }
+    var hedgePermit = hostLimiter.tryAcquire(firstRequest.uri().getHost());
+    if (hedgePermit.isEmpty()) {
+      /* The host is already as busy as allowed, so wait for the first request instead. */
+      return await(firstExchange, sendNanos, timeout, first);
+    }
+    var hedgeHandler = TimedBodyHandler.of(ResponseBodies.forRequest(config.getRequest()));
+    var hedge =
+        hedgeClient.get().sendAsync(requestWithTimeout.apply(timeout.minus(delay)), hedgeHandler);
+    hedge.whenComplete((response, error) -> hedgePermit.get().close());
+    var hedgeExchange =
+        hedge.handle((response, error) -> exchange(response, error, hedgeHandler, sendNanos));
+    var winner = new CompletableFuture<Exchange>();
+    firstExchange.thenAccept(
+        e -> {
+          if (isOk(e.statusCode(), null) || hedgeExchange.isDone()) {
+            winner.complete(e);
+          }
+        });
+    hedgeExchange.thenAccept(
+        e -> {
+          if (isOk(e.statusCode(), null) || firstExchange.isDone()) {
+            winner.complete(e);
+          }
+        });
+    var result = await(winner, sendNanos, timeout, first, hedge);
+    boolean hedgeWon = result == hedgeExchange.getNow(null);
+    (hedgeWon ? first : hedge).cancel(true);
+    if (result.error() == null) {
+      ConnectionWarmer.contacted(firstRequest.uri());
+    }
+    return result.hedged(hedgeWon);
+  }
+
+  private boolean shouldRetry(Exchange exchange, int attempts, RetryPolicy retryPolicy) {
+    if (attempts >= retryPolicy.maxAttempts()) {
+      return false;
+    }
+    return exchange.error() == null
+        ? retryPolicy.isRetryable(exchange.statusCode())
+        : retryPolicy.isRetryable(exchange.error());
   }
 
   String titleOf(CallculonConfiguration config) {
@@ -189,9 +568,55 @@ public class CallculonHandler implements RequestHandler<CallculonConfiguration,
         + ")";
   }
 
-  enum NotificationStatus {
-    OK,
-    ERROR
+  /** The result of a single attempt at the request, with System.nanoTime timings. */
+  @Value
+  @Accessors(fluent = true)
+  private static class Exchange {
+    int statusCode;
+
+    String body;
+
+    Throwable error;
+
+    long sendNanos;
+
+    long headersNanos;
+
+    long responseNanos;
+
+    boolean hedged;
+
+    boolean hedgeWon;
+
+    Attempt asAttempt() {
+      return Attempt.builder()
+          .statusCode(statusCode)
+          .error(error == null ? null : error.getClass().getSimpleName())
+          .millis(TimeUnit.NANOSECONDS.toMillis(responseNanos - sendNanos))
+          .build();
+    }
+
+    Exchange hedged(boolean won) {
+      return new Exchange(
+          statusCode, body, error, sendNanos, headersNanos, responseNanos, true, won);
+    }
+
+    Optional<String> note(int attempts) {
+      if (error == null) {
+        return Optional.empty();
+      }
+      return Optional.of(
+          "Error `"
+              + error.getClass().getSimpleName()
+              + "` with message: _"
+              + error.getMessage()
+              + "_"
+              + (attempts > 1 ? " after " + attempts + " attempts" : ""));
+    }
+
+    String outcome() {
+      return error == null ? "status " + statusCode : error.getClass().getSimpleName();
+    }
   }
 
   /** HandlerOptions. */
@@ -204,16 +629,57 @@ public class CallculonHandler implements RequestHandler<CallculonConfiguration,
 
     public static final String OPTION_REQUEST_TIMEOUT = "CALLCULON_REQUEST_TIMEOUT";
 
+    public static final String OPTION_DEADLINE_RESERVE = "CALLCULON_DEADLINE_RESERVE";
+
+    public static final String OPTION_NOTIFICATION_TIMEOUT = "CALLCULON_NOTIFICATION_TIMEOUT";
+
+    public static final String OPTION_HOST_CONCURRENCY = "CALLCULON_HOST_CONCURRENCY";
+
+    public static final String OPTION_METRICS_NAMESPACE = "CALLCULON_METRICS_NAMESPACE";
+
+    public static final String OPTION_LATENCY_REPORT_INTERVAL =
+        "CALLCULON_LATENCY_REPORT_INTERVAL";
+
     @NonNull private final Duration connectTimeout;
 
     @NonNull private final Duration requestTimeout;
 
+    /**
+     * Time kept back from the Lambda's remaining time for notifications. Requests and retries are
+     * cut short so this much time is left when they finish.
+     */
+    @NonNull @Builder.Default private final Duration deadlineReserve = Duration.ofSeconds(2);
+
+    /** How long all notifiers together may take. */
+    @NonNull @Builder.Default private final Duration notificationTimeout = Duration.ofSeconds(10);
+
+    /**
+     * How many requests may be sent to the same hostname at once by all handlers in the
+     * container. Zero is no limit.
+     */
+    @Builder.Default private final int hostConcurrency = 0;
+
+    /**
+     * The CloudWatch namespace for metrics written to the log in Embedded Metric Format. Blank
+     * turns metrics off.
+     */
+    @NonNull @Builder.Default private final String metricsNamespace = "Callculon";
+
+    /** How often the latency percentiles of each configuration are logged. */
+    @NonNull @Builder.Default
+    private final Duration latencyReportInterval = Duration.ofMinutes(15);
+
     /**
      * Create options from System environment variables.
      *
      * <pre>
      * CALLCULON_CONNECT_TIMEOUT = ISO 8601 Duration (PT20S)
      * CALLCULON_REQUEST_TIMEOUT = ISO 8601 Duration (PT120S)
+     * CALLCULON_DEADLINE_RESERVE = ISO 8601 Duration (PT2S)
+     * CALLCULON_NOTIFICATION_TIMEOUT = ISO 8601 Duration (PT10S)
+     * CALLCULON_HOST_CONCURRENCY = Integer (0, no limit)
+     * CALLCULON_METRICS_NAMESPACE = String (Callculon, blank for none)
+     * CALLCULON_LATENCY_REPORT_INTERVAL = ISO 8601 Duration (PT15M)
      * </pre>
      */
     public static HandlerOptions fromEnvironmentVariables() {
@@ -226,12 +692,24 @@ public class CallculonHandler implements RequestHandler<CallculonConfiguration,
      * <pre>
      * CALLCULON_CONNECT_TIMEOUT = ISO 8601 Duration (PT20S)
      * CALLCULON_REQUEST_TIMEOUT = ISO 8601 Duration (PT120S)
+     * CALLCULON_DEADLINE_RESERVE = ISO 8601 Duration (PT2S)
+     * CALLCULON_NOTIFICATION_TIMEOUT = ISO 8601 Duration (PT10S)
+     * CALLCULON_HOST_CONCURRENCY = Integer (0, no limit)
+     * CALLCULON_METRICS_NAMESPACE = String (Callculon, blank for none)
+     * CALLCULON_LATENCY_REPORT_INTERVAL = ISO 8601 Duration (PT15M)
      * </pre>
      */
     public static HandlerOptions fromEnvironmentVariables(Map<String, String> env) {
       return HandlerOptions.builder()
           .connectTimeout(Duration.parse(env.getOrDefault(OPTION_CONNECT_TIMEOUT, "PT20S")))
           .requestTimeout(Duration.parse(env.getOrDefault(OPTION_REQUEST_TIMEOUT, "PT120S")))
+          .deadlineReserve(Duration.parse(env.getOrDefault(OPTION_DEADLINE_RESERVE, "PT2S")))
+          .notificationTimeout(
+              Duration.parse(env.getOrDefault(OPTION_NOTIFICATION_TIMEOUT, "PT10S")))
+          .hostConcurrency(Integer.parseInt(env.getOrDefault(OPTION_HOST_CONCURRENCY, "0")))
+          .metricsNamespace(env.getOrDefault(OPTION_METRICS_NAMESPACE, "Callculon"))
+          .latencyReportInterval(
+              Duration.parse(env.getOrDefault(OPTION_LATENCY_REPORT_INTERVAL, "PT15M")))
           .build();
     }
   }
@@ -1,5 +1,6 @@
 package gov.va.api.lighthouse.callculon;
 
+import java.util.List;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -15,5 +16,143 @@ public class CallculonResponse {
   private int statusCode;
   private String requestTime;
   private String duration;
+  /** Whether any notifier failed or timed out, see notifications for details. */
   private boolean notificationError;
+
+  /** The outcome of each notifier. */
+  private List<NotifierResult> notifications;
+
+  /**
+   * Whether this container had received a response from the same origin in the last minute, either
+   * during warm up or a previous invocation. This is a hint that a pooled connection may have been
+   * reused, not a report that it was. The connection may have been closed, e.g. after a
+   * HEADERS_ONLY call or by a server with a shorter idle timeout, or pooled by another client.
+   */
+  private boolean originRecentlyContacted;
+
+  /**
+   * Where the time went. Time to headers and body are for the final attempt, retries and backoff
+   * are included in the total.
+   */
+  private Latency latency;
+
+  /**
+   * Request latency percentiles for this configuration across the invocations handled by the
+   * container so far, including this one.
+   */
+  private LatencyPercentiles latencyPercentiles;
+
+  /**
+   * Set when the call took longer than the request's warnDuration or maxDuration. Going over the
+   * maxDuration is a failure, whatever the status code.
+   */
+  private LatencyBreach latencyBreach;
+
+  /** Whether a hedged request was sent because the first was slow. */
+  private boolean hedged;
+
+  /** Whether the hedged request answered before the first. */
+  private boolean hedgeWon;
+
+  /** Every attempt made, in order. There is more than one if the request was retried. */
+  private List<Attempt> attempts;
+
+  /** The start of the response body, only when the request asked for it to be captured. */
+  private String body;
+
+  /** Set when the configuration could not be processed at all, e.g. it was invalid. */
+  private String error;
+
+  /** Which part of the request's latency budget the call went over. */
+  public enum LatencyBreach {
+    /** Longer than warnDuration. */
+    WARN,
+    /** Longer than maxDuration. */
+    MAX
+  }
+
+  /** The outcome of a single attempt at the request. */
+  @Data
+  @Builder
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Attempt {
+    /** The status code, or 0 if there was no response. */
+    private int statusCode;
+
+    /** The exception class name if there was no response. */
+    private String error;
+
+    /** How long the attempt took, not including any backoff before it. */
+    private long millis;
+  }
+
+  /**
+   * Where the time went, in milliseconds. The HTTP client does not expose DNS, connect and TLS
+   * timings, these are included in the time to headers. Use connection reuse to tell whether they
+   * were likely paid for.
+   */
+  @Data
+  @Builder
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Latency {
+    /** Resolving secrets for the request and notifications. */
+    private long secretLookupMillis;
+
+    /** From sending the request until the status and headers arrived. */
+    private long timeToHeadersMillis;
+
+    /** Reading the response body after the headers arrived. */
+    private long bodyMillis;
+
+    /** Sending notifications. */
+    private long notificationMillis;
+
+    /** The whole invocation. */
+    private long totalMillis;
+  }
+
+  /**
+   * Request latency percentiles, in milliseconds. Every attempt that got a response is counted,
+   * from sending the request until the body was read.
+   */
+  @Data
+  @Builder
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class LatencyPercentiles {
+    /** How many requests are counted. */
+    private long count;
+
+    private long p50Millis;
+
+    private long p90Millis;
+
+    private long p99Millis;
+
+    private long maxMillis;
+  }
+
+  /** The outcome of a single notifier. */
+  @Data
+  @Builder
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class NotifierResult {
+    /** The name the notifier was registered with. */
+    private String notifier;
+
+    /** Why the notification could not be sent, or null if it was sent or queued. */
+    private String error;
+
+    /**
+     * Why the notification could not be sent yet, if it was kept to be redelivered later. Queued
+     * notifications are not errors.
+     */
+    private String queued;
+
+    /** How long the notifier took. */
+    private long millis;
+  }
 }
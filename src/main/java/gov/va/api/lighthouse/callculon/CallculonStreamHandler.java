@@ -0,0 +1,40 @@
+package gov.va.api.lighthouse.callculon;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestStreamHandler;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import lombok.Builder;
+
+/**
+ * Handles a configuration exactly as the {@link CallculonHandler} would, but reads the input and
+ * writes the response itself instead of leaving it to the Lambda runtime's reflective serializer,
+ * which is slow the first time it meets a class. This keeps the serializer off the cold start.
+ */
+public class CallculonStreamHandler implements RequestStreamHandler {
+
+  private final CallculonHandler handler;
+
+  /** Create a new instance with a default handler. */
+  public CallculonStreamHandler() {
+    this(null);
+  }
+
+  /** Create a new instance. If no handler is specified, a default one will be created. */
+  @Builder
+  public CallculonStreamHandler(CallculonHandler handler) {
+    this.handler = handler == null ? new CallculonHandler() : handler;
+  }
+
+  @Override
+  public void handleRequest(InputStream input, OutputStream output, Context context)
+      throws IOException {
+    CallculonConfiguration config =
+        ConfigurationDecoder.decode(new InputStreamReader(input, UTF_8));
+    ResponseEncoder.encode(handler.handleRequest(config, context), output);
+  }
+}
@@ -0,0 +1,186 @@
+package gov.va.api.lighthouse.callculon;
+
+import static java.util.stream.Collectors.toList;
+
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import gov.va.api.lighthouse.callculon.CallculonResponse.NotifierResult;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Singular;
+
+/**
+ * Sends notifications through several named notifiers at the same time, so a slow notifier only
+ * adds its own latency rather than everyone's. All notifiers share one timeout. A notifier that
+ * has not finished by then is reported as timed out and left to finish in the background.
+ */
+public class CompositeNotifier implements Notifier {
+
+  private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(10);
+
+  private static final ExecutorService NOTIFIER_EXECUTOR =
+      Executors.newCachedThreadPool(
+          r -> {
+            Thread thread = new Thread(r, "callculon-notifier");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  private final Map<String, Notifier> notifiers;
+
+  /** Create a new instance with notifiers that are invoked in the order given. */
+  @Builder
+  public CompositeNotifier(@Singular @NonNull Map<String, Notifier> notifiers) {
+    this.notifiers = notifiers;
+  }
+
+  /**
+   * Use the notifier as is if it is already a composite, otherwise create a composite with only
+   * the notifier, named after its class.
+   */
+  public static CompositeNotifier of(Notifier notifier) {
+    if (notifier instanceof CompositeNotifier) {
+      return (CompositeNotifier) notifier;
+    }
+    return CompositeNotifier.builder()
+        .notifier(notifier.getClass().getSimpleName(), notifier)
+        .build();
+  }
+
+  private static NotifierResult invoke(
+      String name,
+      Notifier notifier,
+      NotificationContext ctx,
+      BiConsumer<Notifier, NotificationContext> event) {
+    long start = System.nanoTime();
+    String error = null;
+    String queued = null;
+    try {
+      event.accept(notifier, ctx);
+    } catch (NotificationQueued e) {
+      ctx.getLogger().log("Queued " + name + " notification for redelivery: " + e.getMessage());
+      queued = e.getMessage();
+    } catch (Exception e) {
+      ctx.getLogger().log("Failed to send " + name + " notification.");
+      ctx.getLogger().log(e.getClass().getSimpleName() + ": " + e.getLocalizedMessage());
+      error = e.getClass().getSimpleName() + ": " + e.getMessage();
+    }
+    return NotifierResult.builder()
+        .notifier(name)
+        .error(error)
+        .queued(queued)
+        .millis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+        .build();
+  }
+
+  private static NotifierResult timedOut(String name, Duration timeout) {
+    return NotifierResult.builder()
+        .notifier(name)
+        .error("Timed out after " + timeout.toMillis() + " ms")
+        .millis(timeout.toMillis())
+        .build();
+  }
+
+  /**
+   * Start sending the event through every notifier. The result completes with the outcome of each
+   * notifier, in order, once they have all finished or the timeout has passed. It never completes
+   * exceptionally.
+   */
+  public CompletableFuture<List<NotifierResult>> dispatch(
+      NotificationContext ctx, BiConsumer<Notifier, NotificationContext> event, Duration timeout) {
+    List<CompletableFuture<NotifierResult>> results = new ArrayList<>(notifiers.size());
+    notifiers.forEach(
+        (name, notifier) ->
+            results.add(
+                CompletableFuture.supplyAsync(
+                        () -> invoke(name, notifier, ctx, event), NOTIFIER_EXECUTOR)
+                    .completeOnTimeout(
+                        timedOut(name, timeout), timeout.toMillis(), TimeUnit.MILLISECONDS)));
+    return CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0]))
+        .thenApply(done -> results.stream().map(CompletableFuture::join).collect(toList()));
+  }
+
+  private void dispatchAndCheck(
+      NotificationContext ctx, BiConsumer<Notifier, NotificationContext> event) {
+    List<NotifierResult> results = dispatch(ctx, event, DEFAULT_TIMEOUT).join();
+    List<String> errors =
+        results.stream()
+            .filter(result -> result.getError() != null)
+            .map(result -> result.getNotifier() + ": " + result.getError())
+            .collect(toList());
+    if (!errors.isEmpty()) {
+      throw new NotificationFailure(String.join(", ", errors));
+    }
+    List<String> queued =
+        results.stream()
+            .filter(result -> result.getQueued() != null)
+            .map(result -> result.getNotifier() + ": " + result.getQueued())
+            .collect(toList());
+    if (!queued.isEmpty()) {
+      throw new NotificationQueued(String.join(", ", queued));
+    }
+  }
+
+  /** Flush every notifier in parallel. Failures are logged, but not thrown. */
+  @Override
+  public void flush(LambdaLogger logger) {
+    dispatch(
+            NotificationContext.builder().logger(logger).build(),
+            (notifier, ctx) -> notifier.flush(ctx.getLogger()),
+            DEFAULT_TIMEOUT)
+        .join();
+  }
+
+  /** Flush what is due in every notifier in parallel. Failures are logged, but not thrown. */
+  @Override
+  public void flushDue(LambdaLogger logger) {
+    dispatch(
+            NotificationContext.builder().logger(logger).build(),
+            (notifier, ctx) -> notifier.flushDue(ctx.getLogger()),
+            DEFAULT_TIMEOUT)
+        .join();
+  }
+
+  @Override
+  public void onFailure(NotificationContext ctx) {
+    dispatchAndCheck(ctx, Notifier::onFailure);
+  }
+
+  @Override
+  public void onRecovery(NotificationContext ctx, int failures) {
+    dispatchAndCheck(ctx, (notifier, c) -> notifier.onRecovery(c, failures));
+  }
+
+  @Override
+  public void onSuccess(NotificationContext ctx) {
+    dispatchAndCheck(ctx, Notifier::onSuccess);
+  }
+
+  @Override
+  public void onWarning(NotificationContext ctx) {
+    dispatchAndCheck(ctx, Notifier::onWarning);
+  }
+
+  /** Redeliver through every notifier in turn. Failures are logged, but not thrown. */
+  @Override
+  public void redeliver(SecretProcessor secretProcessor, LambdaLogger logger) {
+    notifiers.forEach(
+        (name, notifier) ->
+            invoke(
+                name,
+                notifier,
+                NotificationContext.builder()
+                    .secretProcessor(secretProcessor)
+                    .logger(logger)
+                    .build(),
+                (n, ctx) -> n.redeliver(ctx.getSecretProcessor(), ctx.getLogger())));
+  }
+}
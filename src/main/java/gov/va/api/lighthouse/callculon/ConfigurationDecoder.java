@@ -0,0 +1,523 @@
+package gov.va.api.lighthouse.callculon;
+
+import gov.va.api.lighthouse.callculon.CallculonConfiguration.Deployment;
+import gov.va.api.lighthouse.callculon.CallculonConfiguration.Hedge;
+import gov.va.api.lighthouse.callculon.CallculonConfiguration.Notification;
+import gov.va.api.lighthouse.callculon.CallculonConfiguration.Request;
+import gov.va.api.lighthouse.callculon.CallculonConfiguration.Retry;
+import gov.va.api.lighthouse.callculon.CallculonConfiguration.Slack;
+import gov.va.api.lighthouse.callculon.CallculonHandler.InvalidConfiguration;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads a {@link CallculonConfiguration} from JSON as it streams in, without reflection. Only the
+ * known shape is understood. Unknown fields are skipped, null values leave the default in place,
+ * and numbers and booleans may also be given as strings. Malformed input is an
+ * InvalidConfiguration.
+ */
+final class ConfigurationDecoder {
+
+  private final Reader reader;
+
+  private final char[] buffer = new char[4096];
+
+  private int position;
+
+  private int limit;
+
+  /** Characters consumed before the current buffer, to say where input is malformed. */
+  private long consumed;
+
+  private ConfigurationDecoder(Reader reader) {
+    this.reader = reader;
+  }
+
+  /** Read one configuration, which must be the only thing in the input. */
+  static CallculonConfiguration decode(Reader reader) throws IOException {
+    ConfigurationDecoder decoder = new ConfigurationDecoder(reader);
+    CallculonConfiguration config = decoder.configuration();
+    if (decoder.peek() != -1) {
+      throw decoder.malformed("end of input");
+    }
+    return config;
+  }
+
+  private void array(ElementReader elements) throws IOException {
+    expect('[');
+    if (peek() == ']') {
+      next();
+      return;
+    }
+    while (true) {
+      elements.read();
+      int c = next();
+      if (c == ']') {
+        return;
+      }
+      if (c != ',') {
+        throw malformed("',' or ']'");
+      }
+    }
+  }
+
+  private boolean bool(boolean orElse) throws IOException {
+    String value = scalar();
+    if (value == null) {
+      return orElse;
+    }
+    if ("true".equals(value)) {
+      return true;
+    }
+    if ("false".equals(value)) {
+      return false;
+    }
+    throw malformed("true or false");
+  }
+
+  private CallculonConfiguration configuration() throws IOException {
+    if (isNull()) {
+      return new CallculonConfiguration();
+    }
+    CallculonConfiguration config = new CallculonConfiguration();
+    object(
+        name -> {
+          switch (name) {
+            case "name":
+              config.setName(scalar());
+              break;
+            case "deployment":
+              config.setDeployment(deployment());
+              break;
+            case "request":
+              config.setRequest(request());
+              break;
+            case "notification":
+              config.setNotification(notification());
+              break;
+            default:
+              skip();
+          }
+        });
+    return config;
+  }
+
+  private Deployment deployment() throws IOException {
+    if (isNull()) {
+      return null;
+    }
+    Deployment deployment = new Deployment();
+    object(
+        name -> {
+          switch (name) {
+            case "enabled":
+              deployment.setEnabled(bool(deployment.isEnabled()));
+              break;
+            case "cron":
+              deployment.setCron(scalar());
+              break;
+            case "product":
+              deployment.setProduct(scalar());
+              break;
+            case "version":
+              deployment.setVersion(scalar());
+              break;
+            case "id":
+              deployment.setId(scalar());
+              break;
+            case "environment":
+              deployment.setEnvironment(scalar());
+              break;
+            case "jitter":
+              deployment.setJitter(scalar());
+              break;
+            default:
+              skip();
+          }
+        });
+    return deployment;
+  }
+
+  private <E extends Enum<E>> E enumeration(Class<E> type) throws IOException {
+    String value = scalar();
+    if (value == null) {
+      return null;
+    }
+    try {
+      return Enum.valueOf(type, value);
+    } catch (IllegalArgumentException e) {
+      throw new InvalidConfiguration("Unknown " + type.getSimpleName() + ": " + value);
+    }
+  }
+
+  private void expect(char expected) throws IOException {
+    if (next() != expected) {
+      throw malformed("'" + expected + "'");
+    }
+  }
+
+  private boolean fill() throws IOException {
+    consumed += limit;
+    position = 0;
+    limit = Math.max(reader.read(buffer), 0);
+    return limit > 0;
+  }
+
+  private Map<String, String> headers() throws IOException {
+    if (isNull()) {
+      return null;
+    }
+    Map<String, String> headers = new LinkedHashMap<>();
+    object(name -> headers.put(name, scalar()));
+    return headers;
+  }
+
+  private Hedge hedge() throws IOException {
+    if (isNull()) {
+      return null;
+    }
+    Hedge hedge = new Hedge();
+    object(
+        name -> {
+          switch (name) {
+            case "delay":
+              hedge.setDelay(scalar());
+              break;
+            case "percentile":
+              hedge.setPercentile(integer(hedge.getPercentile()));
+              break;
+            default:
+              skip();
+          }
+        });
+    return hedge;
+  }
+
+  private int integer(int orElse) throws IOException {
+    String value = scalar();
+    if (value == null) {
+      return orElse;
+    }
+    try {
+      return Integer.parseInt(value);
+    } catch (NumberFormatException e) {
+      throw malformed("an integer");
+    }
+  }
+
+  private List<Integer> integers() throws IOException {
+    if (isNull()) {
+      return null;
+    }
+    List<Integer> values = new ArrayList<>();
+    array(() -> values.add(isNull() ? null : integer(0)));
+    return values;
+  }
+
+  /** Consume a null literal if it is next. */
+  private boolean isNull() throws IOException {
+    if (peek() != 'n') {
+      return false;
+    }
+    if (!"null".equals(literal())) {
+      throw malformed("null");
+    }
+    return true;
+  }
+
+  private String literal() throws IOException {
+    StringBuilder literal = new StringBuilder(8);
+    peek();
+    while (position < limit || fill()) {
+      char c = buffer[position];
+      if (!Character.isLetterOrDigit(c) && c != '-' && c != '+' && c != '.') {
+        break;
+      }
+      literal.append(c);
+      position++;
+    }
+    if (literal.length() == 0) {
+      throw malformed("a value");
+    }
+    return literal.toString();
+  }
+
+  private InvalidConfiguration malformed(String expected) {
+    return new InvalidConfiguration(
+        "Malformed configuration, expected " + expected + " at character " + (consumed + position));
+  }
+
+  /** The next character that is not whitespace, or -1 at the end of input. */
+  private int next() throws IOException {
+    int c = peek();
+    if (c != -1) {
+      position++;
+    }
+    return c;
+  }
+
+  private Notification notification() throws IOException {
+    if (isNull()) {
+      return null;
+    }
+    Notification notification = new Notification();
+    object(
+        name -> {
+          if ("slack".equals(name)) {
+            notification.setSlack(slack());
+          } else {
+            skip();
+          }
+        });
+    return notification;
+  }
+
+  private void object(FieldReader fields) throws IOException {
+    expect('{');
+    if (peek() == '}') {
+      next();
+      return;
+    }
+    while (true) {
+      if (peek() != '"') {
+        throw malformed("a field name");
+      }
+      String name = string();
+      expect(':');
+      fields.read(name);
+      int c = next();
+      if (c == '}') {
+        return;
+      }
+      if (c != ',') {
+        throw malformed("',' or '}'");
+      }
+    }
+  }
+
+  /** Look at the next character that is not whitespace, without consuming it. */
+  private int peek() throws IOException {
+    while (position < limit || fill()) {
+      char c = buffer[position];
+      if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+        return c;
+      }
+      position++;
+    }
+    return -1;
+  }
+
+  private int raw() throws IOException {
+    if (position >= limit && !fill()) {
+      throw malformed("'\"'");
+    }
+    return buffer[position++];
+  }
+
+  private Request request() throws IOException {
+    if (isNull()) {
+      return null;
+    }
+    Request request = new Request();
+    object(
+        name -> {
+          switch (name) {
+            case "protocol":
+              request.setProtocol(enumeration(CallculonConfiguration.Protocol.class));
+              break;
+            case "hostname":
+              request.setHostname(scalar());
+              break;
+            case "port":
+              request.setPort(integer(request.getPort()));
+              break;
+            case "path":
+              request.setPath(scalar());
+              break;
+            case "method":
+              request.setMethod(enumeration(CallculonConfiguration.RequestMethod.class));
+              break;
+            case "headers":
+              request.setHeaders(headers());
+              break;
+            case "bodyMode":
+              request.setBodyMode(enumeration(CallculonConfiguration.BodyMode.class));
+              break;
+            case "captureBytes":
+              request.setCaptureBytes(integer(request.getCaptureBytes()));
+              break;
+            case "retry":
+              request.setRetry(retry());
+              break;
+            case "hedge":
+              request.setHedge(hedge());
+              break;
+            case "maxDuration":
+              request.setMaxDuration(scalar());
+              break;
+            case "warnDuration":
+              request.setWarnDuration(scalar());
+              break;
+            default:
+              skip();
+          }
+        });
+    return request;
+  }
+
+  private Retry retry() throws IOException {
+    if (isNull()) {
+      return null;
+    }
+    Retry retry = new Retry();
+    object(
+        name -> {
+          switch (name) {
+            case "maxAttempts":
+              retry.setMaxAttempts(integer(retry.getMaxAttempts()));
+              break;
+            case "statuses":
+              retry.setStatuses(integers());
+              break;
+            case "exceptions":
+              retry.setExceptions(strings());
+              break;
+            case "initialBackoff":
+              retry.setInitialBackoff(scalar());
+              break;
+            case "maxBackoff":
+              retry.setMaxBackoff(scalar());
+              break;
+            default:
+              skip();
+          }
+        });
+    return retry;
+  }
+
+  /** A string, number or boolean as text, or null. */
+  private String scalar() throws IOException {
+    int c = peek();
+    if (c == '"') {
+      return string();
+    }
+    if (c == '{' || c == '[' || c == -1) {
+      throw malformed("a string, number or boolean");
+    }
+    String literal = literal();
+    return "null".equals(literal) ? null : literal;
+  }
+
+  private void skip() throws IOException {
+    int c = peek();
+    if (c == '{') {
+      object(name -> skip());
+    } else if (c == '[') {
+      array(this::skip);
+    } else {
+      scalar();
+    }
+  }
+
+  private Slack slack() throws IOException {
+    if (isNull()) {
+      return null;
+    }
+    Slack slack = Slack.builder().build();
+    object(
+        name -> {
+          switch (name) {
+            case "onFailure":
+              slack.setOnFailure(bool(slack.isOnFailure()));
+              break;
+            case "onSuccess":
+              slack.setOnSuccess(bool(slack.isOnSuccess()));
+              break;
+            case "digest":
+              slack.setDigest(bool(slack.isDigest()));
+              break;
+            case "webhook":
+              slack.setWebhook(scalar());
+              break;
+            case "channel":
+              slack.setChannel(scalar());
+              break;
+            default:
+              skip();
+          }
+        });
+    return slack;
+  }
+
+  private String string() throws IOException {
+    expect('"');
+    StringBuilder value = new StringBuilder(32);
+    while (true) {
+      int c = raw();
+      if (c == '"') {
+        return value.toString();
+      }
+      if (c != '\\') {
+        value.append((char) c);
+        continue;
+      }
+      int escaped = raw();
+      switch (escaped) {
+        case '"':
+        case '\\':
+        case '/':
+          value.append((char) escaped);
+          break;
+        case 'b':
+          value.append('\b');
+          break;
+        case 'f':
+          value.append('\f');
+          break;
+        case 'n':
+          value.append('\n');
+          break;
+        case 'r':
+          value.append('\r');
+          break;
+        case 't':
+          value.append('\t');
+          break;
+        case 'u':
+          int code = 0;
+          for (int i = 0; i < 4; i++) {
+            int digit = Character.digit(raw(), 16);
+            if (digit < 0) {
+              throw malformed("a hex digit");
+            }
+            code = (code << 4) | digit;
+          }
+          value.append((char) code);
+          break;
+        default:
+          throw malformed("an escape sequence");
+      }
+    }
+  }
+
+  private List<String> strings() throws IOException {
+    if (isNull()) {
+      return null;
+    }
+    List<String> values = new ArrayList<>();
+    array(() -> values.add(scalar()));
+    return values;
+  }
+
+  private interface ElementReader {
+    void read() throws IOException;
+  }
+
+  private interface FieldReader {
+    void read(String name) throws IOException;
+  }
+}
@@ -0,0 +1,119 @@
+package gov.va.api.lighthouse.callculon;
+
+import static java.util.stream.Collectors.toList;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Opens connections to known origins while the Lambda is initializing, which is not counted
+ * against the invocation, so the first request to those origins can reuse a connection that has
+ * already been resolved, connected and TLS handshaked. Also tracks which origins this container
+ * has recently talked to, which responses report as a hint about connection reuse.
+ */
+public final class ConnectionWarmer {
+
+  public static final String OPTION_WARM_ORIGINS = "CALLCULON_WARM_ORIGINS";
+
+  /**
+   * Connections idle longer than this are assumed to have been closed. This is the default idle
+   * timeout of AWS load balancers.
+   */
+  static final Duration IDLE_TIMEOUT = Duration.ofSeconds(60);
+
+  private static final Duration MAX_WARM_UP = Duration.ofSeconds(5);
+
+  private static final Map<String, Long> LAST_CONTACT = new ConcurrentHashMap<>();
+
+  private ConnectionWarmer() {}
+
+  /** Record that a response was received from the URI's origin. */
+  public static void contacted(URI uri) {
+    LAST_CONTACT.put(originOf(uri), System.nanoTime());
+  }
+
+  /**
+   * Parse the origins to warm from a given environment map.
+   *
+   * <pre>
+   * CALLCULON_WARM_ORIGINS = Comma separated URLs, e.g. https://blue.qa.lighthouse.va.gov:443
+   * </pre>
+   */
+  public static List<URI> originsFromEnvironmentVariables(Map<String, String> env) {
+    return Arrays.stream(env.getOrDefault(OPTION_WARM_ORIGINS, "").split(","))
+        .map(String::trim)
+        .filter(origin -> !origin.isEmpty())
+        .map(URI::create)
+        .collect(toList());
+  }
+
+  static String originOf(URI uri) {
+    String scheme = uri.getScheme().toLowerCase(Locale.ENGLISH);
+    int port = uri.getPort();
+    if (port <= 0) {
+      port = "http".equals(scheme) ? 80 : 443;
+    }
+    return scheme + "://" + uri.getHost().toLowerCase(Locale.ENGLISH) + ":" + port;
+  }
+
+  /**
+   * Send a HEAD request to each origin using the client that will later be used for real requests.
+   * Any response, regardless of status, leaves a pooled connection behind. Failures are ignored,
+   * the real request will simply open its own connection. Warming is bounded by the connect timeout
+   * or a few seconds, whichever is shorter. Returns the number of origins successfully warmed.
+   */
+  public static int warm(HttpClient client, List<URI> origins, Duration connectTimeout) {
+    if (origins.isEmpty()) {
+      return 0;
+    }
+    Duration timeout = connectTimeout.compareTo(MAX_WARM_UP) < 0 ? connectTimeout : MAX_WARM_UP;
+    List<CompletableFuture<Boolean>> warming =
+        origins.stream()
+            .map(
+                origin ->
+                    client
+                        .sendAsync(
+                            HttpRequest.newBuilder(origin.resolve("/"))
+                                .method("HEAD", HttpRequest.BodyPublishers.noBody())
+                                .timeout(timeout)
+                                .build(),
+                            BodyHandlers.discarding())
+                        .thenApply(
+                            response -> {
+                              contacted(origin);
+                              return true;
+                            })
+                        .exceptionally(e -> false))
+            .collect(toList());
+    try {
+      CompletableFuture.allOf(warming.toArray(new CompletableFuture<?>[0]))
+          .get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException | TimeoutException e) {
+      /* Whatever has been warmed by now will have to do. */
+    }
+    return (int) warming.stream().filter(f -> f.getNow(false)).count();
+  }
+
+  /**
+   * Whether this container has received a response from the URI's origin within the idle timeout.
+   * This does not know whether a pooled connection is actually still open.
+   */
+  public static boolean wasRecentlyContacted(URI uri) {
+    Long last = LAST_CONTACT.get(originOf(uri));
+    return last != null && System.nanoTime() - last < IDLE_TIMEOUT.toNanos();
+  }
+}
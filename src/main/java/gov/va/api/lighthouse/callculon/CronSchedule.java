@@ -0,0 +1,433 @@
+package gov.va.api.lighthouse.callculon;
+
+import static gov.va.api.lighthouse.callculon.CallculonHandler.InvalidConfiguration.check;
+
+import gov.va.api.lighthouse.callculon.CallculonHandler.InvalidConfiguration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * When a timer fires, parsed from {@link CallculonConfiguration.Deployment#getCron()}. Five fields
+ * are `minute hour day-of-month month day-of-week` with Sunday as 0 or 7, six fields are the AWS
+ * form `minute hour day-of-month month day-of-week year` with Sunday as 1, optionally wrapped in
+ * `cron(...)`. AWS expressions must use `?` for one of the day fields. Fields may be `*`, `?`,
+ * values, names such as `JAN` or `MON`, ranges and steps, separated by commas. The day of month
+ * may also be `L` for the last day, `LW` for the last weekday, or e.g. `15W` for the weekday
+ * nearest the 15th. The day of week may also be `L` for Saturday, e.g. `6L` for the last Friday
+ * (AWS numbering), or e.g. `2#1` for the first Monday. When both day fields are restricted, either
+ * may match. AWS `rate(5 minutes)` expressions fire at every multiple of the rate since the epoch.
+ * Times are in the zone of the time given to {@link #next(ZonedDateTime)}, which is UTC for AWS
+ * schedules.
+ *
+ * <p>Each field is compiled to a bit mask, so finding the next time skips straight to the next
+ * allowed value of each field instead of stepping through the calendar, and takes about the same
+ * time however far away it is.
+ */
+final class CronSchedule {
+
+  /**
+   * Schedules that have not fired for this many years are assumed never to fire. Leap days can be
+   * eight years apart.
+   */
+  private static final int MAX_YEARS = 8;
+
+  private static final int FIRST_YEAR = 1970;
+
+  private static final int LAST_YEAR = 2199;
+
+  private static final List<String> MONTHS =
+      List.of("JAN", "FEB", "MAR", "APR", "MAY", "JUN", "JUL", "AUG", "SEP", "OCT", "NOV", "DEC");
+
+  private static final List<String> DAYS = List.of("SUN", "MON", "TUE", "WED", "THU", "FRI", "SAT");
+
+  private final String expression;
+
+  /** Minutes between runs of a rate expression, or zero for a cron expression. */
+  private final long rateMinutes;
+
+  private long minutes;
+
+  private long hours;
+
+  private long daysOfMonth;
+
+  private long months;
+
+  /** Bits are ISO days of week, Monday is 1 and Sunday is 7. */
+  private long daysOfWeek;
+
+  /** Days of month whose nearest weekday is allowed. */
+  private long nearestWeekdays;
+
+  private boolean lastDayOfMonth;
+
+  private boolean lastWeekdayOfMonth;
+
+  /** Bits are ISO days of week that are allowed on their last occurrence in the month. */
+  private long lastDaysOfWeek;
+
+  /** Bit `(n - 1) * 8 + day` is set when the nth ISO day of week in the month is allowed. */
+  private long nthDaysOfWeek;
+
+  private boolean anyDayOfMonth;
+
+  private boolean anyDayOfWeek;
+
+  /** Years since 1970, or null for every year. */
+  private BitSet years;
+
+  private CronSchedule(String expression, long rateMinutes) {
+    this.expression = expression;
+    this.rateMinutes = rateMinutes;
+  }
+
+  private static void checkValue(boolean condition, String name, String value, String expression) {
+    if (!condition) {
+      throw new InvalidConfiguration("Invalid cron " + name + " '" + value + "': " + expression);
+    }
+  }
+
+  private static CronSchedule cron(String expression, String[] fields) {
+    boolean aws = fields.length == 6;
+    CronSchedule cron = new CronSchedule(expression, 0);
+    cron.minutes = cron.bits(fields[0], 0, 59, "minute", List.of(), 0);
+    cron.hours = cron.bits(fields[1], 0, 23, "hour", List.of(), 0);
+    cron.months = cron.bits(fields[3], 1, 12, "month", MONTHS, 1);
+    cron.anyDayOfMonth = isAny(fields[2]);
+    cron.anyDayOfWeek = isAny(fields[4]);
+    if (aws) {
+      check(
+          "?".equals(fields[2]) != "?".equals(fields[4]),
+          "Invalid cron, one of day-of-month or day-of-week must be '?': " + expression);
+    }
+    cron.daysOfMonth(fields[2]);
+    cron.daysOfWeek(fields[4], aws);
+    if (aws && !isAny(fields[5])) {
+      cron.years = new BitSet(LAST_YEAR - FIRST_YEAR + 1);
+      for (String part : fields[5].split(",", -1)) {
+        int[] range = cron.range(part, FIRST_YEAR, LAST_YEAR, "year", List.of(), 0);
+        for (int year = range[0]; year <= range[1]; year += range[2]) {
+          cron.years.set(year - FIRST_YEAR);
+        }
+      }
+    }
+    return cron;
+  }
+
+  private static boolean isAny(String field) {
+    return "*".equals(field) || "?".equals(field);
+  }
+
+  private static boolean isSet(long mask, int bit) {
+    return (mask & (1L << bit)) != 0;
+  }
+
+  /** The smallest set bit at or above the given one, or -1 if there is none. */
+  private static int nextBit(long mask, int from) {
+    if (from > 63) {
+      return -1;
+    }
+    long remaining = mask & (-1L << from);
+    return remaining == 0 ? -1 : Long.numberOfTrailingZeros(remaining);
+  }
+
+  private static int number(String value, String name, String expression) {
+    try {
+      return Integer.parseInt(value);
+    } catch (NumberFormatException e) {
+      throw new InvalidConfiguration("Invalid cron " + name + " '" + value + "': " + expression);
+    }
+  }
+
+  /** Parse an expression, an InvalidConfiguration is thrown if it cannot be understood. */
+  static CronSchedule parse(String expression) {
+    check(expression != null && !expression.isBlank(), "missing cron");
+    String trimmed = expression.trim();
+    if (trimmed.startsWith("rate(") && trimmed.endsWith(")")) {
+      return rate(expression, trimmed.substring(5, trimmed.length() - 1).trim());
+    }
+    if (trimmed.startsWith("cron(") && trimmed.endsWith(")")) {
+      trimmed = trimmed.substring(5, trimmed.length() - 1).trim();
+    }
+    String[] fields = trimmed.toUpperCase(Locale.ENGLISH).split("\\s+");
+    check(
+        fields.length == 5 || fields.length == 6,
+        "Invalid cron, expected 5 or 6 fields: " + expression);
+    return cron(expression, fields);
+  }
+
+  private static CronSchedule rate(String expression, String rate) {
+    String[] parts = rate.split("\\s+");
+    check(parts.length == 2, "Invalid rate, expected a value and a unit: " + expression);
+    long value = number(parts[0], "rate", expression);
+    check(value > 0, "Invalid rate, the value must be positive: " + expression);
+    switch (parts[1].toLowerCase(Locale.ENGLISH)) {
+      case "minute":
+      case "minutes":
+        return new CronSchedule(expression, value);
+      case "hour":
+      case "hours":
+        return new CronSchedule(expression, value * 60);
+      case "day":
+      case "days":
+        return new CronSchedule(expression, value * 60 * 24);
+      default:
+        throw new InvalidConfiguration("Invalid rate unit '" + parts[1] + "': " + expression);
+    }
+  }
+
+  /** The weekday nearest the given day, without leaving the month. */
+  private static int weekdayNearest(LocalDate date, int length) {
+    int day = date.getDayOfMonth();
+    switch (date.getDayOfWeek()) {
+      case SATURDAY:
+        return day == 1 ? 3 : day - 1;
+      case SUNDAY:
+        return day == length ? day - 2 : day + 1;
+      default:
+        return day;
+    }
+  }
+
+  /** The values a field allows, as bits. */
+  private long bits(String field, int min, int max, String name, List<String> names, int first) {
+    long bits = 0;
+    for (String part : field.split(",", -1)) {
+      int[] range = range(part, min, max, name, names, first);
+      for (int i = range[0]; i <= range[1]; i += range[2]) {
+        bits |= 1L << i;
+      }
+    }
+    return bits;
+  }
+
+  /** The days of the given month that are allowed, as bits. */
+  private long days(int year, int month) {
+    LocalDate firstOfMonth = LocalDate.of(year, month, 1);
+    int length = firstOfMonth.lengthOfMonth();
+    long inMonth = (-1L >>> (63 - length)) & ~1L;
+    long dom = daysOfMonth;
+    if (lastDayOfMonth) {
+      dom |= 1L << length;
+    }
+    if (lastWeekdayOfMonth) {
+      dom |= 1L << weekdayNearest(firstOfMonth.withDayOfMonth(length), length);
+    }
+    for (int day = nextBit(nearestWeekdays, 1); day > 0; day = nextBit(nearestWeekdays, day + 1)) {
+      if (day <= length) {
+        dom |= 1L << weekdayNearest(firstOfMonth.withDayOfMonth(day), length);
+      }
+    }
+    int firstDay = firstOfMonth.getDayOfWeek().getValue();
+    long dow = 0;
+    for (int iso = 1; iso <= 7; iso++) {
+      /* The first day of the month with this day of week, then weekly from there. */
+      int day = 1 + (iso - firstDay + 7) % 7;
+      if (isSet(daysOfWeek, iso)) {
+        for (int d = day; d <= length; d += 7) {
+          dow |= 1L << d;
+        }
+      }
+      if (isSet(lastDaysOfWeek, iso)) {
+        dow |= 1L << (day + (length - day) / 7 * 7);
+      }
+      for (int n = 1; n <= 5; n++) {
+        if (isSet(nthDaysOfWeek, (n - 1) * 8 + iso) && day + (n - 1) * 7 <= length) {
+          dow |= 1L << (day + (n - 1) * 7);
+        }
+      }
+    }
+    if (anyDayOfMonth) {
+      return dow & inMonth;
+    }
+    if (anyDayOfWeek) {
+      return dom & inMonth;
+    }
+    return (dom | dow) & inMonth;
+  }
+
+  private void daysOfMonth(String field) {
+    StringBuilder plain = new StringBuilder();
+    for (String part : field.split(",", -1)) {
+      if ("L".equals(part)) {
+        lastDayOfMonth = true;
+      } else if ("LW".equals(part)) {
+        lastWeekdayOfMonth = true;
+      } else if (part.endsWith("W")) {
+        int day = number(part.substring(0, part.length() - 1), "day-of-month", expression);
+        checkValue(day >= 1 && day <= 31, "day-of-month", part, expression);
+        nearestWeekdays |= 1L << day;
+      } else {
+        plain.append(plain.length() == 0 ? "" : ",").append(part);
+      }
+    }
+    if (plain.length() > 0) {
+      daysOfMonth = bits(plain.toString(), 1, 31, "day-of-month", List.of(), 0);
+    }
+  }
+
+  private void daysOfWeek(String field, boolean aws) {
+    /* AWS counts from Sunday as 1, Unix from Sunday as 0 (or 7). */
+    int first = aws ? 1 : 0;
+    StringBuilder plain = new StringBuilder();
+    for (String part : field.split(",", -1)) {
+      int hash = part.indexOf('#');
+      if ("L".equals(part)) {
+        daysOfWeek |= 1L << 6;
+      } else if (part.length() > 1 && part.endsWith("L")) {
+        int day = dayOfWeek(part.substring(0, part.length() - 1), first);
+        lastDaysOfWeek |= 1L << iso(day, aws);
+      } else if (hash > 0) {
+        int day = dayOfWeek(part.substring(0, hash), first);
+        int n = number(part.substring(hash + 1), "day-of-week", expression);
+        checkValue(n >= 1 && n <= 5, "day-of-week", part, expression);
+        nthDaysOfWeek |= 1L << ((n - 1) * 8 + iso(day, aws));
+      } else {
+        plain.append(plain.length() == 0 ? "" : ",").append(part);
+      }
+    }
+    if (plain.length() == 0) {
+      return;
+    }
+    long days = bits(plain.toString(), first, 7, "day-of-week", DAYS, first);
+    for (int day = first; day <= 7; day++) {
+      if (isSet(days, day)) {
+        daysOfWeek |= 1L << iso(day, aws);
+      }
+    }
+  }
+
+  private int dayOfWeek(String value, int first) {
+    int index = DAYS.indexOf(value);
+    int day = index >= 0 ? index + first : number(value, "day-of-week", expression);
+    checkValue(day >= first && day <= 7, "day-of-week", value, expression);
+    return day;
+  }
+
+  private int iso(int day, boolean aws) {
+    return aws ? (day + 5) % 7 + 1 : (day + 6) % 7 + 1;
+  }
+
+  /** The first time after the given time that the schedule fires, if it ever does. */
+  Optional<ZonedDateTime> next(ZonedDateTime after) {
+    if (rateMinutes > 0) {
+      long minute = after.toEpochSecond() / 60;
+      long next = (minute / rateMinutes + 1) * rateMinutes;
+      return Optional.of(after.truncatedTo(ChronoUnit.MINUTES).plusMinutes(next - minute));
+    }
+    LocalDateTime time = after.toLocalDateTime().truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+    int year = time.getYear();
+    int month = time.getMonthValue();
+    int day = time.getDayOfMonth();
+    int hour = time.getHour();
+    int minute = time.getMinute();
+    int lastYear = after.getYear() + MAX_YEARS;
+    if (years != null) {
+      lastYear = FIRST_YEAR + years.previousSetBit(years.size() - 1);
+    }
+    while (year <= lastYear) {
+      if (years != null && (year < FIRST_YEAR || !years.get(year - FIRST_YEAR))) {
+        int nextYear = years.nextSetBit(Math.max(0, year - FIRST_YEAR));
+        if (nextYear < 0) {
+          return Optional.empty();
+        }
+        year = FIRST_YEAR + nextYear;
+        month = 1;
+        day = 1;
+        hour = 0;
+        minute = 0;
+      }
+      int nextMonth = nextBit(months, month);
+      if (nextMonth < 0) {
+        year++;
+        month = 1;
+        day = 1;
+        hour = 0;
+        minute = 0;
+        continue;
+      }
+      if (nextMonth != month) {
+        month = nextMonth;
+        day = 1;
+        hour = 0;
+        minute = 0;
+      }
+      int nextDay = nextBit(days(year, month), day);
+      if (nextDay < 0) {
+        month++;
+        day = 1;
+        hour = 0;
+        minute = 0;
+        continue;
+      }
+      if (nextDay != day) {
+        day = nextDay;
+        hour = 0;
+        minute = 0;
+      }
+      int nextHour = nextBit(hours, hour);
+      if (nextHour < 0) {
+        day++;
+        hour = 0;
+        minute = 0;
+        continue;
+      }
+      if (nextHour != hour) {
+        hour = nextHour;
+        minute = 0;
+      }
+      int nextMinute = nextBit(minutes, minute);
+      if (nextMinute < 0) {
+        hour++;
+        minute = 0;
+        continue;
+      }
+      return Optional.of(
+          LocalDateTime.of(year, month, day, hour, nextMinute).atZone(after.getZone()));
+    }
+    return Optional.empty();
+  }
+
+  /** The first, last and step of a range within a field, e.g. `*`, `5`, `1-5`, `10/15`. */
+  private int[] range(String part, int min, int max, String name, List<String> names, int first) {
+    int step = 1;
+    String values = part;
+    int slash = part.indexOf('/');
+    if (slash >= 0) {
+      step = number(part.substring(slash + 1), name, expression);
+      values = part.substring(0, slash);
+      checkValue(step > 0, name, part, expression);
+    }
+    int from;
+    int to;
+    int dash = values.indexOf('-');
+    if ("*".equals(values) || "?".equals(values)) {
+      from = min;
+      to = max;
+    } else if (dash > 0) {
+      from = value(values.substring(0, dash), name, names, first);
+      to = value(values.substring(dash + 1), name, names, first);
+    } else {
+      from = value(values, name, names, first);
+      to = slash >= 0 ? max : from;
+    }
+    checkValue(from >= min && to <= max && from <= to, name, part, expression);
+    return new int[] {from, to, step};
+  }
+
+  @Override
+  public String toString() {
+    return expression;
+  }
+
+  private int value(String value, String name, List<String> names, int first) {
+    int index = names.indexOf(value);
+    return index >= 0 ? index + first : number(value, name, expression);
+  }
+}
@@ -0,0 +1,62 @@
+package gov.va.api.lighthouse.callculon;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * The point in time by which requests must be finished, so Lambda does not stop the function in
+ * the middle of a call. Some time is reserved for sending notifications afterwards. The reserve is
+ * never more than a quarter of the remaining time, so short Lambda timeouts still leave room for a
+ * request.
+ */
+final class Deadline {
+
+  static final Duration UNBOUNDED = ChronoUnit.FOREVER.getDuration();
+
+  private final long expiresAtNanos;
+
+  private final boolean bounded;
+
+  private Deadline(long expiresAtNanos, boolean bounded) {
+    this.expiresAtNanos = expiresAtNanos;
+    this.bounded = bounded;
+  }
+
+  /**
+   * Create a deadline from the time Lambda has left for this invocation. If the context does not
+   * know how much time is left, e.g. when not running in Lambda, the deadline is unbounded.
+   */
+  static Deadline of(Context context, Duration reserve) {
+    long remainingMillis = context.getRemainingTimeInMillis();
+    if (remainingMillis <= 0) {
+      return new Deadline(0, false);
+    }
+    long reserveMillis = Math.min(reserve.toMillis(), remainingMillis / 4);
+    return new Deadline(
+        System.nanoTime() + Duration.ofMillis(remainingMillis - reserveMillis).toNanos(), true);
+  }
+
+  /** This deadline, or the given time from now if that is sooner. */
+  Deadline atMost(Duration timeout) {
+    long expiresAtNanos = System.nanoTime() + timeout.toNanos();
+    if (bounded && this.expiresAtNanos - expiresAtNanos <= 0) {
+      return this;
+    }
+    return new Deadline(expiresAtNanos, true);
+  }
+
+  /** The time left, which is zero once the deadline has passed. */
+  Duration remaining() {
+    if (!bounded) {
+      return UNBOUNDED;
+    }
+    return Duration.ofNanos(Math.max(0, expiresAtNanos - System.nanoTime()));
+  }
+
+  /** The smaller of the given timeout and the time left. */
+  Duration timeout(Duration timeout) {
+    Duration remaining = remaining();
+    return remaining.compareTo(timeout) < 0 ? remaining : timeout;
+  }
+}
@@ -0,0 +1,319 @@
+package gov.va.api.lighthouse.callculon;
+
+import static java.util.stream.Collectors.joining;
+
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import gov.va.api.lighthouse.callculon.CallculonConfiguration.Deployment;
+import gov.va.api.lighthouse.callculon.CallculonConfiguration.Slack;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * Collects results for Slack configurations with `digest` enabled and sends one summary message
+ * per channel instead of one message per result. A channel's digest is sent when the batch it is
+ * part of finishes, or, for individual invocations, by the first invocation to finish once the
+ * window has passed since its oldest result. Digests are only kept in memory for the life of the
+ * container, so results still held when Lambda retires an idle container are lost. Everything else
+ * is passed to the delegate as is.
+ */
+public class DigestNotifier implements Notifier {
+
+  public static final String OPTION_DIGEST_WINDOW = "CALLCULON_DIGEST_WINDOW";
+
+  static final int MAX_FAILURES_LISTED = 10;
+
+  static final int SLOWEST_LISTED = 3;
+
+  private static final Map<String, Digest> DIGESTS = new ConcurrentHashMap<>();
+
+  private final SlackNotifier slack;
+
+  private final Notifier delegate;
+
+  private final Duration window;
+
+  /** Create a new instance, using the window from environment variables if not specified. */
+  @Builder
+  public DigestNotifier(@NonNull SlackNotifier slack, @NonNull Notifier delegate, Duration window) {
+    this.slack = slack;
+    this.delegate = delegate;
+    this.window = window == null ? windowFromEnvironmentVariables(System.getenv()) : window;
+  }
+
+  /**
+   * Read the digest window from a given environment map.
+   *
+   * <pre>
+   * CALLCULON_DIGEST_WINDOW = ISO 8601 Duration (PT5M)
+   * </pre>
+   */
+  public static Duration windowFromEnvironmentVariables(Map<String, String> env) {
+    return Duration.parse(env.getOrDefault(OPTION_DIGEST_WINDOW, "PT5M"));
+  }
+
+  private Optional<Slack> digested(NotificationContext ctx) {
+    return Optional.ofNullable(ctx.getConfig().getNotification().getSlack())
+        .filter(Slack::isDigest);
+  }
+
+  private void failIfAny(List<String> errors) {
+    if (!errors.isEmpty()) {
+      throw new NotificationFailure("Failed to send digests to " + String.join(", ", errors));
+    }
+  }
+
+  private String failures(List<Result> results, long failed) {
+    if (failed == 0) {
+      return "No failures :tada:";
+    }
+    String listed =
+        results.stream()
+            .filter(r -> !r.isOk())
+            .limit(MAX_FAILURES_LISTED)
+            .map(
+                r ->
+                    ":x: *"
+                        + r.title()
+                        + "* failed with *"
+                        + r.getStatusCode()
+                        + "* "
+                        + (r.getNote() == null ? r.getUrl() : r.getNote()))
+            .collect(joining("\n"));
+    return failed > MAX_FAILURES_LISTED
+        ? listed + "\n_and " + (failed - MAX_FAILURES_LISTED) + " more_"
+        : listed;
+  }
+
+  /** Send every digest with results, regardless of age. */
+  @Override
+  public void flush(LambdaLogger logger) {
+    List<String> errors = sendAll(digest -> true, logger);
+    delegate.flush(logger);
+    failIfAny(errors);
+  }
+
+  /** Send the digests whose window has passed, whichever channel they are for. */
+  @Override
+  public void flushDue(LambdaLogger logger) {
+    List<String> errors = sendAll(digest -> digest.isOlderThan(window), logger);
+    delegate.flushDue(logger);
+    failIfAny(errors);
+  }
+
+  @Override
+  public void onFailure(NotificationContext ctx) {
+    if (digested(ctx).isEmpty()) {
+      delegate.onFailure(ctx);
+      return;
+    }
+    record(ctx, false);
+  }
+
+  @Override
+  public void onRecovery(NotificationContext ctx, int failures) {
+    if (digested(ctx).isEmpty()) {
+      delegate.onRecovery(ctx, failures);
+      return;
+    }
+    record(ctx, true);
+  }
+
+  @Override
+  public void onSuccess(NotificationContext ctx) {
+    if (digested(ctx).isEmpty()) {
+      delegate.onSuccess(ctx);
+      return;
+    }
+    record(ctx, true);
+  }
+
+  /** Slow calls still worked, so digests count them as successes and list the slowest. */
+  @Override
+  public void onWarning(NotificationContext ctx) {
+    if (digested(ctx).isEmpty()) {
+      delegate.onWarning(ctx);
+      return;
+    }
+    record(ctx, true);
+  }
+
+  private void record(NotificationContext ctx, boolean ok) {
+    Slack config = digested(ctx).orElseThrow();
+    Deployment deployment = ctx.getConfig().getDeployment();
+    Result result =
+        new Result(
+            ctx.getConfig().getName(),
+            deployment == null ? null : deployment.getProduct(),
+            deployment == null ? null : deployment.getEnvironment(),
+            ctx.getUrl(),
+            ctx.getStatusCode(),
+            ctx.getNote().orElse(null),
+            ctx.getDuration() == null ? 0 : ctx.getDuration().toMillis(),
+            ok);
+    Digest digest =
+        DIGESTS.computeIfAbsent(
+            config.getChannel() + ' ' + config.getWebhook(),
+            key -> new Digest(config.getChannel(), config.getWebhook()));
+    digest.add(result, config, ctx.getSecretProcessor());
+    /* Other channels are left to flush, so their failures are not reported against this timer. */
+    if (digest.isOlderThan(window)) {
+      send(digest, ctx.getLogger());
+    }
+  }
+
+  @Override
+  public void redeliver(SecretProcessor secretProcessor, LambdaLogger logger) {
+    delegate.redeliver(secretProcessor, logger);
+  }
+
+  private void send(Digest digest, LambdaLogger logger) {
+    Digest.Contents contents = digest.drain();
+    if (contents == null) {
+      return;
+    }
+    long failed = contents.getResults().stream().filter(r -> !r.isOk()).count();
+    if (!(failed > 0 && contents.isOnFailure()) && !contents.isOnSuccess()) {
+      logger.log("Digest for " + digest.channel + " has nothing worth sending");
+      return;
+    }
+    String message =
+        MrGarveyTheSubstitute.builder()
+            .resource("/slack-digest-message-template.json")
+            .substitutions(
+                Map.of(
+                    "channel", digest.channel,
+                    "summary", summary(contents.getResults(), failed),
+                    "failures", failures(contents.getResults(), failed),
+                    "slowest", slowest(contents.getResults())))
+            .build()
+            .rollCall();
+    slack.post(digest.channel, digest.webhook, contents.getSecretProcessor(), logger, message);
+  }
+
+  /** Send each digest that matches, returning the failures rather than stopping at the first. */
+  private List<String> sendAll(Predicate<Digest> which, LambdaLogger logger) {
+    List<String> errors = new ArrayList<>();
+    for (Digest digest : DIGESTS.values()) {
+      if (!which.test(digest)) {
+        continue;
+      }
+      try {
+        send(digest, logger);
+      } catch (RuntimeException e) {
+        errors.add(digest.channel + ": " + e.getMessage());
+      }
+    }
+    return errors;
+  }
+
+  private String slowest(List<Result> results) {
+    return results.stream()
+        .sorted(Comparator.comparingLong(Result::getMillis).reversed())
+        .limit(SLOWEST_LISTED)
+        .map(r -> r.title() + " " + r.getMillis() + " ms")
+        .collect(joining(", "));
+  }
+
+  private String summary(List<Result> results, long failed) {
+    return results.size()
+        + " call(s), "
+        + (results.size() - failed)
+        + " succeeded, "
+        + failed
+        + " failed";
+  }
+
+  /** One result waiting to be sent. */
+  @Value
+  private static class Result {
+    String name;
+
+    String product;
+
+    String environment;
+
+    String url;
+
+    int statusCode;
+
+    String note;
+
+    long millis;
+
+    boolean ok;
+
+    String title() {
+      return (product == null ? "" : product + " ")
+          + name
+          + (environment == null ? "" : " [" + environment + "]");
+    }
+  }
+
+  /** The results for one channel since its digest was last sent. Guarded by its own lock. */
+  private static final class Digest {
+    private final String channel;
+
+    private final String webhook;
+
+    private final List<Result> results = new ArrayList<>();
+
+    private SecretProcessor secretProcessor;
+
+    private boolean onFailure;
+
+    private boolean onSuccess;
+
+    private long oldestNanos;
+
+    Digest(String channel, String webhook) {
+      this.channel = channel;
+      this.webhook = webhook;
+    }
+
+    synchronized void add(Result result, Slack config, SecretProcessor secrets) {
+      if (results.isEmpty()) {
+        oldestNanos = System.nanoTime();
+      }
+      results.add(result);
+      secretProcessor = secrets;
+      onFailure = config.isOnFailure();
+      onSuccess = config.isOnSuccess();
+    }
+
+    /** Take the results collected so far, or null if there are none. */
+    synchronized Contents drain() {
+      if (results.isEmpty()) {
+        return null;
+      }
+      Contents contents =
+          new Contents(List.copyOf(results), secretProcessor, onFailure, onSuccess);
+      results.clear();
+      return contents;
+    }
+
+    synchronized boolean isOlderThan(Duration window) {
+      return !results.isEmpty() && System.nanoTime() - oldestNanos >= window.toNanos();
+    }
+
+    /** Everything needed to send a digest, taken at once. */
+    @Value
+    private static class Contents {
+      List<Result> results;
+
+      SecretProcessor secretProcessor;
+
+      boolean onFailure;
+
+      boolean onSuccess;
+    }
+  }
+}
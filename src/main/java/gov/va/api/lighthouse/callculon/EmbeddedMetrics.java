@@ -0,0 +1,143 @@
+package gov.va.api.lighthouse.callculon;
+
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import gov.va.api.lighthouse.callculon.CallculonConfiguration.Deployment;
+import gov.va.api.lighthouse.callculon.CallculonResponse.Latency;
+import gov.va.api.lighthouse.callculon.CallculonResponse.LatencyBreach;
+import gov.va.api.lighthouse.callculon.CallculonResponse.NotifierResult;
+
+/**
+ * Writes the metrics for each call as a CloudWatch Embedded Metric Format log line. CloudWatch
+ * extracts the metrics from the log group, so nothing is sent anywhere else. Everything except the
+ * timestamp, dimension values and metric values is rendered once, when the instance is created.
+ *
+ * <pre>
+ * {"_aws":{"Timestamp":...,"CloudWatchMetrics":[{"Namespace":"Callculon",
+ *   "Dimensions":[["product","environment","name"]],"Metrics":[...]}]},
+ *   "product":"...","environment":"...","name":"...","StatusCode":200,"RequestDuration":12,...}
+ * </pre>
+ */
+final class EmbeddedMetrics {
+
+  /** Metrics that are never written. */
+  static final EmbeddedMetrics DISABLED = new EmbeddedMetrics(null);
+
+  /** In the order they are written, with the status classes from 2xx to 5xx together. */
+  private static final String[] NAMES = {
+    "RequestDuration",
+    "SecretLookupDuration",
+    "NotificationDuration",
+    "Status2xx",
+    "Status3xx",
+    "Status4xx",
+    "Status5xx",
+    "Errors",
+    "NotificationErrors"
+  };
+
+  private static final String[] UNITS = {
+    "Milliseconds",
+    "Milliseconds",
+    "Milliseconds",
+    "Count",
+    "Count",
+    "Count",
+    "Count",
+    "Count",
+    "Count"
+  };
+
+  /** Everything after the timestamp up to the first dimension value, or null if disabled. */
+  private final String metadata;
+
+  private EmbeddedMetrics(String metadata) {
+    this.metadata = metadata;
+  }
+
+  /** Metrics in the given namespace, or {@link #DISABLED} if there is none. */
+  static EmbeddedMetrics of(String namespace) {
+    if (namespace == null || namespace.isBlank()) {
+      return DISABLED;
+    }
+    StringBuilder metadata = new StringBuilder(512);
+    metadata.append(",\"CloudWatchMetrics\":[{\"Namespace\":\"");
+    Json.escape(namespace, metadata);
+    metadata.append("\",\"Dimensions\":[[\"product\",\"environment\",\"name\"]],\"Metrics\":[");
+    for (int i = 0; i < NAMES.length; i++) {
+      if (i > 0) {
+        metadata.append(',');
+      }
+      metadata.append("{\"Name\":\"").append(NAMES[i]);
+      metadata.append("\",\"Unit\":\"").append(UNITS[i]).append("\"}");
+    }
+    metadata.append("]}]},\"product\":\"");
+    return new EmbeddedMetrics(metadata.toString());
+  }
+
+  private static void appendMetric(StringBuilder line, String name, long value) {
+    line.append(",\"").append(name).append("\":").append(value);
+  }
+
+  private static String valueOrUnknown(String value) {
+    return value == null ? "unknown" : value;
+  }
+
+  boolean isEnabled() {
+    return metadata != null;
+  }
+
+  /**
+   * The log line for a call. The request duration includes retries and backoff. A call that did
+   * not end with a 2xx status, or went over its maxDuration, is one error.
+   */
+  String line(
+      long timestampMillis,
+      CallculonConfiguration config,
+      CallculonResponse response,
+      long requestMillis) {
+    Deployment deployment = config.getDeployment();
+    Latency latency = response.getLatency();
+    int statusCode = response.getStatusCode();
+    int notificationErrors = 0;
+    if (response.getNotifications() != null) {
+      for (NotifierResult result : response.getNotifications()) {
+        if (result.getError() != null) {
+          notificationErrors++;
+        }
+      }
+    }
+    StringBuilder line = new StringBuilder(metadata.length() + 384);
+    line.append("{\"_aws\":{\"Timestamp\":").append(timestampMillis).append(metadata);
+    Json.escape(valueOrUnknown(deployment == null ? null : deployment.getProduct()), line);
+    line.append("\",\"environment\":\"");
+    Json.escape(valueOrUnknown(deployment == null ? null : deployment.getEnvironment()), line);
+    line.append("\",\"name\":\"");
+    Json.escape(valueOrUnknown(config.getName()), line);
+    line.append('"');
+    appendMetric(line, "StatusCode", statusCode);
+    appendMetric(line, NAMES[0], requestMillis);
+    appendMetric(line, NAMES[1], latency == null ? 0 : latency.getSecretLookupMillis());
+    appendMetric(line, NAMES[2], latency == null ? 0 : latency.getNotificationMillis());
+    for (int statusClass = 2; statusClass <= 5; statusClass++) {
+      appendMetric(line, NAMES[statusClass + 1], statusCode / 100 == statusClass ? 1 : 0);
+    }
+    boolean ok =
+        statusCode >= 200
+            && statusCode < 300
+            && response.getLatencyBreach() != LatencyBreach.MAX;
+    appendMetric(line, NAMES[7], ok ? 0 : 1);
+    appendMetric(line, NAMES[8], notificationErrors);
+    return line.append('}').toString();
+  }
+
+  /** Log the metrics for a call, unless disabled. */
+  void log(
+      LambdaLogger logger,
+      CallculonConfiguration config,
+      CallculonResponse response,
+      long requestMillis) {
+    if (isEnabled()) {
+      logger.log(line(System.currentTimeMillis(), config, response, requestMillis));
+    }
+  }
+}
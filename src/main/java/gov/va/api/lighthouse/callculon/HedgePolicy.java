@@ -0,0 +1,80 @@
+package gov.va.api.lighthouse.callculon;
+
+import gov.va.api.lighthouse.callculon.CallculonConfiguration.Hedge;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decides how long to wait before hedging a request. Recent latencies are kept per target for the
+ * life of the container, so percentile based delays adapt to each target as warm invocations
+ * accumulate. Unlike the {@link LatencyHistogram}, only the most recent successful requests count,
+ * so the delay follows the target as it speeds up or slows down and quick errors do not pull it
+ * down. Until enough samples exist, the fixed delay is used.
+ */
+final class HedgePolicy {
+
+  static final int MIN_SAMPLES = 20;
+
+  private static final int MAX_SAMPLES = 128;
+
+  private static final Map<String, Samples> LATENCIES = new ConcurrentHashMap<>();
+
+  private HedgePolicy() {}
+
+  /**
+   * How long to wait for the first request before hedging, if at all. A configured percentile is
+   * preferred when there are enough samples for the target, otherwise the fixed delay is used.
+   * Hedging is off if neither is available.
+   */
+  static Optional<Duration> delay(Hedge hedge, String target) {
+    if (hedge == null) {
+      return Optional.empty();
+    }
+    if (hedge.getPercentile() > 0 && hedge.getPercentile() < 100) {
+      Samples samples = LATENCIES.get(String.valueOf(target));
+      if (samples != null) {
+        Optional<Duration> percentile = samples.percentile(hedge.getPercentile());
+        if (percentile.isPresent()) {
+          return percentile;
+        }
+      }
+    }
+    if (hedge.getDelay() == null || hedge.getDelay().isBlank()) {
+      return Optional.empty();
+    }
+    return Optional.of(Duration.parse(hedge.getDelay()));
+  }
+
+  /** Record how long a successful request to the target took. */
+  static void record(String target, Duration latency) {
+    LATENCIES.computeIfAbsent(String.valueOf(target), t -> new Samples()).add(latency.toMillis());
+  }
+
+  /** The most recent latencies, in milliseconds. */
+  private static final class Samples {
+    private final long[] millis = new long[MAX_SAMPLES];
+
+    private int next;
+
+    private int count;
+
+    synchronized void add(long value) {
+      millis[next] = value;
+      next = (next + 1) % millis.length;
+      count = Math.min(count + 1, millis.length);
+    }
+
+    synchronized Optional<Duration> percentile(int percentile) {
+      if (count < MIN_SAMPLES) {
+        return Optional.empty();
+      }
+      long[] sorted = Arrays.copyOf(millis, count);
+      Arrays.sort(sorted);
+      int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+      return Optional.of(Duration.ofMillis(sorted[Math.max(index, 0)]));
+    }
+  }
+}
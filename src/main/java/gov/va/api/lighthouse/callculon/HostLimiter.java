@@ -0,0 +1,68 @@
+package gov.va.api.lighthouse.callculon;
+
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits how many requests are sent to the same hostname at once, so timers that fire together do
+ * not overwhelm a backend they share. The limit applies across every handler in the container,
+ * e.g. all the configurations of a batch or everything the daemon runs. Limits are per hostname
+ * and are fixed by the first handler to use a hostname.
+ */
+final class HostLimiter {
+
+  private static final Map<String, Semaphore> PERMITS = new ConcurrentHashMap<>();
+
+  private static final Permit UNLIMITED = () -> {};
+
+  private final int permits;
+
+  private HostLimiter(int permits) {
+    this.permits = permits;
+  }
+
+  /** A limiter allowing the given number of requests per hostname, none or less is no limit. */
+  static HostLimiter of(int permits) {
+    return new HostLimiter(permits);
+  }
+
+  /**
+   * Wait until a request may be sent to the hostname. The permit must be closed once the request
+   * has finished. An HttpTimeoutException is thrown if no permit is available in time.
+   */
+  Permit acquire(String hostname, Duration timeout)
+      throws HttpTimeoutException, InterruptedException {
+    if (permits <= 0) {
+      return UNLIMITED;
+    }
+    Semaphore semaphore = PERMITS.computeIfAbsent(hostname, h -> new Semaphore(permits, true));
+    if (!semaphore.tryAcquire(timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+      throw new HttpTimeoutException(
+          "Timed out waiting for one of " + permits + " requests to " + hostname + " to finish");
+    }
+    return semaphore::release;
+  }
+
+  /**
+   * A permit for the hostname if one is free right now, without waiting. This is for extra
+   * requests, e.g. hedges, that are not worth waiting for.
+   */
+  Optional<Permit> tryAcquire(String hostname) {
+    if (permits <= 0) {
+      return Optional.of(UNLIMITED);
+    }
+    Semaphore semaphore = PERMITS.computeIfAbsent(hostname, h -> new Semaphore(permits, true));
+    return semaphore.tryAcquire() ? Optional.of(semaphore::release) : Optional.empty();
+  }
+
+  /** Allows one request while open. */
+  interface Permit extends AutoCloseable {
+    @Override
+    void close();
+  }
+}
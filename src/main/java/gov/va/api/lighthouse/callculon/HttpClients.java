@@ -0,0 +1,68 @@
+package gov.va.api.lighthouse.callculon;
+
+import gov.va.api.lighthouse.callculon.CallculonHandler.HandlerOptions;
+import java.net.http.HttpClient;
+import java.net.http.HttpClient.Redirect;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.net.ssl.SSLContext;
+
+/**
+ * HTTP clients that live as long as the Lambda container. Clients keep connections alive and
+ * resume TLS sessions, so reusing them across requests and warm invocations avoids paying for a
+ * new TCP connection and TLS handshake on every call.
+ */
+public final class HttpClients {
+
+  private static final Map<Duration, HttpClient> RELAXED = new ConcurrentHashMap<>();
+
+  private static final Map<Duration, HttpClient> HEDGING = new ConcurrentHashMap<>();
+
+  private HttpClients() {}
+
+  /** Clients are created on first use, the first of each kind is recorded in startup timings. */
+  private static HttpClient create(String name, Duration connectTimeout) {
+    SSLContext sslContext = SecurityContexts.relaxed();
+    return StartupTimings.shared()
+        .time(
+            name,
+            () ->
+                HttpClient.newBuilder()
+                    .followRedirects(Redirect.NEVER)
+                    .connectTimeout(connectTimeout)
+                    .sslContext(sslContext)
+                    .build());
+  }
+
+  /**
+   * A client configured like {@link #relaxed(Duration)}, but with its own connection pool. Hedged
+   * requests use it so they never wait behind, or share a connection with, the slow request they
+   * are hedging.
+   */
+  public static HttpClient hedging(Duration connectTimeout) {
+    return HEDGING.computeIfAbsent(connectTimeout, timeout -> create("hedgeClient", timeout));
+  }
+
+  /**
+   * The client for the connect timeout configured by environment variables. This is the same
+   * client the default {@link CallculonHandler} uses.
+   */
+  public static HttpClient relaxed() {
+    return relaxed(DefaultConnectTimeout.VALUE);
+  }
+
+  /**
+   * A client that does not follow redirects and uses {@link SecurityContexts#relaxed()}. Clients
+   * are built on first use and shared by everything needing the same connect timeout.
+   */
+  public static HttpClient relaxed(Duration connectTimeout) {
+    return RELAXED.computeIfAbsent(connectTimeout, timeout -> create("httpClient", timeout));
+  }
+
+  /** Lazily read from environment variables on first use. */
+  private static final class DefaultConnectTimeout {
+    private static final Duration VALUE =
+        HandlerOptions.fromEnvironmentVariables().connectTimeout();
+  }
+}
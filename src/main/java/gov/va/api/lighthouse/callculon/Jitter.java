@@ -0,0 +1,48 @@
+package gov.va.api.lighthouse.callculon;
+
+import gov.va.api.lighthouse.callculon.CallculonHandler.InvalidConfiguration;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Spreads timers that share a schedule across a window, so they do not all call their backends in
+ * the same second. Each timer's offset into the window comes from a hash of its deployment ID, or
+ * its name without one, so it is different for each timer but the same every time a timer fires.
+ */
+final class Jitter {
+
+  private Jitter() {}
+
+  /** The FNV-1a hash of the key, with its bits mixed so similar keys land far apart. */
+  private static long hash(String key) {
+    long hash = 0xcbf29ce484222325L;
+    for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+      hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+    }
+    hash = (hash ^ (hash >>> 33)) * 0xff51afd7ed558ccdL;
+    return hash ^ (hash >>> 33);
+  }
+
+  /**
+   * How long after its scheduled time a configuration runs. This is zero without a jitter window.
+   * An InvalidConfiguration is thrown if the window is not a positive ISO 8601 duration.
+   */
+  static Duration offset(CallculonConfiguration config) {
+    var deployment = config.getDeployment();
+    if (deployment == null || deployment.getJitter() == null) {
+      return Duration.ZERO;
+    }
+    Duration window;
+    try {
+      window = Duration.parse(deployment.getJitter());
+    } catch (DateTimeParseException e) {
+      throw new InvalidConfiguration("Invalid jitter: " + deployment.getJitter());
+    }
+    if (window.isNegative() || window.isZero()) {
+      throw new InvalidConfiguration("Invalid jitter: " + deployment.getJitter());
+    }
+    String key = deployment.getId() == null ? String.valueOf(config.getName()) : deployment.getId();
+    return Duration.ofMillis(Math.floorMod(hash(key), window.toMillis()));
+  }
+}
@@ -0,0 +1,51 @@
+package gov.va.api.lighthouse.callculon;
+
+/** Minimal helpers for the few places Callculon writes JSON by hand. */
+final class Json {
+
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  private Json() {}
+
+  /** Append the value escaped for use inside a JSON string, without the surrounding quotes. */
+  static StringBuilder escape(String value, StringBuilder out) {
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '"':
+          out.append("\\\"");
+          break;
+        case '\\':
+          out.append("\\\\");
+          break;
+        case '\n':
+          out.append("\\n");
+          break;
+        case '\r':
+          out.append("\\r");
+          break;
+        case '\t':
+          out.append("\\t");
+          break;
+        case '\b':
+          out.append("\\b");
+          break;
+        case '\f':
+          out.append("\\f");
+          break;
+        default:
+          if (c < 0x20) {
+            out.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+          } else {
+            out.append(c);
+          }
+      }
+    }
+    return out;
+  }
+
+  /** The value escaped for use inside a JSON string, without the surrounding quotes. */
+  static String escape(String value) {
+    return escape(value, new StringBuilder(value.length() + 16)).toString();
+  }
+}
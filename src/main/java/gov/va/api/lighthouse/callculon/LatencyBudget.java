@@ -0,0 +1,88 @@
+package gov.va.api.lighthouse.callculon;
+
+import gov.va.api.lighthouse.callculon.CallculonConfiguration.Request;
+import gov.va.api.lighthouse.callculon.CallculonHandler.InvalidConfiguration;
+import gov.va.api.lighthouse.callculon.CallculonResponse.LatencyBreach;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+
+/**
+ * How long a call may take. A call slower than the warning duration still succeeds, but is
+ * reported as a warning. A call slower than the maximum has failed, and the deadline for its
+ * requests is brought forward so they are cancelled once the maximum is reached.
+ */
+final class LatencyBudget {
+
+  private static final LatencyBudget UNLIMITED = new LatencyBudget(null, null);
+
+  private final Duration max;
+
+  private final Duration warn;
+
+  private LatencyBudget(Duration max, Duration warn) {
+    this.max = max;
+    this.warn = warn;
+  }
+
+  /**
+   * Create a budget from configuration. Without durations, calls may take as long as the request
+   * timeout allows.
+   */
+  static LatencyBudget of(Request request) {
+    if (request == null) {
+      return UNLIMITED;
+    }
+    Duration max = duration("maxDuration", request.getMaxDuration());
+    Duration warn = duration("warnDuration", request.getWarnDuration());
+    if (max == null && warn == null) {
+      return UNLIMITED;
+    }
+    return new LatencyBudget(max, warn);
+  }
+
+  private static Duration duration(String name, String value) {
+    if (value == null || value.isBlank()) {
+      return null;
+    }
+    Duration duration;
+    try {
+      duration = Duration.parse(value);
+    } catch (DateTimeParseException e) {
+      throw new InvalidConfiguration("Invalid " + name + ": " + value);
+    }
+    if (duration.isNegative() || duration.isZero()) {
+      throw new InvalidConfiguration("Invalid " + name + ": " + value);
+    }
+    return duration;
+  }
+
+  /** Which part of the budget a call that took this long went over, if any. */
+  Optional<LatencyBreach> breach(Duration took) {
+    if (max != null && took.compareTo(max) > 0) {
+      return Optional.of(LatencyBreach.MAX);
+    }
+    if (warn != null && took.compareTo(warn) > 0) {
+      return Optional.of(LatencyBreach.WARN);
+    }
+    return Optional.empty();
+  }
+
+  /** The deadline, brought forward to the maximum from now if that is sooner. */
+  Deadline limit(Deadline deadline) {
+    return max == null ? deadline : deadline.atMost(max);
+  }
+
+  /** Why a call that took this long went over the budget, for notifications. */
+  Optional<String> note(Duration took) {
+    return breach(took)
+        .map(
+            breach ->
+                "Took "
+                    + took.toMillis()
+                    + " ms, more than the "
+                    + (breach == LatencyBreach.MAX ? "maxDuration of " : "warnDuration of ")
+                    + (breach == LatencyBreach.MAX ? max : warn).toMillis()
+                    + " ms");
+  }
+}
@@ -0,0 +1,116 @@
+package gov.va.api.lighthouse.callculon;
+
+import gov.va.api.lighthouse.callculon.CallculonResponse.LatencyPercentiles;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Request latencies per target, kept for the life of the container so percentiles cover every warm
+ * invocation. Like an HdrHistogram, values are counted in buckets that are exact below 128 ms and
+ * within 2% above, so recording is an array increment and memory is fixed no matter how many
+ * latencies are recorded. Latencies over an hour are counted as an hour.
+ */
+final class LatencyHistogram {
+
+  static final long MAX_MILLIS = Duration.ofHours(1).toMillis();
+
+  /** Values below 2^7 have their own bucket, larger values share them with their neighbors. */
+  private static final int SUB_BUCKET_BITS = 7;
+
+  private static final int HALF_SUB_BUCKET_COUNT = 1 << (SUB_BUCKET_BITS - 1);
+
+  private static final Map<String, LatencyHistogram> TARGETS = new ConcurrentHashMap<>();
+
+  private final long[] counts = new long[index(MAX_MILLIS) + 1];
+
+  private long count;
+
+  private long max;
+
+  private long lastReportNanos;
+
+  private LatencyHistogram(long startNanos) {
+    this.lastReportNanos = startNanos;
+  }
+
+  /**
+   * The bucket for a value. Each power of two from 2^7 up has 64 buckets, which is the same as
+   * dropping the bits below the top 7.
+   */
+  static int index(long millis) {
+    int shift = Math.max(0, 64 - Long.numberOfLeadingZeros(millis) - SUB_BUCKET_BITS);
+    return shift * HALF_SUB_BUCKET_COUNT + (int) (millis >>> shift);
+  }
+
+  /**
+   * The histogram for a target, created empty the first time it is needed. Configurations do not
+   * need a name, so unnamed targets share one histogram.
+   */
+  static LatencyHistogram of(String target) {
+    return TARGETS.computeIfAbsent(
+        String.valueOf(target), t -> new LatencyHistogram(System.nanoTime()));
+  }
+
+  /** The largest value counted in a bucket. */
+  static long upperBound(int index) {
+    int shift = Math.max(0, index / HALF_SUB_BUCKET_COUNT - 1);
+    return ((long) (index - shift * HALF_SUB_BUCKET_COUNT) << shift) + (1L << shift) - 1;
+  }
+
+  /** How many latencies have been recorded. */
+  synchronized long count() {
+    return count;
+  }
+
+  /**
+   * The latency that the given percent of recorded latencies are at or below, as the upper bound
+   * of its bucket but never more than the largest recorded. This is zero if nothing is recorded.
+   */
+  synchronized long percentile(double percent) {
+    if (count == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(percent / 100 * count));
+    long seen = 0;
+    for (int i = 0; i < counts.length; i++) {
+      seen += counts[i];
+      if (seen >= rank) {
+        return Math.min(upperBound(i), max);
+      }
+    }
+    return max;
+  }
+
+  /** The p50, p90, p99 and max latencies recorded so far. */
+  synchronized LatencyPercentiles percentiles() {
+    return LatencyPercentiles.builder()
+        .count(count)
+        .p50Millis(percentile(50))
+        .p90Millis(percentile(90))
+        .p99Millis(percentile(99))
+        .maxMillis(max)
+        .build();
+  }
+
+  /** Count a latency. */
+  synchronized void record(Duration latency) {
+    long millis = Math.min(Math.max(0, latency.toMillis()), MAX_MILLIS);
+    counts[index(millis)]++;
+    count++;
+    max = Math.max(max, millis);
+  }
+
+  /**
+   * Whether it is time to report the percentiles again, given the current System.nanoTime. Reports
+   * are due an interval after the histogram was created and then an interval after the last
+   * report, as long as something has been recorded.
+   */
+  synchronized boolean reportDue(long nowNanos, Duration interval) {
+    if (count == 0 || nowNanos - lastReportNanos < interval.toNanos()) {
+      return false;
+    }
+    lastReportNanos = nowNanos;
+    return true;
+  }
+}
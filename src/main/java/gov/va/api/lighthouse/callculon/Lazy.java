@@ -0,0 +1,44 @@
+package gov.va.api.lighthouse.callculon;
+
+import java.util.function.Supplier;
+
+/**
+ * A value created on first use rather than up front. Creation happens at most once, even when
+ * several threads ask at the same time, e.g. configurations in a batch.
+ */
+final class Lazy<T> implements Supplier<T> {
+
+  private Supplier<T> factory;
+
+  private volatile T value;
+
+  private Lazy(Supplier<T> factory, T value) {
+    this.factory = factory;
+    this.value = value;
+  }
+
+  /** A value that will be created by the factory when first needed. */
+  static <T> Lazy<T> of(Supplier<T> factory) {
+    return new Lazy<>(factory, null);
+  }
+
+  /** Use the value if given, otherwise create it when first needed. */
+  static <T> Lazy<T> orElse(T value, Supplier<T> factory) {
+    return value == null ? of(factory) : new Lazy<>(null, value);
+  }
+
+  @Override
+  public T get() {
+    T current = value;
+    if (current != null) {
+      return current;
+    }
+    synchronized (this) {
+      if (value == null) {
+        value = factory.get();
+        factory = null;
+      }
+      return value;
+    }
+  }
+}
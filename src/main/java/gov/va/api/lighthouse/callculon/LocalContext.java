@@ -0,0 +1,86 @@
+package gov.va.api.lighthouse.callculon;
+
+import com.amazonaws.services.lambda.runtime.ClientContext;
+import com.amazonaws.services.lambda.runtime.CognitoIdentity;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Stands in for the Lambda context outside of Lambda. The remaining time counts down from the
+ * timeout given when the context is created, as it would for an invocation with that timeout.
+ */
+final class LocalContext implements Context {
+
+  private final String requestId = UUID.randomUUID().toString();
+
+  private final String functionName;
+
+  private final LambdaLogger logger;
+
+  private final long expiresAtNanos;
+
+  LocalContext(String functionName, LambdaLogger logger, Duration timeout) {
+    this.functionName = functionName;
+    this.logger = logger;
+    this.expiresAtNanos = System.nanoTime() + timeout.toNanos();
+  }
+
+  @Override
+  public String getAwsRequestId() {
+    return requestId;
+  }
+
+  @Override
+  public ClientContext getClientContext() {
+    return null;
+  }
+
+  @Override
+  public String getFunctionName() {
+    return functionName;
+  }
+
+  @Override
+  public String getFunctionVersion() {
+    return "$LATEST";
+  }
+
+  @Override
+  public CognitoIdentity getIdentity() {
+    return null;
+  }
+
+  @Override
+  public String getInvokedFunctionArn() {
+    return null;
+  }
+
+  @Override
+  public String getLogGroupName() {
+    return null;
+  }
+
+  @Override
+  public String getLogStreamName() {
+    return null;
+  }
+
+  @Override
+  public LambdaLogger getLogger() {
+    return logger;
+  }
+
+  @Override
+  public int getMemoryLimitInMB() {
+    return (int) (Runtime.getRuntime().maxMemory() / (1024 * 1024));
+  }
+
+  /** Never zero, which would mean there is no limit, so an expired context stays expired. */
+  @Override
+  public int getRemainingTimeInMillis() {
+    long remainingMillis = Duration.ofNanos(expiresAtNanos - System.nanoTime()).toMillis();
+    return (int) Math.max(1, Math.min(Integer.MAX_VALUE, remainingMillis));
+  }
+}
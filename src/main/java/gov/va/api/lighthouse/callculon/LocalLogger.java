@@ -0,0 +1,40 @@
+package gov.va.api.lighthouse.callculon;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import java.io.PrintStream;
+import java.time.Clock;
+import java.time.Instant;
+
+/**
+ * Stands in for the Lambda logger outside of Lambda. Each line is written with the time and the
+ * name of the configuration, so output from timers running at the same time can be told apart.
+ */
+final class LocalLogger implements LambdaLogger {
+
+  private final PrintStream out;
+
+  private final String name;
+
+  private final Clock clock;
+
+  LocalLogger(PrintStream out, String name, Clock clock) {
+    this.out = out;
+    this.name = name;
+    this.clock = clock;
+  }
+
+  @Override
+  public void log(String message) {
+    String line = Instant.now(clock) + " [" + name + "] " + message;
+    synchronized (out) {
+      out.println(line);
+    }
+  }
+
+  @Override
+  public void log(byte[] message) {
+    log(new String(message, UTF_8));
+  }
+}
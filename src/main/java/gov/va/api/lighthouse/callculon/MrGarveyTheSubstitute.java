@@ -2,7 +2,10 @@ package gov.va.api.lighthouse.callculon;
 
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import lombok.Builder;
 import lombok.NonNull;
 import lombok.SneakyThrows;
@@ -10,21 +13,79 @@ import lombok.SneakyThrows;
 /**
  * Mr. Garvey performs simple substitution on a class path resource. Given a resource path, it will
  * read the resource and perform substitutions, replacing any occurrences of `${key}` in the
- * provided map of substitutions.
+ * provided map of substitutions. Resources are JSON documents with keys appearing inside JSON
+ * strings, so values are escaped accordingly. Keys without a substitution are left as is.
+ *
+ * <p>Each resource is only read and parsed once, the template is then reused for the life of the
+ * container.
  */
 @Builder
 public class MrGarveyTheSubstitute {
+  private static final Map<String, Template> TEMPLATES = new ConcurrentHashMap<>();
+
   @NonNull private final Map<String, String> substitutions;
   @NonNull private final String resource;
 
   @SneakyThrows
+  private static Template load(String resource) {
+    try (InputStream stream = MrGarveyTheSubstitute.class.getResourceAsStream(resource)) {
+      return Template.parse(new String(stream.readAllBytes(), StandardCharsets.UTF_8));
+    }
+  }
+
   String rollCall() {
-    try (InputStream stream = getClass().getResourceAsStream(resource)) {
-      String template = new String(stream.readAllBytes(), StandardCharsets.UTF_8);
-      for (var entry : substitutions.entrySet()) {
-        template = template.replace("${" + entry.getKey() + "}", entry.getValue());
+    return TEMPLATES.computeIfAbsent(resource, MrGarveyTheSubstitute::load).render(substitutions);
+  }
+
+  /** A resource split into literal text and keys. There is always one more literal than key. */
+  private static final class Template {
+    private final String[] literals;
+
+    private final String[] keys;
+
+    private final int literalLength;
+
+    private Template(List<String> literals, List<String> keys) {
+      this.literals = literals.toArray(new String[0]);
+      this.keys = keys.toArray(new String[0]);
+      int length = 0;
+      for (String literal : this.literals) {
+        length += literal.length();
+      }
+      this.literalLength = length;
+    }
+
+    static Template parse(String text) {
+      List<String> literals = new ArrayList<>();
+      List<String> keys = new ArrayList<>();
+      int literalStart = 0;
+      int open = text.indexOf("${");
+      while (open >= 0) {
+        int close = text.indexOf('}', open + 2);
+        if (close < 0) {
+          break;
+        }
+        literals.add(text.substring(literalStart, open));
+        keys.add(text.substring(open + 2, close));
+        literalStart = close + 1;
+        open = text.indexOf("${", literalStart);
+      }
+      literals.add(text.substring(literalStart));
+      return new Template(literals, keys);
+    }
+
+    String render(Map<String, String> substitutions) {
+      StringBuilder result = new StringBuilder(literalLength + 32 * keys.length);
+      for (int i = 0; i < keys.length; i++) {
+        result.append(literals[i]);
+        String value = substitutions.get(keys[i]);
+        if (value == null) {
+          result.append("${").append(keys[i]).append('}');
+        } else {
+          Json.escape(value, result);
+        }
       }
-      return template;
+      return result.append(literals[keys.length]).toString();
     }
   }
 }
@@ -0,0 +1,224 @@
+package gov.va.api.lighthouse.callculon;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+import lombok.experimental.Accessors;
+
+/**
+ * Notifications that could not be sent, kept in a file so they can be sent later. Each entry is a
+ * single line, so adding one is an append. The outbox is bounded by size and age. When an entry
+ * is added and the outbox is full or has expired entries, it is rewritten without the oldest or
+ * expired entries. Webhooks are stored as configured, i.e. before secrets are resolved, so no
+ * secret values are written to disk.
+ *
+ * <p>Lambda keeps `/tmp` for the life of the container, so entries survive between warm
+ * invocations.
+ */
+public final class NotificationOutbox {
+
+  public static final String OPTION_OUTBOX_FILE = "CALLCULON_OUTBOX_FILE";
+
+  public static final String OPTION_OUTBOX_SIZE = "CALLCULON_OUTBOX_SIZE";
+
+  public static final String OPTION_OUTBOX_MAX_AGE = "CALLCULON_OUTBOX_MAX_AGE";
+
+  private final Path file;
+
+  private final int maxEntries;
+
+  private final Duration maxAge;
+
+  private final Clock clock;
+
+  /** Create a new outbox. The clock is primarily to allow testing. */
+  @Builder
+  public NotificationOutbox(@NonNull Path file, int maxEntries, Duration maxAge, Clock clock) {
+    this.file = file;
+    this.maxEntries = maxEntries <= 0 ? 100 : maxEntries;
+    this.maxAge = maxAge == null ? Duration.ofHours(6) : maxAge;
+    this.clock = clock == null ? Clock.systemUTC() : clock;
+  }
+
+  private static String decode(String value) {
+    return new String(Base64.getDecoder().decode(value), UTF_8);
+  }
+
+  private static String encode(String value) {
+    return Base64.getEncoder().encodeToString(value.getBytes(UTF_8));
+  }
+
+  /**
+   * Create an outbox from a given environment map.
+   *
+   * <pre>
+   * CALLCULON_OUTBOX_FILE = Path (/tmp/callculon-outbox)
+   * CALLCULON_OUTBOX_SIZE = Integer (100)
+   * CALLCULON_OUTBOX_MAX_AGE = ISO 8601 Duration (PT6H)
+   * </pre>
+   */
+  public static NotificationOutbox fromEnvironmentVariables(Map<String, String> env) {
+    return NotificationOutbox.builder()
+        .file(Path.of(env.getOrDefault(OPTION_OUTBOX_FILE, "/tmp/callculon-outbox")))
+        .maxEntries(Integer.parseInt(env.getOrDefault(OPTION_OUTBOX_SIZE, "100")))
+        .maxAge(Duration.parse(env.getOrDefault(OPTION_OUTBOX_MAX_AGE, "PT6H")))
+        .build();
+  }
+
+  /** The outbox shared by everything in this container, configured from environment variables. */
+  public static NotificationOutbox shared() {
+    return SharedInstance.INSTANCE;
+  }
+
+  /** Keep an entry, dropping the oldest entries if the outbox is full. */
+  public synchronized void add(Entry entry) {
+    List<Entry> entries = read();
+    boolean expired = entries.stream().anyMatch(this::isExpired);
+    if (!expired && entries.size() < maxEntries) {
+      write(file, List.of(entry), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+      return;
+    }
+    List<Entry> kept = new ArrayList<>(entries.size() + 1);
+    for (Entry existing : entries) {
+      if (!isExpired(existing)) {
+        kept.add(existing);
+      }
+    }
+    kept.add(entry);
+    rewrite(kept.subList(Math.max(0, kept.size() - maxEntries), kept.size()));
+  }
+
+  /** Take every entry that has not expired out of the outbox, oldest first. */
+  public synchronized List<Entry> drain() {
+    List<Entry> entries = read();
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    List<Entry> current = new ArrayList<>(entries.size());
+    for (Entry entry : entries) {
+      if (!isExpired(entry)) {
+        current.add(entry);
+      }
+    }
+    return current;
+  }
+
+  private boolean isExpired(Entry entry) {
+    return entry.created().plus(maxAge).isBefore(clock.instant());
+  }
+
+  /** Whether there is anything in the outbox, without reading it. */
+  public boolean isEmpty() {
+    try {
+      return !Files.exists(file) || Files.size(file) == 0;
+    } catch (IOException e) {
+      return true;
+    }
+  }
+
+  /** Read every entry, skipping any that cannot be parsed, e.g. a partially written line. */
+  private List<Entry> read() {
+    List<String> lines;
+    try {
+      lines = Files.readAllLines(file, UTF_8);
+    } catch (NoSuchFileException e) {
+      return List.of();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    List<Entry> entries = new ArrayList<>(lines.size());
+    for (String line : lines) {
+      String[] fields = line.split("\t", -1);
+      if (fields.length != 4) {
+        continue;
+      }
+      try {
+        entries.add(
+            Entry.builder()
+                .created(Instant.ofEpochMilli(Long.parseLong(fields[0])))
+                .channel(decode(fields[1]))
+                .webhook(decode(fields[2]))
+                .message(decode(fields[3]))
+                .build());
+      } catch (IllegalArgumentException e) {
+        /* Not an entry, skip it. */
+      }
+    }
+    return entries;
+  }
+
+  private void rewrite(List<Entry> entries) {
+    Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+    write(
+        temporary,
+        entries,
+        StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING,
+        StandardOpenOption.WRITE);
+    try {
+      Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void write(Path target, List<Entry> entries, StandardOpenOption... options) {
+    StringBuilder lines = new StringBuilder();
+    for (Entry entry : entries) {
+      lines
+          .append(entry.created().toEpochMilli())
+          .append('\t')
+          .append(encode(entry.channel()))
+          .append('\t')
+          .append(encode(entry.webhook()))
+          .append('\t')
+          .append(encode(entry.message()))
+          .append('\n');
+    }
+    try {
+      Files.createDirectories(target.toAbsolutePath().getParent());
+      Files.writeString(target, lines, UTF_8, options);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /** A message that could not be posted to a Slack webhook. */
+  @Value
+  @Builder
+  @Accessors(fluent = true)
+  public static class Entry {
+    @NonNull Instant created;
+
+    @NonNull String channel;
+
+    /** The webhook as configured, possibly containing secrets. */
+    @NonNull String webhook;
+
+    @NonNull String message;
+  }
+
+  /** Lazily read from environment variables on first use. */
+  private static final class SharedInstance {
+    private static final NotificationOutbox INSTANCE =
+        fromEnvironmentVariables(System.getenv());
+  }
+}
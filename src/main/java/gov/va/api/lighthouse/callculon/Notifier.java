@@ -1,18 +1,53 @@
 package gov.va.api.lighthouse.callculon;
 
 import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import java.time.Duration;
 import java.util.Optional;
 import lombok.Builder;
 import lombok.Value;
 
 /** Defines an interface for sending notifications from Callculon. */
 public interface Notifier {
+  /**
+   * Send anything held back so far, e.g. at the end of a batch. Notifiers that send immediately
+   * have nothing to do.
+   */
+  default void flush(LambdaLogger logger) {}
+
+  /**
+   * Send only what has been held back for as long as the notifier is willing to wait, e.g. after
+   * each invocation. Notifiers that send immediately have nothing to do.
+   */
+  default void flushDue(LambdaLogger logger) {}
+
   void onFailure(NotificationContext ctx);
 
+  /**
+   * Called instead of onSuccess for the first success after one or more failures. By default, this
+   * is just another success.
+   */
+  default void onRecovery(NotificationContext ctx, int failures) {
+    onSuccess(ctx);
+  }
+
   void onSuccess(NotificationContext ctx);
 
+  /**
+   * Called instead of onSuccess when the call succeeded but took longer than the request's
+   * warnDuration. The note says how long it took. By default, this is just another success.
+   */
+  default void onWarning(NotificationContext ctx) {
+    onSuccess(ctx);
+  }
+
+  /**
+   * Try again to send notifications that failed earlier, if the notifier kept them. This is done
+   * in the background and should not be on the request path.
+   */
+  default void redeliver(SecretProcessor secretProcessor, LambdaLogger logger) {}
+
   /** Defines the basic parts required to send a notification. */
-  @Builder
+  @Builder(toBuilder = true)
   @Value
   class NotificationContext {
     SecretProcessor secretProcessor;
@@ -20,6 +55,10 @@ public interface Notifier {
     String url;
     int statusCode;
     @Builder.Default Optional<String> note = Optional.empty();
+    /** The start of the response body, if the request asked for it to be captured. */
+    @Builder.Default Optional<String> body = Optional.empty();
+    /** How long the request took, if it was made. */
+    Duration duration;
     LambdaLogger logger;
   }
 
@@ -33,4 +72,14 @@ public interface Notifier {
       super(cause);
     }
   }
+
+  /**
+   * Defines a notification that could not be sent now, but was kept to be sent by {@link
+   * #redeliver}. Nobody has been told yet, but they will be.
+   */
+  class NotificationQueued extends NotificationFailure {
+    public NotificationQueued(String message) {
+      super(message);
+    }
+  }
 }
@@ -0,0 +1,171 @@
+package gov.va.api.lighthouse.callculon;
+
+import gov.va.api.lighthouse.callculon.CallculonConfiguration.BodyMode;
+import gov.va.api.lighthouse.callculon.CallculonConfiguration.Request;
+import java.io.ByteArrayOutputStream;
+import java.net.http.HttpResponse.BodyHandler;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.net.http.HttpResponse.BodySubscriber;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow.Subscription;
+
+/**
+ * Body handlers for the request body modes. Callculon only cares about the status code, so none of
+ * these hold on to more than a bounded number of bytes, regardless of how large the response is.
+ * Every handler produces a String, which is only ever non-null when capturing.
+ */
+final class ResponseBodies {
+
+  static final int DEFAULT_CAPTURE_BYTES = 1024;
+
+  static final int MAX_CAPTURE_BYTES = 64 * 1024;
+
+  private ResponseBodies() {}
+
+  /** Keep up to the given number of bytes, decoded as UTF-8, and throw away the rest. */
+  static BodyHandler<String> capture(int maxBytes) {
+    return responseInfo -> new CapturingSubscriber(maxBytes);
+  }
+
+  /**
+   * The number of bytes to capture for a request, using the default if not specified and never
+   * more than the maximum.
+   */
+  static int captureBytes(Request request) {
+    int bytes = request.getCaptureBytes() <= 0 ? DEFAULT_CAPTURE_BYTES : request.getCaptureBytes();
+    return Math.min(bytes, MAX_CAPTURE_BYTES);
+  }
+
+  /** Read the whole body, without keeping any of it. */
+  static BodyHandler<String> discard() {
+    return BodyHandlers.replacing(null);
+  }
+
+  /** The body handler for the request's body mode, discarding by default. */
+  static BodyHandler<String> forRequest(Request request) {
+    BodyMode mode = request.getBodyMode() == null ? BodyMode.DISCARD : request.getBodyMode();
+    switch (mode) {
+      case HEADERS_ONLY:
+        return headersOnly();
+      case CAPTURE:
+        return capture(captureBytes(request));
+      case DISCARD:
+      default:
+        return discard();
+    }
+  }
+
+  /**
+   * Cancel the body as soon as the status and headers have arrived. Since the body is not read, the
+   * connection cannot be reused for another request.
+   */
+  static BodyHandler<String> headersOnly() {
+    return responseInfo -> new HeadersOnlySubscriber();
+  }
+
+  private static final class CapturingSubscriber implements BodySubscriber<String> {
+    private final CompletableFuture<String> body = new CompletableFuture<>();
+
+    private final ByteArrayOutputStream captured;
+
+    private final int maxBytes;
+
+    private boolean truncated;
+
+    CapturingSubscriber(int maxBytes) {
+      this.maxBytes = maxBytes;
+      this.captured = new ByteArrayOutputStream(Math.min(maxBytes, DEFAULT_CAPTURE_BYTES));
+    }
+
+    @Override
+    public CompletionStage<String> getBody() {
+      return body;
+    }
+
+    /**
+     * The length of the captured bytes without a character that was cut in half at the limit, so it
+     * is not decoded as a replacement character.
+     */
+    private static int completeLength(byte[] bytes) {
+      int start = bytes.length - 1;
+      /* UTF-8 continuation bytes look like 10xxxxxx, a character has at most three. */
+      while (start >= 0 && bytes.length - start <= 3 && (bytes[start] & 0xC0) == 0x80) {
+        start--;
+      }
+      if (start < 0) {
+        return bytes.length;
+      }
+      int lead = bytes[start] & 0xFF;
+      int length = lead >= 0xF0 ? 4 : lead >= 0xE0 ? 3 : lead >= 0xC0 ? 2 : 1;
+      return bytes.length - start < length ? start : bytes.length;
+    }
+
+    @Override
+    public void onComplete() {
+      byte[] bytes = captured.toByteArray();
+      int length = truncated ? completeLength(bytes) : bytes.length;
+      body.complete(new String(bytes, 0, length, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      body.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> buffers) {
+      for (ByteBuffer buffer : buffers) {
+        int wanted = Math.min(maxBytes - captured.size(), buffer.remaining());
+        if (wanted < buffer.remaining()) {
+          truncated = true;
+        }
+        if (wanted <= 0) {
+          return;
+        }
+        byte[] bytes = new byte[wanted];
+        buffer.get(bytes);
+        captured.write(bytes, 0, wanted);
+      }
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+      /* Keep reading past the limit so the connection is left clean and can be reused. */
+      subscription.request(Long.MAX_VALUE);
+    }
+  }
+
+  private static final class HeadersOnlySubscriber implements BodySubscriber<String> {
+    private final CompletableFuture<String> body = new CompletableFuture<>();
+
+    @Override
+    public CompletionStage<String> getBody() {
+      return body;
+    }
+
+    @Override
+    public void onComplete() {
+      body.complete(null);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      body.complete(null);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> buffers) {
+      /* Nothing was requested, nothing is expected. */
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+      subscription.cancel();
+      body.complete(null);
+    }
+  }
+}
@@ -0,0 +1,232 @@
+package gov.va.api.lighthouse.callculon;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import gov.va.api.lighthouse.callculon.CallculonConfiguration.Deployment;
+import gov.va.api.lighthouse.callculon.CallculonConfiguration.Hedge;
+import gov.va.api.lighthouse.callculon.CallculonConfiguration.Request;
+import gov.va.api.lighthouse.callculon.CallculonConfiguration.Retry;
+import gov.va.api.lighthouse.callculon.CallculonConfiguration.Slack;
+import gov.va.api.lighthouse.callculon.CallculonResponse.Attempt;
+import gov.va.api.lighthouse.callculon.CallculonResponse.Latency;
+import gov.va.api.lighthouse.callculon.CallculonResponse.LatencyPercentiles;
+import gov.va.api.lighthouse.callculon.CallculonResponse.NotifierResult;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Writes a {@link CallculonResponse} as JSON without reflection, using the same field names as the
+ * Lambda runtime would. Null values are left out.
+ */
+final class ResponseEncoder {
+
+  private final StringBuilder out = new StringBuilder(2048);
+
+  /** Whether a value has been written in the current object, so the next needs a comma. */
+  private boolean comma;
+
+  private ResponseEncoder() {}
+
+  static String encode(CallculonResponse response) {
+    ResponseEncoder encoder = new ResponseEncoder();
+    encoder.object(response, encoder::response);
+    return encoder.out.toString();
+  }
+
+  static void encode(CallculonResponse response, OutputStream output) throws IOException {
+    output.write(encode(response).getBytes(UTF_8));
+    output.flush();
+  }
+
+  private <T> void array(String name, List<T> values, Consumer<T> element) {
+    if (values == null) {
+      return;
+    }
+    name(name);
+    out.append('[');
+    for (int i = 0; i < values.size(); i++) {
+      if (i > 0) {
+        out.append(',');
+      }
+      element.accept(values.get(i));
+    }
+    out.append(']');
+    comma = true;
+  }
+
+  private void attempt(Attempt attempt) {
+    field("statusCode", attempt.getStatusCode());
+    field("error", attempt.getError());
+    field("millis", attempt.getMillis());
+  }
+
+  private void configuration(CallculonConfiguration config) {
+    field("name", config.getName());
+    object("deployment", config.getDeployment(), this::deployment);
+    object("request", config.getRequest(), this::request);
+    object(
+        "notification",
+        config.getNotification(),
+        notification -> object("slack", notification.getSlack(), this::slack));
+  }
+
+  private void deployment(Deployment deployment) {
+    field("enabled", deployment.isEnabled());
+    field("cron", deployment.getCron());
+    field("product", deployment.getProduct());
+    field("version", deployment.getVersion());
+    field("id", deployment.getId());
+    field("environment", deployment.getEnvironment());
+    field("jitter", deployment.getJitter());
+  }
+
+  private void field(String name, Enum<?> value) {
+    if (value != null) {
+      field(name, value.name());
+    }
+  }
+
+  private void field(String name, String value) {
+    if (value == null) {
+      return;
+    }
+    name(name);
+    string(value);
+    comma = true;
+  }
+
+  private void field(String name, boolean value) {
+    name(name);
+    out.append(value);
+    comma = true;
+  }
+
+  private void field(String name, long value) {
+    name(name);
+    out.append(value);
+    comma = true;
+  }
+
+  private void headers(Map<String, String> headers) {
+    headers.forEach(this::field);
+  }
+
+  private void hedge(Hedge hedge) {
+    field("delay", hedge.getDelay());
+    field("percentile", hedge.getPercentile());
+  }
+
+  private void latency(Latency latency) {
+    field("secretLookupMillis", latency.getSecretLookupMillis());
+    field("timeToHeadersMillis", latency.getTimeToHeadersMillis());
+    field("bodyMillis", latency.getBodyMillis());
+    field("notificationMillis", latency.getNotificationMillis());
+    field("totalMillis", latency.getTotalMillis());
+  }
+
+  private void latencyPercentiles(LatencyPercentiles percentiles) {
+    field("count", percentiles.getCount());
+    field("p50Millis", percentiles.getP50Millis());
+    field("p90Millis", percentiles.getP90Millis());
+    field("p99Millis", percentiles.getP99Millis());
+    field("maxMillis", percentiles.getMaxMillis());
+  }
+
+  private void name(String name) {
+    if (comma) {
+      out.append(',');
+    }
+    string(name);
+    out.append(':');
+  }
+
+  private void notifierResult(NotifierResult result) {
+    field("notifier", result.getNotifier());
+    field("error", result.getError());
+    field("queued", result.getQueued());
+    field("millis", result.getMillis());
+  }
+
+  private <T> void object(String name, T value, Consumer<T> fields) {
+    if (value == null) {
+      return;
+    }
+    name(name);
+    object(value, fields);
+  }
+
+  private <T> void object(T value, Consumer<T> fields) {
+    if (value == null) {
+      out.append("null");
+      return;
+    }
+    out.append('{');
+    comma = false;
+    fields.accept(value);
+    out.append('}');
+    comma = true;
+  }
+
+  private void request(Request request) {
+    field("protocol", request.getProtocol());
+    field("hostname", request.getHostname());
+    field("port", request.getPort());
+    field("path", request.getPath());
+    field("method", request.getMethod());
+    object("headers", request.getHeaders(), this::headers);
+    field("bodyMode", request.getBodyMode());
+    field("captureBytes", request.getCaptureBytes());
+    object("retry", request.getRetry(), this::retry);
+    object("hedge", request.getHedge(), this::hedge);
+    field("maxDuration", request.getMaxDuration());
+    field("warnDuration", request.getWarnDuration());
+  }
+
+  private void response(CallculonResponse response) {
+    object("configuration", response.getConfiguration(), this::configuration);
+    field("statusCode", response.getStatusCode());
+    field("requestTime", response.getRequestTime());
+    field("duration", response.getDuration());
+    field("notificationError", response.isNotificationError());
+    array("notifications", response.getNotifications(), n -> object(n, this::notifierResult));
+    field("originRecentlyContacted", response.isOriginRecentlyContacted());
+    object("latency", response.getLatency(), this::latency);
+    object("latencyPercentiles", response.getLatencyPercentiles(), this::latencyPercentiles);
+    field("latencyBreach", response.getLatencyBreach());
+    field("hedged", response.isHedged());
+    field("hedgeWon", response.isHedgeWon());
+    array("attempts", response.getAttempts(), a -> object(a, this::attempt));
+    field("body", response.getBody());
+    field("error", response.getError());
+  }
+
+  private void retry(Retry retry) {
+    field("maxAttempts", retry.getMaxAttempts());
+    array("statuses", retry.getStatuses(), out::append);
+    array("exceptions", retry.getExceptions(), this::string);
+    field("initialBackoff", retry.getInitialBackoff());
+    field("maxBackoff", retry.getMaxBackoff());
+  }
+
+  private void slack(Slack slack) {
+    field("onFailure", slack.isOnFailure());
+    field("onSuccess", slack.isOnSuccess());
+    field("digest", slack.isDigest());
+    field("webhook", slack.getWebhook());
+    field("channel", slack.getChannel());
+  }
+
+  /** A quoted string, or null. */
+  private void string(String value) {
+    if (value == null) {
+      out.append("null");
+      return;
+    }
+    out.append('"');
+    Json.escape(value, out);
+    out.append('"');
+  }
+}
@@ -0,0 +1,110 @@
+package gov.va.api.lighthouse.callculon;
+
+import static java.util.stream.Collectors.toSet;
+
+import gov.va.api.lighthouse.callculon.CallculonConfiguration.Retry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides whether a failed attempt is retried and how long to wait first. Waits grow exponentially
+ * and are fully jittered, i.e. a random duration between zero and the exponential backoff, so
+ * timers failing together do not retry together.
+ */
+final class RetryPolicy {
+
+  static final int DEFAULT_MAX_ATTEMPTS = 3;
+
+  static final List<Integer> DEFAULT_STATUSES = List.of(429, 502, 503, 504);
+
+  static final List<String> DEFAULT_EXCEPTIONS = List.of("IOException");
+
+  static final Duration DEFAULT_INITIAL_BACKOFF = Duration.ofMillis(200);
+
+  static final Duration DEFAULT_MAX_BACKOFF = Duration.ofSeconds(5);
+
+  /** Attempts given less time than this are not worth making. */
+  static final Duration MIN_ATTEMPT_TIMEOUT = Duration.ofMillis(250);
+
+  private static final RetryPolicy NEVER =
+      new RetryPolicy(1, Set.of(), Set.of(), Duration.ZERO, Duration.ZERO);
+
+  private final int maxAttempts;
+
+  private final Set<Integer> statuses;
+
+  private final Set<String> exceptions;
+
+  private final Duration initialBackoff;
+
+  private final Duration maxBackoff;
+
+  private RetryPolicy(
+      int maxAttempts,
+      Set<Integer> statuses,
+      Set<String> exceptions,
+      Duration initialBackoff,
+      Duration maxBackoff) {
+    this.maxAttempts = maxAttempts;
+    this.statuses = statuses;
+    this.exceptions = exceptions;
+    this.initialBackoff = initialBackoff;
+    this.maxBackoff = maxBackoff;
+  }
+
+  /** Create a policy from configuration. Without configuration, nothing is retried. */
+  static RetryPolicy of(Retry retry) {
+    if (retry == null) {
+      return NEVER;
+    }
+    return new RetryPolicy(
+        retry.getMaxAttempts() <= 0 ? DEFAULT_MAX_ATTEMPTS : retry.getMaxAttempts(),
+        Set.copyOf(retry.getStatuses() == null ? DEFAULT_STATUSES : retry.getStatuses()),
+        (retry.getExceptions() == null ? DEFAULT_EXCEPTIONS : retry.getExceptions())
+            .stream()
+            .map(String::trim)
+            .collect(toSet()),
+        duration(retry.getInitialBackoff(), DEFAULT_INITIAL_BACKOFF),
+        duration(retry.getMaxBackoff(), DEFAULT_MAX_BACKOFF));
+  }
+
+  private static Duration duration(String value, Duration defaultValue) {
+    return value == null || value.isBlank() ? defaultValue : Duration.parse(value);
+  }
+
+  /**
+   * How long to wait after the given attempt, starting at 1. This is a random duration up to the
+   * initial backoff doubled for every previous attempt, capped at the maximum backoff.
+   */
+  Duration backoff(int attempt) {
+    long ceiling = initialBackoff.toMillis() << Math.min(attempt - 1, 20);
+    ceiling = Math.min(ceiling, maxBackoff.toMillis());
+    if (ceiling <= 0) {
+      return Duration.ZERO;
+    }
+    return Duration.ofMillis(ThreadLocalRandom.current().nextLong(ceiling + 1));
+  }
+
+  /**
+   * Whether the exception, or any of its super classes, is configured as retryable. Classes can be
+   * configured by simple or fully qualified name.
+   */
+  boolean isRetryable(Throwable error) {
+    for (Class<?> type = error.getClass(); type != null; type = type.getSuperclass()) {
+      if (exceptions.contains(type.getSimpleName()) || exceptions.contains(type.getName())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  boolean isRetryable(int statusCode) {
+    return statuses.contains(statusCode);
+  }
+
+  int maxAttempts() {
+    return maxAttempts;
+  }
+}
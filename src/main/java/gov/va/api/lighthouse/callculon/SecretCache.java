@@ -0,0 +1,233 @@
+package gov.va.api.lighthouse.callculon;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import lombok.Builder;
+import lombok.Value;
+import lombok.experimental.Accessors;
+
+/**
+ * A bounded cache of secret values that lives as long as the Lambda container, so warm
+ * invocations do not need to go back to the secret store for values that rarely change.
+ *
+ * <p>Values younger than the TTL are served directly. Values older than the TTL but still within
+ * the stale window are served immediately while a refresh is performed in the background. Values
+ * older than that are loaded again before being returned. When the cache is full, the least
+ * recently used value is evicted.
+ */
+public class SecretCache {
+
+  public static final String OPTION_SECRET_CACHE_TTL = "CALLCULON_SECRET_CACHE_TTL";
+
+  public static final String OPTION_SECRET_CACHE_STALE_TTL = "CALLCULON_SECRET_CACHE_STALE_TTL";
+
+  public static final String OPTION_SECRET_CACHE_SIZE = "CALLCULON_SECRET_CACHE_SIZE";
+
+  private final Duration ttl;
+
+  private final Duration staleTtl;
+
+  private final Clock clock;
+
+  private final Executor refresher;
+
+  private final Map<String, CachedValue> values;
+
+  private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+  private final AtomicLong hits = new AtomicLong();
+
+  private final AtomicLong staleHits = new AtomicLong();
+
+  private final AtomicLong misses = new AtomicLong();
+
+  private final AtomicLong refreshFailures = new AtomicLong();
+
+  private final AtomicLong evictions = new AtomicLong();
+
+  /**
+   * Create a new cache. The clock and refresher are primarily to allow testing. If not specified,
+   * the system clock and a single background thread will be used.
+   */
+  @Builder
+  public SecretCache(
+      Duration ttl, Duration staleTtl, int maxSize, Clock clock, Executor refresher) {
+    this.ttl = ttl == null ? Duration.ofMinutes(5) : ttl;
+    this.staleTtl = staleTtl == null ? Duration.ofHours(1) : staleTtl;
+    this.clock = clock == null ? Clock.systemUTC() : clock;
+    this.refresher = refresher == null ? defaultRefresher() : refresher;
+    int capacity = maxSize <= 0 ? 100 : maxSize;
+    this.values =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<String, CachedValue> eldest) {
+            if (size() > capacity) {
+              evictions.incrementAndGet();
+              return true;
+            }
+            return false;
+          }
+        };
+  }
+
+  private static Executor defaultRefresher() {
+    return Executors.newSingleThreadExecutor(
+        r -> {
+          Thread thread = new Thread(r, "secret-cache-refresh");
+          thread.setDaemon(true);
+          return thread;
+        });
+  }
+
+  /**
+   * Create a cache from a given environment map.
+   *
+   * <pre>
+   * CALLCULON_SECRET_CACHE_TTL = ISO 8601 Duration (PT5M)
+   * CALLCULON_SECRET_CACHE_STALE_TTL = ISO 8601 Duration (PT1H)
+   * CALLCULON_SECRET_CACHE_SIZE = Integer (100)
+   * </pre>
+   */
+  public static SecretCache fromEnvironmentVariables(Map<String, String> env) {
+    return SecretCache.builder()
+        .ttl(Duration.parse(env.getOrDefault(OPTION_SECRET_CACHE_TTL, "PT5M")))
+        .staleTtl(Duration.parse(env.getOrDefault(OPTION_SECRET_CACHE_STALE_TTL, "PT1H")))
+        .maxSize(Integer.parseInt(env.getOrDefault(OPTION_SECRET_CACHE_SIZE, "100")))
+        .build();
+  }
+
+  /** The cache shared by everything in this container, configured from environment variables. */
+  public static SecretCache shared() {
+    return SharedInstance.INSTANCE;
+  }
+
+  /**
+   * Get the values for the given secret names, using the loader for any that are missing or
+   * expired. The loader receives only the names it needs to load and may omit names that do not
+   * exist. Such names will also be omitted from the result.
+   */
+  public Map<String, String> get(
+      List<String> names, Function<List<String>, Map<String, String>> loader) {
+    Instant now = clock.instant();
+    Map<String, String> result = new HashMap<>();
+    Set<String> missing = new LinkedHashSet<>();
+    List<String> stale = new ArrayList<>();
+    int fresh = 0;
+    synchronized (values) {
+      for (String name : names) {
+        CachedValue cached = values.get(name);
+        if (cached == null || now.isAfter(cached.loaded().plus(ttl).plus(staleTtl))) {
+          missing.add(name);
+        } else if (now.isAfter(cached.loaded().plus(ttl))) {
+          result.put(name, cached.value());
+          stale.add(name);
+        } else {
+          result.put(name, cached.value());
+          fresh++;
+        }
+      }
+    }
+    hits.addAndGet(fresh);
+    staleHits.addAndGet(stale.size());
+    misses.addAndGet(missing.size());
+    if (!missing.isEmpty()) {
+      Map<String, String> loaded = loader.apply(new ArrayList<>(missing));
+      put(loaded, now);
+      result.putAll(loaded);
+    }
+    if (!stale.isEmpty()) {
+      refreshInBackground(stale, loader);
+    }
+    return result;
+  }
+
+  /** Drop all cached values. */
+  public void invalidateAll() {
+    synchronized (values) {
+      values.clear();
+    }
+  }
+
+  private void put(Map<String, String> loaded, Instant when) {
+    synchronized (values) {
+      loaded.forEach((name, value) -> values.put(name, new CachedValue(value, when)));
+    }
+  }
+
+  private void refreshInBackground(
+      List<String> stale, Function<List<String>, Map<String, String>> loader) {
+    List<String> claimed = new ArrayList<>(stale.size());
+    for (String name : stale) {
+      if (refreshing.add(name)) {
+        claimed.add(name);
+      }
+    }
+    if (claimed.isEmpty()) {
+      return;
+    }
+    refresher.execute(
+        () -> {
+          try {
+            put(loader.apply(claimed), clock.instant());
+          } catch (RuntimeException e) {
+            /* Keep serving the stale values, we'll try again next time they're requested. */
+            refreshFailures.incrementAndGet();
+          } finally {
+            refreshing.removeAll(claimed);
+          }
+        });
+  }
+
+  /** Snapshot of the cache counters since the container started. */
+  public Statistics statistics() {
+    int size;
+    synchronized (values) {
+      size = values.size();
+    }
+    return Statistics.builder()
+        .hits(hits.get())
+        .staleHits(staleHits.get())
+        .misses(misses.get())
+        .refreshFailures(refreshFailures.get())
+        .evictions(evictions.get())
+        .size(size)
+        .build();
+  }
+
+  /** Counters used to verify how effective the cache is. */
+  @Value
+  @Builder
+  public static class Statistics {
+    long hits;
+    long staleHits;
+    long misses;
+    long refreshFailures;
+    long evictions;
+    int size;
+  }
+
+  @Value
+  @Accessors(fluent = true)
+  private static class CachedValue {
+    String value;
+    Instant loaded;
+  }
+
+  /** Lazily created on first use. */
+  private static final class SharedInstance {
+    private static final SecretCache INSTANCE = fromEnvironmentVariables(System.getenv());
+  }
+}
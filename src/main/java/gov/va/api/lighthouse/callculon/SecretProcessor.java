@@ -2,11 +2,12 @@ package gov.va.api.lighthouse.callculon;
 
 import static java.util.stream.Collectors.toList;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Scanner;
+import java.util.Map;
+import java.util.Objects;
 import java.util.function.Function;
-import java.util.regex.MatchResult;
-import java.util.regex.Pattern;
 
 /**
  * Responsible for processing a value in the configuration and performing substitution on it or
@@ -35,72 +36,97 @@ public interface SecretProcessor extends Function<String, String> {
    *   foo(bar-ack-ick)
    *   foo( bar/ack/ick )
    * </pre>
+   *
+   * <p>Tokens must begin at the start of the value or after punctuation or whitespace. A token that
+   * is started but not properly finished is an {@link InvalidSecretSpecification}.
    */
   @Override
   default String apply(String configValue) {
-    /* We need to find token on a word break. */
-    Pattern pattern =
-        Pattern.compile("(^|\\p{Punct}|\\s|\\G)" + identifier() + "\\(\\s*([^\\s]+?)\\s*\\)");
-    Scanner scanner = new Scanner(configValue);
-    List<MatchResult> matches = scanner.findAll(pattern).collect(toList());
-    scanner.close();
+    SecretTemplate template = SecretTemplate.parse(identifier(), configValue);
+    List<String> secrets = template.secrets();
     /* If there are no secrets, then dip on out. */
-    if (matches.isEmpty()) {
-      checkForInvalidSecretSpecifications(configValue, configValue);
+    if (secrets.isEmpty()) {
       return configValue;
     }
-    List<String> leadingSeparators = matches.stream().map(m -> m.group(1)).collect(toList());
-    List<String> secrets = matches.stream().map(m -> m.group(2)).collect(toList());
     List<String> values = lookup(secrets);
     if (values.size() != secrets.size()) {
       throw new MissingLookupValue(secrets, secrets.size(), values.size());
     }
+    return template.render(values);
+  }
 
-    /*
-     * We'll do everything backwards to make sure our match indexes aren't invalidated as we
-     * manipulate the string value.
-     */
-    String result = configValue;
-    for (int i = matches.size() - 1; i >= 0; i--) {
-      MatchResult secretMatch = matches.get(i);
-      result =
-          result.substring(0, secretMatch.start())
-              + leadingSeparators.get(i)
-              + values.get(i)
-              + result.substring(secretMatch.end());
-    }
-    /*
-     * One final check to make sure we don't have a case where a value had some valid and some
-     * invalid secrets.
-     */
-    checkForInvalidSecretSpecifications(configValue, result);
+  /**
+   * The identifying marker for this secret process. This will be in the configuration value as
+   * ${identifier}(token), e.g. aws-secret(/dvp/qa/wow/neat).
+   */
+  String identifier();
 
-    return result;
-  }
+  List<String> lookup(List<String> secrets);
 
   /**
-   * Look for any partially defined secrets in the currentConfigValue. If found, an error with the
-   * originalConfigValue will be emitted. The original value is used to protect any secrets that
-   * might have been successfully processed.
+   * Collect the secrets from all of the given configuration values and look them up with a single
+   * {@link #lookup(List)}. The returned processor substitutes from those values, so applying it to
+   * any of the given configuration values will not perform any further lookups. Null values are
+   * ignored. If any secret cannot be found, the values are not resolved up front and each will be
+   * looked up, and possibly fail, when it is applied.
    */
-  private void checkForInvalidSecretSpecifications(
-      String originalConfigValue, String currentConfigValue) {
-    /*
-     * If the secret token is still partially there, then it wasn't specified correctly. For
-     * example, 'foo(' or 'foo(bar' are missing closing braces.
-     */
-    if (currentConfigValue.matches("(^|.*\\p{Punct}|.*\\s)" + identifier() + "\\(.*")) {
-      throw new InvalidSecretSpecification(originalConfigValue);
+  default SecretProcessor resolveAll(Collection<String> configValues) {
+    List<String> secrets =
+        configValues.stream()
+            .filter(Objects::nonNull)
+            .flatMap(value -> secretsIn(value).stream())
+            .distinct()
+            .collect(toList());
+    if (secrets.isEmpty()) {
+      return this;
+    }
+    List<String> values = lookup(secrets);
+    if (values.size() != secrets.size()) {
+      return this;
+    }
+    Map<String, String> resolved = new HashMap<>();
+    for (int i = 0; i < secrets.size(); i++) {
+      resolved.put(secrets.get(i), values.get(i));
+    }
+    return new ResolvedSecretProcessor(this, resolved);
+  }
+
+  private List<String> secretsIn(String configValue) {
+    try {
+      return SecretTemplate.parse(identifier(), configValue).secrets();
+    } catch (InvalidSecretSpecification e) {
+      /* This will be reported when the value is actually applied. */
+      return List.of();
     }
   }
 
   /**
-   * The identifying marker for this secret process. This will be in the configuration value as
-   * ${identifier}(token), e.g. aws-secret(/dvp/qa/wow/neat).
+   * A processor with secrets that have already been looked up. Secrets that were not previously
+   * resolved are looked up with the original processor.
    */
-  String identifier();
+  class ResolvedSecretProcessor implements SecretProcessor {
+    private final SecretProcessor delegate;
 
-  List<String> lookup(List<String> secrets);
+    private final Map<String, String> resolved;
+
+    ResolvedSecretProcessor(SecretProcessor delegate, Map<String, String> resolved) {
+      this.delegate = delegate;
+      this.resolved = resolved;
+    }
+
+    @Override
+    public String identifier() {
+      return delegate.identifier();
+    }
+
+    @Override
+    public List<String> lookup(List<String> secrets) {
+      if (!resolved.keySet().containsAll(secrets)) {
+        return delegate.lookup(secrets);
+      }
+      return secrets.stream().map(resolved::get).collect(toList());
+    }
+  }
 
   /** The secret is not of a valid format. */
   class InvalidSecretSpecification extends RuntimeException {
@@ -0,0 +1,139 @@
+package gov.va.api.lighthouse.callculon;
+
+import gov.va.api.lighthouse.callculon.SecretProcessor.InvalidSecretSpecification;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.Value;
+
+/**
+ * A configuration value parsed into literal text and secret names. Values are parsed in a single
+ * pass and the result is cached, since the same configuration values are processed on every warm
+ * invocation. See {@link SecretProcessor#apply(String)} for the secret token syntax.
+ */
+final class SecretTemplate {
+
+  private static final int MAX_CACHED_TEMPLATES = 1024;
+
+  private static final Map<Key, SecretTemplate> CACHE = new ConcurrentHashMap<>();
+
+  /** There is always one more literal than secret, literals may be empty. */
+  private final String[] literals;
+
+  private final List<String> secrets;
+
+  private final int literalLength;
+
+  private SecretTemplate(List<String> literals, List<String> secrets) {
+    this.literals = literals.toArray(new String[0]);
+    this.secrets = List.copyOf(secrets);
+    int length = 0;
+    for (String literal : this.literals) {
+      length += literal.length();
+    }
+    this.literalLength = length;
+  }
+
+  /** Secret tokens must start at the beginning of the value or after punctuation or whitespace. */
+  private static boolean isBoundary(String value, int index) {
+    return index == 0 || isPunctuation(value.charAt(index - 1)) || isSpace(value.charAt(index - 1));
+  }
+
+  /** Same as the regular expression {@code \p{Punct}}. */
+  private static boolean isPunctuation(char c) {
+    return (c >= '!' && c <= '/')
+        || (c >= ':' && c <= '@')
+        || (c >= '[' && c <= '`')
+        || (c >= '{' && c <= '~');
+  }
+
+  /** Same as the regular expression {@code \s}. */
+  private static boolean isSpace(char c) {
+    return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+  }
+
+  /** Parse the value, reusing a previously parsed template if available. */
+  static SecretTemplate parse(String identifier, String value) {
+    Key key = new Key(identifier, value);
+    SecretTemplate template = CACHE.get(key);
+    if (template == null) {
+      template = parseUncached(identifier, value);
+      if (CACHE.size() >= MAX_CACHED_TEMPLATES) {
+        CACHE.clear();
+      }
+      CACHE.put(key, template);
+    }
+    return template;
+  }
+
+  /**
+   * Walk the value once, looking for `identifier(` on a word break. A token that starts on a word
+   * break but is not properly closed is an invalid secret specification.
+   */
+  static SecretTemplate parseUncached(String identifier, String value) {
+    String opening = identifier + "(";
+    List<String> literals = new ArrayList<>();
+    List<String> secrets = new ArrayList<>();
+    int literalStart = 0;
+    int tokenStart = value.indexOf(opening);
+    while (tokenStart >= 0) {
+      if (!isBoundary(value, tokenStart)) {
+        tokenStart = value.indexOf(opening, tokenStart + 1);
+        continue;
+      }
+      int nameStart = skipSpaces(value, tokenStart + opening.length());
+      int nameEnd = nameStart;
+      int closing = -1;
+      /* The name is the shortest run of non-whitespace followed by optional spaces and a ')' */
+      while (closing < 0 && nameEnd < value.length() && !isSpace(value.charAt(nameEnd))) {
+        nameEnd++;
+        int next = skipSpaces(value, nameEnd);
+        if (next < value.length() && value.charAt(next) == ')') {
+          closing = next;
+        }
+      }
+      if (closing < 0) {
+        throw new InvalidSecretSpecification(value);
+      }
+      literals.add(value.substring(literalStart, tokenStart));
+      secrets.add(value.substring(nameStart, nameEnd));
+      literalStart = closing + 1;
+      tokenStart = value.indexOf(opening, literalStart);
+    }
+    literals.add(value.substring(literalStart));
+    return new SecretTemplate(literals, secrets);
+  }
+
+  private static int skipSpaces(String value, int index) {
+    int i = index;
+    while (i < value.length() && isSpace(value.charAt(i))) {
+      i++;
+    }
+    return i;
+  }
+
+  /** Substitute the values, which must be in the same order as the secrets. */
+  String render(List<String> values) {
+    int length = literalLength;
+    for (String value : values) {
+      length += value.length();
+    }
+    StringBuilder result = new StringBuilder(length);
+    for (int i = 0; i < secrets.size(); i++) {
+      result.append(literals[i]).append(values.get(i));
+    }
+    return result.append(literals[secrets.size()]).toString();
+  }
+
+  /** The secret names in the order they appear. The same secret may appear more than once. */
+  List<String> secrets() {
+    return secrets;
+  }
+
+  @Value
+  private static class Key {
+    String identifier;
+    String value;
+  }
+}
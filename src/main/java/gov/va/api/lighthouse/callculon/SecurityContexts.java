@@ -4,8 +4,11 @@ import java.security.cert.CertificateException;
 import java.security.cert.CertificateExpiredException;
 import java.security.cert.CertificateNotYetValidException;
 import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.Map;
 import java.util.Optional;
 import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSessionContext;
 import javax.net.ssl.TrustManager;
 import javax.net.ssl.X509TrustManager;
 import lombok.SneakyThrows;
@@ -13,12 +16,31 @@ import lombok.SneakyThrows;
 /** Defines TLS. */
 public class SecurityContexts {
 
+  public static final String OPTION_TLS_SESSION_CACHE_SIZE = "CALLCULON_TLS_SESSION_CACHE_SIZE";
+
+  public static final String OPTION_TLS_SESSION_TIMEOUT = "CALLCULON_TLS_SESSION_TIMEOUT";
+
   /**
-   * Provide an SSL context that will accept the VA certs that can get in the way of the load
-   * balancer.
+   * Create a relaxed context that keeps TLS sessions so later connections to the same host can
+   * resume them instead of doing a full handshake. Handshakes are counted by {@link TlsHandshakes}.
+   *
+   * <pre>
+   * CALLCULON_TLS_SESSION_CACHE_SIZE = Integer (100)
+   * CALLCULON_TLS_SESSION_TIMEOUT = ISO 8601 Duration (PT1H)
+   * </pre>
    */
+  static SSLContext createRelaxed(Map<String, String> env) {
+    SSLContext sc = createRelaxed();
+    SSLSessionContext sessions = sc.getClientSessionContext();
+    sessions.setSessionCacheSize(
+        Integer.parseInt(env.getOrDefault(OPTION_TLS_SESSION_CACHE_SIZE, "100")));
+    sessions.setSessionTimeout(
+        (int) Duration.parse(env.getOrDefault(OPTION_TLS_SESSION_TIMEOUT, "PT1H")).toSeconds());
+    return TlsHandshakes.counting(sc);
+  }
+
   @SneakyThrows
-  public static SSLContext relaxed() {
+  private static SSLContext createRelaxed() {
     TrustManager[] trustAllCerts =
         new TrustManager[] {
           new X509TrustManager() {
@@ -53,4 +75,19 @@ public class SecurityContexts {
     return sc;
     // HttpsURLConnection.setDefaultSSLSocketFactory(sc.getSocketFactory());
   }
+
+  /**
+   * Provide an SSL context that will accept the VA certs that can get in the way of the load
+   * balancer. The context is created on first use, configured from environment variables, and
+   * shared by every client in the container so TLS sessions can be resumed.
+   */
+  public static SSLContext relaxed() {
+    return Relaxed.INSTANCE;
+  }
+
+  /** Lazily created on first use. */
+  private static final class Relaxed {
+    private static final SSLContext INSTANCE =
+        StartupTimings.shared().time("sslContext", () -> createRelaxed(System.getenv()));
+  }
 }
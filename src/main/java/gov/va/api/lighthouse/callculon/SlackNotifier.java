@@ -2,19 +2,23 @@ package gov.va.api.lighthouse.callculon;
 
 import static java.util.Map.entry;
 
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
 import gov.va.api.lighthouse.callculon.CallculonConfiguration.Deployment;
 import gov.va.api.lighthouse.callculon.CallculonConfiguration.Slack;
 import java.io.IOException;
+import java.net.URI;
 import java.net.URL;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpRequest.BodyPublishers;
 import java.net.http.HttpResponse;
 import java.net.http.HttpResponse.BodyHandlers;
 import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import lombok.Builder;
 import lombok.SneakyThrows;
@@ -22,29 +26,48 @@ import lombok.SneakyThrows;
 /** A Notifier for sending notifications to Slack. */
 public class SlackNotifier implements Notifier {
 
+  private static final int MAX_BODY_LENGTH = 500;
+
+  /**
+   * Slack allows about one message per second per webhook, with short bursts. Buckets live as long
+   * as the container so the limit holds across warm invocations.
+   */
+  private static final Map<String, TokenBucket> WEBHOOK_BUCKETS = new ConcurrentHashMap<>();
+
+  private static final int WEBHOOK_BURST = 5;
+
+  private static final Duration WEBHOOK_RATE = Duration.ofSeconds(1);
+
+  private static final Duration MAX_RATE_LIMIT_WAIT = Duration.ofSeconds(3);
+
+  private static final Duration DEFAULT_RETRY_AFTER = Duration.ofSeconds(30);
+
   private final Function<HttpRequest, HttpResponse<String>> invoker;
 
+  private final NotificationOutbox outbox;
+
   /**
    * Create a new instance, optionally specifying an invoker to process the HTTP request. This
-   * exists to make testing easier. If no invoker is specified, a default HTTP client will be
-   * created and used.
+   * exists to make testing easier. If no invoker is specified, the HTTP client shared with the
+   * handler is used so connections to Slack are reused across notifications and invocations.
+   * Messages that could not be posted are kept in the outbox, if specified, to be redelivered
+   * later. Without an outbox, they are lost.
    */
   @Builder
-  public SlackNotifier(Function<HttpRequest, HttpResponse<String>> invoker) {
+  public SlackNotifier(
+      Function<HttpRequest, HttpResponse<String>> invoker, NotificationOutbox outbox) {
     this.invoker = invoker == null ? SlackNotifier::defaultInvoker : invoker;
+    this.outbox = outbox;
   }
 
-  /** Create a default instance. */
+  /** Create a default instance that keeps undelivered messages in the shared outbox. */
   public static SlackNotifier defaultInstance() {
-    return SlackNotifier.builder().build();
+    return SlackNotifier.builder().outbox(NotificationOutbox.shared()).build();
   }
 
   private static HttpResponse<String> defaultInvoker(HttpRequest request) {
     try {
-      return HttpClient.newBuilder()
-          .sslContext(SecurityContexts.relaxed())
-          .build()
-          .send(request, BodyHandlers.ofString());
+      return HttpClients.relaxed().send(request, BodyHandlers.ofString());
     } catch (InterruptedException | IOException e) {
       throw new NotificationFailure(e);
     }
@@ -84,6 +107,39 @@ public class SlackNotifier implements Notifier {
     return emojis.get(index);
   }
 
+  /** The failure message for Slack, without sending it. */
+  String failureMessage(NotificationContext ctx) {
+    return MrGarveyTheSubstitute.builder()
+        .resource("/slack-failure-message-template.json")
+        .substitutions(
+            Map.of(
+                "environment", deployment(ctx).getEnvironment(),
+                "channel", slack(ctx).getChannel(),
+                "name", ctx.getConfig().getName(),
+                "url", ctx.getUrl(),
+                "statusCode", String.valueOf(ctx.getStatusCode()),
+                "note", failureNote(ctx),
+                "product", deployment(ctx).getProduct(),
+                "version", deployment(ctx).getVersion(),
+                "cron", asterisks(deployment(ctx).getCron()),
+                "deploymentId", deployment(ctx).getId()))
+        .build()
+        .rollCall();
+  }
+
+  /**
+   * The note, or status if there is no note, followed by the start of the body if it was captured.
+   * Slack limits the length of context text, so only the first few hundred characters are shown.
+   */
+  private String failureNote(NotificationContext ctx) {
+    String note = ctx.getNote().orElse("HTTP status " + ctx.getStatusCode());
+    return ctx.getBody()
+        .filter(body -> !body.isBlank())
+        .map(body -> body.length() > MAX_BODY_LENGTH ? body.substring(0, MAX_BODY_LENGTH) : body)
+        .map(body -> note + "\n```" + body.replace("```", "'''") + "```")
+        .orElse(note);
+  }
+
   private String nice(int randomInt) {
     List<String> messages =
         List.of(
@@ -116,21 +172,30 @@ public class SlackNotifier implements Notifier {
     if (!slack(ctx).isOnFailure()) {
       return;
     }
+    post(ctx, failureMessage(ctx));
+  }
+
+  /** Let channels that were told about failures know the call works again. */
+  @Override
+  public void onRecovery(NotificationContext ctx, int failures) {
+    if (!slack(ctx).isOnFailure() && !slack(ctx).isOnSuccess()) {
+      return;
+    }
     String message =
         MrGarveyTheSubstitute.builder()
-            .resource("/slack-failure-message-template.json")
+            .resource("/slack-recovered-message-template.json")
             .substitutions(
-                Map.of(
-                    "environment", deployment(ctx).getEnvironment(),
-                    "channel", slack(ctx).getChannel(),
-                    "name", ctx.getConfig().getName(),
-                    "url", ctx.getUrl(),
-                    "statusCode", String.valueOf(ctx.getStatusCode()),
-                    "note", ctx.getNote().orElse("HTTP status " + ctx.getStatusCode()),
-                    "product", deployment(ctx).getProduct(),
-                    "version", deployment(ctx).getVersion(),
-                    "cron", asterisks(deployment(ctx).getCron()),
-                    "deploymentId", deployment(ctx).getId()))
+                Map.ofEntries(
+                    entry("environment", deployment(ctx).getEnvironment()),
+                    entry("channel", slack(ctx).getChannel()),
+                    entry("name", ctx.getConfig().getName()),
+                    entry("url", ctx.getUrl()),
+                    entry("statusCode", String.valueOf(ctx.getStatusCode())),
+                    entry("failures", String.valueOf(failures)),
+                    entry("product", deployment(ctx).getProduct()),
+                    entry("version", deployment(ctx).getVersion()),
+                    entry("cron", asterisks(deployment(ctx).getCron())),
+                    entry("deploymentId", deployment(ctx).getId())))
             .build()
             .rollCall();
     post(ctx, message);
@@ -163,16 +228,141 @@ public class SlackNotifier implements Notifier {
     post(ctx, message);
   }
 
-  @SneakyThrows
+  /** Slow calls are a problem, so channels that are told about failures are warned. */
+  @Override
+  public void onWarning(NotificationContext ctx) {
+    if (!slack(ctx).isOnFailure()) {
+      return;
+    }
+    String message =
+        MrGarveyTheSubstitute.builder()
+            .resource("/slack-warning-message-template.json")
+            .substitutions(
+                Map.ofEntries(
+                    entry("environment", deployment(ctx).getEnvironment()),
+                    entry("channel", slack(ctx).getChannel()),
+                    entry("name", ctx.getConfig().getName()),
+                    entry("url", ctx.getUrl()),
+                    entry("statusCode", String.valueOf(ctx.getStatusCode())),
+                    entry("note", failureNote(ctx)),
+                    entry("product", deployment(ctx).getProduct()),
+                    entry("version", deployment(ctx).getVersion()),
+                    entry("cron", asterisks(deployment(ctx).getCron())),
+                    entry("deploymentId", deployment(ctx).getId())))
+            .build()
+            .rollCall();
+    post(ctx, message);
+  }
+
   private void post(NotificationContext ctx, String message) {
-    ctx.getLogger().log("Notifying Slack channel " + slack(ctx).getChannel());
+    post(
+        slack(ctx).getChannel(),
+        slack(ctx).getWebhook(),
+        ctx.getSecretProcessor(),
+        ctx.getLogger(),
+        message);
+  }
+
+  /**
+   * Post a message to a channel, subject to the webhook's rate limit. If the message could be
+   * delivered later, e.g. Slack was unavailable or asked us to slow down, it is kept in the outbox
+   * and NotificationQueued is thrown. The webhook is kept as given, so secrets are only resolved
+   * when sending.
+   */
+  void post(
+      String channel,
+      String webhook,
+      SecretProcessor secrets,
+      LambdaLogger logger,
+      String message) {
+    try {
+      send(channel, secrets.apply(webhook), logger, message);
+    } catch (Undeliverable e) {
+      throw e;
+    } catch (NotificationFailure e) {
+      if (outbox != null) {
+        outbox.add(
+            NotificationOutbox.Entry.builder()
+                .created(Instant.now())
+                .channel(channel)
+                .webhook(webhook)
+                .message(message)
+                .build());
+        logger.log("Saved notification to Slack channel " + channel + " for redelivery");
+        throw new NotificationQueued(e.getMessage());
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Try again to post the messages in the outbox. Messages that still fail for any reason, e.g.
+   * the webhook secret could not be looked up, are kept. Only messages Slack rejected are dropped.
+   */
+  @Override
+  public void redeliver(SecretProcessor secrets, LambdaLogger logger) {
+    if (outbox == null) {
+      return;
+    }
+    List<NotificationOutbox.Entry> entries = outbox.drain();
+    int delivered = 0;
+    for (NotificationOutbox.Entry entry : entries) {
+      try {
+        send(entry.channel(), secrets.apply(entry.webhook()), logger, entry.message());
+        delivered++;
+      } catch (Undeliverable e) {
+        logger.log("Dropping notification to Slack channel " + entry.channel() + ": " + e);
+      } catch (Exception e) {
+        logger.log("Keeping notification to Slack channel " + entry.channel() + ": " + e);
+        outbox.add(entry);
+      }
+    }
+    logger.log("Redelivered " + delivered + " of " + entries.size() + " Slack notifications");
+  }
+
+  /** Slack sends the number of seconds to wait in the Retry-After header. */
+  private Duration retryAfter(HttpResponse<String> response) {
+    try {
+      return response
+          .headers()
+          .firstValue("Retry-After")
+          .map(String::trim)
+          .map(Long::parseLong)
+          .map(Duration::ofSeconds)
+          .orElse(DEFAULT_RETRY_AFTER);
+    } catch (NumberFormatException e) {
+      return DEFAULT_RETRY_AFTER;
+    }
+  }
+
+  /**
+   * Post a message to a channel, subject to the webhook's rate limit. Secrets in the webhook must
+   * already be resolved. Rejected messages fail with Undeliverable.
+   */
+  @SneakyThrows
+  private void send(String channel, String resolvedWebhook, LambdaLogger logger, String message) {
+    logger.log("Notifying Slack channel " + channel);
+    URI webhook = new URL(resolvedWebhook).toURI();
+    TokenBucket bucket =
+        WEBHOOK_BUCKETS.computeIfAbsent(
+            webhook.toString(),
+            w -> new TokenBucket(WEBHOOK_BURST, WEBHOOK_RATE, System::nanoTime));
+    if (!bucket.acquire(MAX_RATE_LIMIT_WAIT)) {
+      throw new NotificationFailure("Rate limited, not notifying Slack channel " + channel);
+    }
     HttpResponse<String> response =
         invoker.apply(
-            HttpRequest.newBuilder()
-                .uri(new URL(ctx.getSecretProcessor().apply(slack(ctx).getWebhook())).toURI())
-                .POST(BodyPublishers.ofString(message))
-                .build());
+            HttpRequest.newBuilder().uri(webhook).POST(BodyPublishers.ofString(message)).build());
 
+    if (response.statusCode() == 429) {
+      Duration retryAfter = retryAfter(response);
+      bucket.pause(retryAfter);
+      throw new NotificationFailure(
+          "Rate limited by Slack, retry after " + retryAfter.toSeconds() + " seconds");
+    }
+    if (response.statusCode() >= 400 && response.statusCode() < 500) {
+      throw new Undeliverable("Status: " + response.statusCode() + ": " + response.body());
+    }
     if (response.statusCode() != 200) {
       throw new NotificationFailure("Status: " + response.statusCode() + ": " + response.body());
     }
@@ -182,4 +372,11 @@ public class SlackNotifier implements Notifier {
     Slack slack = ctx.getConfig().getNotification().getSlack();
     return slack == null ? Slack.builder().onFailure(false).onSuccess(false).build() : slack;
   }
+
+  /** Slack rejected the message itself, so sending it again will not help. */
+  private static class Undeliverable extends NotificationFailure {
+    Undeliverable(String message) {
+      super(message);
+    }
+  }
 }
@@ -0,0 +1,73 @@
+package gov.va.api.lighthouse.callculon;
+
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Where a cold start spends its time. Expensive one-off work, e.g. creating the SSM client, is
+ * recorded here when it happens, and everything recorded is logged once per container as a
+ * `Startup key=value ...` line at the end of the first invocation, for CloudWatch Logs Insights.
+ * Only the first value recorded for a key is kept.
+ */
+final class StartupTimings {
+
+  private static final StartupTimings SHARED = new StartupTimings();
+
+  private final Map<String, Long> timings = new LinkedHashMap<>();
+
+  private boolean logged;
+
+  /** The timings for this container. */
+  static StartupTimings shared() {
+    return SHARED;
+  }
+
+  /**
+   * Log everything recorded so far, along with how long the first invocation took and how long it
+   * has been since the process started, unless this has already been done.
+   */
+  void logOnce(LambdaLogger logger, Duration firstInvocation) {
+    String line;
+    synchronized (this) {
+      if (logged) {
+        return;
+      }
+      logged = true;
+      timings.putIfAbsent("firstInvocationMillis", firstInvocation.toMillis());
+      ProcessHandle.current()
+          .info()
+          .startInstant()
+          .ifPresent(
+              start ->
+                  timings.putIfAbsent(
+                      "processMillis", Duration.between(start, Instant.now()).toMillis()));
+      StringBuilder out = new StringBuilder("Startup");
+      timings.forEach((key, value) -> out.append(' ').append(key).append('=').append(value));
+      line = out.toString();
+    }
+    logger.log(line);
+  }
+
+  /** Record a value, such as a count, unless one has already been recorded for the key. */
+  synchronized void record(String key, long value) {
+    timings.putIfAbsent(key, value);
+  }
+
+  /** Record how long something has taken, in milliseconds, as `${name}Millis`. */
+  void recordSince(String name, long startNanos) {
+    record(name + "Millis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+  }
+
+  /** Create something and record how long it took as `${name}Millis`. */
+  <T> T time(String name, Supplier<T> factory) {
+    long start = System.nanoTime();
+    T value = factory.get();
+    recordSince(name, start);
+    return value;
+  }
+}
@@ -0,0 +1,160 @@
+package gov.va.api.lighthouse.callculon;
+
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.Builder;
+import lombok.NonNull;
+
+/**
+ * Keeps a failing timer from flooding its channels. The first failure for a deployment is passed
+ * on, repeats within the window are counted but suppressed, and the first failure after the window
+ * is passed on with the number suppressed. The first success after failures is passed on as a
+ * recovery. State is kept per deployment ID for the life of the container, so suppression holds
+ * across warm invocations. Deployments without an ID are never suppressed.
+ */
+public class SuppressingNotifier implements Notifier {
+
+  public static final String OPTION_SUPPRESSION_WINDOW = "CALLCULON_SUPPRESSION_WINDOW";
+
+  private static final Map<String, Storm> STORMS = new ConcurrentHashMap<>();
+
+  private final Notifier delegate;
+
+  private final Duration window;
+
+  /** Create a new instance, using the window from environment variables if not specified. */
+  @Builder
+  public SuppressingNotifier(@NonNull Notifier delegate, Duration window) {
+    this.delegate = delegate;
+    this.window = window == null ? windowFromEnvironmentVariables(System.getenv()) : window;
+  }
+
+  /**
+   * Read the suppression window from a given environment map.
+   *
+   * <pre>
+   * CALLCULON_SUPPRESSION_WINDOW = ISO 8601 Duration (PT30M)
+   * </pre>
+   */
+  public static Duration windowFromEnvironmentVariables(Map<String, String> env) {
+    return Duration.parse(env.getOrDefault(OPTION_SUPPRESSION_WINDOW, "PT30M"));
+  }
+
+  private Optional<String> deploymentId(NotificationContext ctx) {
+    return Optional.ofNullable(ctx.getConfig().getDeployment())
+        .map(CallculonConfiguration.Deployment::getId);
+  }
+
+  @Override
+  public void flush(LambdaLogger logger) {
+    delegate.flush(logger);
+  }
+
+  @Override
+  public void flushDue(LambdaLogger logger) {
+    delegate.flushDue(logger);
+  }
+
+  @Override
+  public void onFailure(NotificationContext ctx) {
+    Optional<String> id = deploymentId(ctx);
+    if (id.isEmpty()) {
+      delegate.onFailure(ctx);
+      return;
+    }
+    Storm storm = STORMS.computeIfAbsent(id.get(), k -> new Storm());
+    int suppressed;
+    synchronized (storm) {
+      storm.failures++;
+      long now = System.nanoTime();
+      if (storm.notified && now - storm.lastNotifiedNanos < window.toNanos()) {
+        storm.suppressed++;
+        ctx.getLogger()
+            .log("Suppressed failure notification, " + storm.suppressed + " since the last one");
+        return;
+      }
+      suppressed = storm.suppressed;
+      storm.suppressed = 0;
+      storm.notified = true;
+      storm.lastNotifiedNanos = now;
+    }
+    try {
+      delegate.onFailure(suppressed == 0 ? ctx : withSuppressedCount(ctx, suppressed));
+    } catch (NotificationQueued e) {
+      /* Everyone will be told when it is redelivered, so this still counts as notified. */
+      throw e;
+    } catch (RuntimeException e) {
+      /* Nobody was told, so the next failure should not be suppressed. */
+      synchronized (storm) {
+        storm.notified = false;
+        storm.suppressed += suppressed;
+      }
+      throw e;
+    }
+  }
+
+  @Override
+  public void onRecovery(NotificationContext ctx, int failures) {
+    delegate.onRecovery(ctx, failures);
+  }
+
+  @Override
+  public void onSuccess(NotificationContext ctx) {
+    if (!recovered(ctx)) {
+      delegate.onSuccess(ctx);
+    }
+  }
+
+  /** A slow call after failures is still a recovery. */
+  @Override
+  public void onWarning(NotificationContext ctx) {
+    if (!recovered(ctx)) {
+      delegate.onWarning(ctx);
+    }
+  }
+
+  /** End the storm of failures for the deployment, if there is one, and notify the recovery. */
+  private boolean recovered(NotificationContext ctx) {
+    Storm storm = deploymentId(ctx).map(STORMS::remove).orElse(null);
+    if (storm == null) {
+      return false;
+    }
+    int failures;
+    synchronized (storm) {
+      failures = storm.failures;
+    }
+    delegate.onRecovery(ctx, failures);
+    return true;
+  }
+
+  @Override
+  public void redeliver(SecretProcessor secretProcessor, LambdaLogger logger) {
+    delegate.redeliver(secretProcessor, logger);
+  }
+
+  private NotificationContext withSuppressedCount(NotificationContext ctx, int suppressed) {
+    String note = ctx.getNote().orElse("HTTP status " + ctx.getStatusCode());
+    return ctx.toBuilder()
+        .note(
+            Optional.of(
+                note
+                    + " ("
+                    + suppressed
+                    + " more failure(s) since the last notification were not reported)"))
+        .build();
+  }
+
+  /** Failures since the last success for a deployment. Guarded by its own lock. */
+  private static final class Storm {
+    private int failures;
+
+    private int suppressed;
+
+    private boolean notified;
+
+    private long lastNotifiedNanos;
+  }
+}
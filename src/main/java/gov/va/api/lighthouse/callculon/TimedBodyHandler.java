@@ -0,0 +1,39 @@
+package gov.va.api.lighthouse.callculon;
+
+import java.net.http.HttpResponse.BodyHandler;
+import java.net.http.HttpResponse.BodySubscriber;
+import java.net.http.HttpResponse.ResponseInfo;
+
+/**
+ * Wraps a body handler to record when the response status and headers arrived. The HTTP client
+ * does not expose connection level timings, so this separates the time spent waiting for the
+ * server to start responding from the time spent reading the body.
+ */
+final class TimedBodyHandler<T> implements BodyHandler<T> {
+
+  private final BodyHandler<T> delegate;
+
+  private volatile long headersNanos;
+
+  private volatile boolean headersReceived;
+
+  private TimedBodyHandler(BodyHandler<T> delegate) {
+    this.delegate = delegate;
+  }
+
+  static <T> TimedBodyHandler<T> of(BodyHandler<T> delegate) {
+    return new TimedBodyHandler<>(delegate);
+  }
+
+  @Override
+  public BodySubscriber<T> apply(ResponseInfo responseInfo) {
+    headersNanos = System.nanoTime();
+    headersReceived = true;
+    return delegate.apply(responseInfo);
+  }
+
+  /** The System.nanoTime when headers were received, or the given default if they never were. */
+  long headersNanosOr(long defaultNanos) {
+    return headersReceived ? headersNanos : defaultNanos;
+  }
+}
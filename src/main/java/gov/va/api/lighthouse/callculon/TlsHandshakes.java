@@ -0,0 +1,296 @@
+package gov.va.api.lighthouse.callculon;
+
+import java.nio.ByteBuffer;
+import java.security.KeyManagementException;
+import java.security.SecureRandom;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import javax.net.ssl.KeyManager;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLContextSpi;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult;
+import javax.net.ssl.SSLEngineResult.HandshakeStatus;
+import javax.net.ssl.SSLException;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLServerSocketFactory;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.SSLSocketFactory;
+import javax.net.ssl.TrustManager;
+
+/**
+ * Counts the TLS handshakes made through contexts it wraps, telling full handshakes apart from
+ * resumed sessions, so session reuse can be verified from the logs. A handshake is counted as
+ * resumed when the session it ends with was created before the connection was opened. Counts are
+ * kept for the life of the container.
+ */
+public final class TlsHandshakes {
+
+  private static final AtomicLong FULL = new AtomicLong();
+
+  private static final AtomicLong RESUMED = new AtomicLong();
+
+  private TlsHandshakes() {}
+
+  /** Count the handshakes of every engine the context creates. */
+  static SSLContext counting(SSLContext delegate) {
+    return new SSLContext(
+        new CountingContextSpi(delegate), delegate.getProvider(), delegate.getProtocol()) {};
+  }
+
+  /** Handshakes that negotiated a new session. */
+  public static long full() {
+    return FULL.get();
+  }
+
+  /** Handshakes that resumed an earlier session. */
+  public static long resumed() {
+    return RESUMED.get();
+  }
+
+  /** A summary for logging, e.g. `TLS handshakes full=2 resumed=5`. */
+  public static String statistics() {
+    return "TLS handshakes full=" + FULL.get() + " resumed=" + RESUMED.get();
+  }
+
+  private static final class CountingContextSpi extends SSLContextSpi {
+    private final SSLContext delegate;
+
+    CountingContextSpi(SSLContext delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    protected SSLEngine engineCreateSSLEngine() {
+      return new CountingEngine(delegate.createSSLEngine());
+    }
+
+    @Override
+    protected SSLEngine engineCreateSSLEngine(String host, int port) {
+      return new CountingEngine(delegate.createSSLEngine(host, port));
+    }
+
+    @Override
+    protected SSLSessionContext engineGetClientSessionContext() {
+      return delegate.getClientSessionContext();
+    }
+
+    @Override
+    protected SSLParameters engineGetDefaultSSLParameters() {
+      return delegate.getDefaultSSLParameters();
+    }
+
+    @Override
+    protected SSLSessionContext engineGetServerSessionContext() {
+      return delegate.getServerSessionContext();
+    }
+
+    @Override
+    protected SSLServerSocketFactory engineGetServerSocketFactory() {
+      return delegate.getServerSocketFactory();
+    }
+
+    @Override
+    protected SSLSocketFactory engineGetSocketFactory() {
+      return delegate.getSocketFactory();
+    }
+
+    @Override
+    protected SSLParameters engineGetSupportedSSLParameters() {
+      return delegate.getSupportedSSLParameters();
+    }
+
+    @Override
+    protected void engineInit(KeyManager[] km, TrustManager[] tm, SecureRandom sr)
+        throws KeyManagementException {
+      delegate.init(km, tm, sr);
+    }
+  }
+
+  /** Passes everything to the delegate, watching for the end of the first handshake. */
+  private static final class CountingEngine extends SSLEngine {
+    private final SSLEngine delegate;
+
+    private final long createdMillis = System.currentTimeMillis();
+
+    private volatile boolean counted;
+
+    CountingEngine(SSLEngine delegate) {
+      super(delegate.getPeerHost(), delegate.getPeerPort());
+      this.delegate = delegate;
+    }
+
+    @Override
+    public void beginHandshake() throws SSLException {
+      delegate.beginHandshake();
+    }
+
+    @Override
+    public void closeInbound() throws SSLException {
+      delegate.closeInbound();
+    }
+
+    @Override
+    public void closeOutbound() {
+      delegate.closeOutbound();
+    }
+
+    private SSLEngineResult count(SSLEngineResult result) {
+      if (!counted && result.getHandshakeStatus() == HandshakeStatus.FINISHED) {
+        counted = true;
+        SSLSession session = delegate.getSession();
+        if (session.getCreationTime() < createdMillis) {
+          RESUMED.incrementAndGet();
+        } else {
+          FULL.incrementAndGet();
+        }
+      }
+      return result;
+    }
+
+    @Override
+    public String getApplicationProtocol() {
+      return delegate.getApplicationProtocol();
+    }
+
+    @Override
+    public Runnable getDelegatedTask() {
+      return delegate.getDelegatedTask();
+    }
+
+    @Override
+    public boolean getEnableSessionCreation() {
+      return delegate.getEnableSessionCreation();
+    }
+
+    @Override
+    public String[] getEnabledCipherSuites() {
+      return delegate.getEnabledCipherSuites();
+    }
+
+    @Override
+    public String[] getEnabledProtocols() {
+      return delegate.getEnabledProtocols();
+    }
+
+    @Override
+    public String getHandshakeApplicationProtocol() {
+      return delegate.getHandshakeApplicationProtocol();
+    }
+
+    @Override
+    public BiFunction<SSLEngine, List<String>, String> getHandshakeApplicationProtocolSelector() {
+      return delegate.getHandshakeApplicationProtocolSelector();
+    }
+
+    @Override
+    public SSLSession getHandshakeSession() {
+      return delegate.getHandshakeSession();
+    }
+
+    @Override
+    public HandshakeStatus getHandshakeStatus() {
+      return delegate.getHandshakeStatus();
+    }
+
+    @Override
+    public boolean getNeedClientAuth() {
+      return delegate.getNeedClientAuth();
+    }
+
+    @Override
+    public SSLParameters getSSLParameters() {
+      return delegate.getSSLParameters();
+    }
+
+    @Override
+    public SSLSession getSession() {
+      return delegate.getSession();
+    }
+
+    @Override
+    public String[] getSupportedCipherSuites() {
+      return delegate.getSupportedCipherSuites();
+    }
+
+    @Override
+    public String[] getSupportedProtocols() {
+      return delegate.getSupportedProtocols();
+    }
+
+    @Override
+    public boolean getUseClientMode() {
+      return delegate.getUseClientMode();
+    }
+
+    @Override
+    public boolean getWantClientAuth() {
+      return delegate.getWantClientAuth();
+    }
+
+    @Override
+    public boolean isInboundDone() {
+      return delegate.isInboundDone();
+    }
+
+    @Override
+    public boolean isOutboundDone() {
+      return delegate.isOutboundDone();
+    }
+
+    @Override
+    public void setEnableSessionCreation(boolean flag) {
+      delegate.setEnableSessionCreation(flag);
+    }
+
+    @Override
+    public void setEnabledCipherSuites(String[] suites) {
+      delegate.setEnabledCipherSuites(suites);
+    }
+
+    @Override
+    public void setEnabledProtocols(String[] protocols) {
+      delegate.setEnabledProtocols(protocols);
+    }
+
+    @Override
+    public void setHandshakeApplicationProtocolSelector(
+        BiFunction<SSLEngine, List<String>, String> selector) {
+      delegate.setHandshakeApplicationProtocolSelector(selector);
+    }
+
+    @Override
+    public void setNeedClientAuth(boolean need) {
+      delegate.setNeedClientAuth(need);
+    }
+
+    @Override
+    public void setSSLParameters(SSLParameters params) {
+      delegate.setSSLParameters(params);
+    }
+
+    @Override
+    public void setUseClientMode(boolean mode) {
+      delegate.setUseClientMode(mode);
+    }
+
+    @Override
+    public void setWantClientAuth(boolean want) {
+      delegate.setWantClientAuth(want);
+    }
+
+    @Override
+    public SSLEngineResult unwrap(ByteBuffer src, ByteBuffer[] dsts, int offset, int length)
+        throws SSLException {
+      return count(delegate.unwrap(src, dsts, offset, length));
+    }
+
+    @Override
+    public SSLEngineResult wrap(ByteBuffer[] srcs, int offset, int length, ByteBuffer dst)
+        throws SSLException {
+      return count(delegate.wrap(srcs, offset, length, dst));
+    }
+  }
+}
@@ -0,0 +1,92 @@
+package gov.va.api.lighthouse.callculon;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * A token bucket rate limiter. Tokens are added at a fixed rate up to a capacity, allowing short
+ * bursts. The bucket can also be paused, e.g. when the server responds with a Retry-After header,
+ * during which no tokens are handed out at all.
+ */
+final class TokenBucket {
+
+  private final int capacity;
+
+  private final long nanosPerToken;
+
+  private final LongSupplier nanoTime;
+
+  private double tokens;
+
+  private long lastRefillNanos;
+
+  private long pausedUntilNanos;
+
+  TokenBucket(int capacity, Duration perToken, LongSupplier nanoTime) {
+    this.capacity = capacity;
+    this.nanosPerToken = perToken.toNanos();
+    this.nanoTime = nanoTime;
+    this.tokens = capacity;
+    this.lastRefillNanos = nanoTime.getAsLong();
+    this.pausedUntilNanos = lastRefillNanos;
+  }
+
+  /**
+   * Take a token, waiting up to the given time for one to become available. Returns false without
+   * waiting if a token would not be available in time.
+   */
+  boolean acquire(Duration maxWait) throws InterruptedException {
+    long deadline = nanoTime.getAsLong() + maxWait.toNanos();
+    while (!tryAcquire()) {
+      long wait = nanosUntilAvailable();
+      if (nanoTime.getAsLong() + wait > deadline) {
+        return false;
+      }
+      TimeUnit.NANOSECONDS.sleep(Math.max(wait, 1));
+    }
+    return true;
+  }
+
+  /** How long until a token can be taken. */
+  synchronized long nanosUntilAvailable() {
+    long now = nanoTime.getAsLong();
+    refill(now);
+    long untilToken = tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) * nanosPerToken);
+    return Math.max(0, pausedUntilNanos - now) + untilToken;
+  }
+
+  /**
+   * Hand out no tokens for the given time. Once it has passed, a single token is available and the
+   * bucket refills from empty.
+   */
+  synchronized void pause(Duration duration) {
+    long now = nanoTime.getAsLong();
+    refill(now);
+    pausedUntilNanos = Math.max(pausedUntilNanos, now + duration.toNanos());
+    tokens = 1;
+    lastRefillNanos = pausedUntilNanos;
+  }
+
+  private void refill(long now) {
+    if (now <= lastRefillNanos) {
+      return;
+    }
+    tokens = Math.min(capacity, tokens + (double) (now - lastRefillNanos) / nanosPerToken);
+    lastRefillNanos = now;
+  }
+
+  /** Take a token if one is available now. */
+  synchronized boolean tryAcquire() {
+    long now = nanoTime.getAsLong();
+    if (now < pausedUntilNanos) {
+      return false;
+    }
+    refill(now);
+    if (tokens < 1) {
+      return false;
+    }
+    tokens -= 1;
+    return true;
+  }
+}
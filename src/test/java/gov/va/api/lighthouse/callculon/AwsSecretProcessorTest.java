@@ -2,9 +2,12 @@ package gov.va.api.lighthouse.callculon;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.Test;
 import software.amazon.awssdk.services.ssm.model.GetParametersRequest;
 import software.amazon.awssdk.services.ssm.model.GetParametersResponse;
@@ -60,6 +63,54 @@ class AwsSecretProcessorTest {
     assertThat(result).isEqualTo("ay!I lost me eye!");
   }
 
+  @Test
+  void manySecretsAreRequestedInChunks() {
+    Map<String, String> secrets =
+        IntStream.range(0, 25)
+            .boxed()
+            .collect(Collectors.toMap(i -> "/dvp/fugazi/chunk/" + i, i -> "v" + i));
+    List<GetParametersRequest> requests = new CopyOnWriteArrayList<>();
+    var processor =
+        AwsSecretProcessor.builder()
+            .ssmInvoker(
+                request -> {
+                  requests.add(request);
+                  return mockParameters(
+                          request.names().stream()
+                              .collect(Collectors.toMap(Function.identity(), secrets::get)))
+                      .apply(request);
+                })
+            .cache(SecretCache.builder().refresher(Runnable::run).build())
+            .build();
+    List<String> names =
+        IntStream.range(0, 25).mapToObj(i -> "/dvp/fugazi/chunk/" + i).collect(Collectors.toList());
+    List<String> values = processor.lookup(names);
+    assertThat(values)
+        .containsExactlyElementsOf(
+            IntStream.range(0, 25).mapToObj(i -> "v" + i).collect(Collectors.toList()));
+    assertThat(requests).hasSize(3);
+    assertThat(requests).allSatisfy(r -> assertThat(r.names()).hasSizeLessThanOrEqualTo(10));
+  }
+
+  @Test
+  void cachedValuesAreNotRequestedAgain() {
+    List<GetParametersRequest> requests = new CopyOnWriteArrayList<>();
+    Function<GetParametersRequest, GetParametersResponse> ssm =
+        mockParameters(Map.of("/dvp/fugazi/cached", "once"));
+    var processor =
+        AwsSecretProcessor.builder()
+            .ssmInvoker(
+                request -> {
+                  requests.add(request);
+                  return ssm.apply(request);
+                })
+            .cache(SecretCache.builder().refresher(Runnable::run).build())
+            .build();
+    assertThat(processor.apply("aws-secret(/dvp/fugazi/cached)")).isEqualTo("once");
+    assertThat(processor.apply("aws-secret(/dvp/fugazi/cached)")).isEqualTo("once");
+    assertThat(requests).hasSize(1);
+  }
+
   @Test
   void defaultInstanceReturnsReadyToUseProcessor() {
     assertThat(AwsSecretProcessor.defaultInstance()).isNotNull();
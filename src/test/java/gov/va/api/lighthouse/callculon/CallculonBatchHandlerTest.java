@@ -0,0 +1,129 @@
+package gov.va.api.lighthouse.callculon;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import gov.va.api.lighthouse.callculon.CallculonBatchHandler.BatchOptions;
+import gov.va.api.lighthouse.callculon.CallculonHandler.InvalidConfiguration;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class CallculonBatchHandlerTest {
+
+  @Mock Context ctx;
+  @Mock LambdaLogger logger;
+  @Mock CallculonHandler handler;
+
+  private CallculonBatchHandler batchHandler(int concurrency) {
+    return CallculonBatchHandler.builder()
+        .options(BatchOptions.builder().concurrency(concurrency).build())
+        .handler(handler)
+        .build();
+  }
+
+  @Test
+  void batchOptionsFromEnvironmentVariables() {
+    assertThat(BatchOptions.fromEnvironmentVariables(Map.of()).concurrency()).isEqualTo(16);
+    assertThat(
+            BatchOptions.fromEnvironmentVariables(
+                    Map.of(BatchOptions.OPTION_BATCH_CONCURRENCY, "3"))
+                .concurrency())
+        .isEqualTo(3);
+    assertThat(
+            BatchOptions.fromEnvironmentVariables(
+                    Map.of(BatchOptions.OPTION_BATCH_CONCURRENCY, "0"))
+                .concurrency())
+        .isEqualTo(1);
+  }
+
+  private CallculonConfiguration config(String name) {
+    return CallculonConfiguration.builder().name(name).build();
+  }
+
+  @Test
+  void configurationsAreProcessedConcurrently() {
+    when(ctx.getLogger()).thenReturn(logger);
+    CountDownLatch bothStarted = new CountDownLatch(2);
+    when(handler.handleRequest(any(CallculonConfiguration.class), eq(ctx)))
+        .thenAnswer(
+            invocation -> {
+              bothStarted.countDown();
+              /* Only possible if the other configuration is running at the same time. */
+              assertThat(bothStarted.await(5, TimeUnit.SECONDS)).isTrue();
+              CallculonConfiguration config = invocation.getArgument(0);
+              return CallculonResponse.builder().configuration(config).statusCode(200).build();
+            });
+    var response =
+        batchHandler(2)
+            .handleRequest(
+                CallculonBatch.builder().configurations(List.of(config("a"), config("b"))).build(),
+                ctx);
+    assertThat(response.getResponses())
+        .extracting(CallculonResponse::getStatusCode)
+        .containsExactly(200, 200);
+    verify(handler).flushNotifications(logger);
+  }
+
+  @Test
+  void emptyBatchProducesNoResponses() {
+    when(ctx.getLogger()).thenReturn(logger);
+    var response = batchHandler(4).handleRequest(new CallculonBatch(), ctx);
+    assertThat(response.getResponses()).isEmpty();
+    verifyNoInteractions(handler);
+  }
+
+  @Test
+  void failingConfigurationDoesNotPreventOthers() {
+    when(ctx.getLogger()).thenReturn(logger);
+    CallculonConfiguration good = config("good");
+    CallculonConfiguration bad = config("bad");
+    when(handler.handleRequest(good, ctx))
+        .thenReturn(CallculonResponse.builder().configuration(good).statusCode(200).build());
+    when(handler.handleRequest(bad, ctx)).thenThrow(new InvalidConfiguration("missing path"));
+    var response =
+        batchHandler(1)
+            .handleRequest(
+                CallculonBatch.builder().configurations(List.of(bad, good)).build(), ctx);
+    assertThat(response.getResponses()).hasSize(2);
+    assertThat(response.getResponses().get(0).getConfiguration()).isSameAs(bad);
+    assertThat(response.getResponses().get(0).getStatusCode()).isEqualTo(0);
+    assertThat(response.getResponses().get(0).getError()).contains("missing path");
+    assertThat(response.getResponses().get(1).getStatusCode()).isEqualTo(200);
+    assertThat(response.getResponses().get(1).getError()).isNull();
+  }
+
+  @Test
+  void failureDurationExcludesTimeSpentQueued() {
+    when(ctx.getLogger()).thenReturn(logger);
+    CallculonConfiguration slow = config("slow");
+    CallculonConfiguration bad = config("bad");
+    when(handler.handleRequest(slow, ctx))
+        .thenAnswer(
+            invocation -> {
+              Thread.sleep(500);
+              return CallculonResponse.builder().configuration(slow).statusCode(200).build();
+            });
+    when(handler.handleRequest(bad, ctx)).thenThrow(new InvalidConfiguration("missing path"));
+    var response =
+        batchHandler(1)
+            .handleRequest(
+                CallculonBatch.builder().configurations(List.of(slow, bad)).build(), ctx);
+    assertThat(response.getResponses().get(1).getStatusCode()).isEqualTo(0);
+    assertThat(Duration.parse(response.getResponses().get(1).getDuration()))
+        .isLessThan(Duration.ofMillis(500));
+  }
+}
@@ -0,0 +1,153 @@
+package gov.va.api.lighthouse.callculon;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import gov.va.api.lighthouse.callculon.CallculonConfiguration.Deployment;
+import gov.va.api.lighthouse.callculon.CallculonDaemon.DaemonOptions;
+import gov.va.api.lighthouse.callculon.CallculonHandler.InvalidConfiguration;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class CallculonDaemonTest {
+
+  @Mock CallculonHandler handler;
+
+  @TempDir Path dir;
+
+  ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+  private static CallculonConfiguration config(String name, boolean enabled, String cron) {
+    return CallculonConfiguration.builder()
+        .name(name)
+        .deployment(Deployment.builder().enabled(enabled).cron(cron).build())
+        .build();
+  }
+
+  private static CallculonConfiguration config(String name, String cron, String jitter) {
+    var config = config(name, true, cron);
+    config.getDeployment().setJitter(jitter);
+    return config;
+  }
+
+  private CallculonDaemon daemon() {
+    return CallculonDaemon.builder()
+        .options(
+            DaemonOptions.builder()
+                .concurrency(2)
+                .invocationTimeout(Duration.ofMinutes(1))
+                .flushInterval(Duration.ofMinutes(5))
+                .build())
+        .handler(handler)
+        .clock(Clock.fixed(Instant.parse("2020-06-06T12:34:56Z"), ZoneOffset.UTC))
+        .out(new PrintStream(out, true, UTF_8))
+        .build();
+  }
+
+  @Test
+  void daemonOptionsFromEnvironmentVariables() {
+    var defaults = DaemonOptions.fromEnvironmentVariables(Map.of());
+    assertThat(defaults.concurrency()).isEqualTo(16);
+    assertThat(defaults.invocationTimeout()).isEqualTo(Duration.ofMinutes(15));
+    assertThat(defaults.flushInterval()).isEqualTo(Duration.ofMinutes(5));
+    var options =
+        DaemonOptions.fromEnvironmentVariables(
+            Map.of(
+                DaemonOptions.OPTION_DAEMON_CONCURRENCY,
+                "0",
+                DaemonOptions.OPTION_DAEMON_TIMEOUT,
+                "PT1M",
+                DigestNotifier.OPTION_DIGEST_WINDOW,
+                "PT10M"));
+    assertThat(options.concurrency()).isEqualTo(1);
+    assertThat(options.invocationTimeout()).isEqualTo(Duration.ofMinutes(1));
+    assertThat(options.flushInterval()).isEqualTo(Duration.ofMinutes(10));
+  }
+
+  @Test
+  void loadReadsFilesAndDirectories() throws Exception {
+    Path configs = Files.createDirectory(dir.resolve("configs"));
+    Files.writeString(configs.resolve("b.json"), "{\"name\":\"b\"}");
+    Files.writeString(configs.resolve("a.json"), "{\"name\":\"a\"}");
+    Files.writeString(configs.resolve("README.md"), "not a configuration");
+    Path single = Files.writeString(dir.resolve("c.json"), "{\"name\":\"c\"}");
+    assertThat(CallculonDaemon.load(List.of(configs, single)))
+        .extracting(CallculonConfiguration::getName)
+        .containsExactly("a", "b", "c");
+  }
+
+  @Test
+  void runHandlesTheConfigurationWithALocalContext() {
+    var config = config("fugazi", true, "* * * * *");
+    var context = ArgumentCaptor.forClass(Context.class);
+    when(handler.handleRequest(eq(config), context.capture()))
+        .thenAnswer(
+            invocation -> {
+              Context ctx = invocation.getArgument(1);
+              ctx.getLogger().log("hello");
+              return CallculonResponse.builder().statusCode(200).build();
+            });
+    daemon().run(config);
+    assertThat(context.getValue().getFunctionName()).isEqualTo("fugazi");
+    assertThat(context.getValue().getRemainingTimeInMillis()).isBetween(1, 60000);
+    assertThat(out.toString(UTF_8))
+        .isEqualTo("2020-06-06T12:34:56Z [fugazi] hello" + System.lineSeparator());
+  }
+
+  @Test
+  void runLogsFailures() {
+    var config = config("fugazi", true, "* * * * *");
+    when(handler.handleRequest(eq(config), any(Context.class)))
+        .thenThrow(new InvalidConfiguration("missing hostname"));
+    daemon().run(config);
+    assertThat(out.toString(UTF_8))
+        .contains("[fugazi] Failed: InvalidConfiguration: missing hostname");
+  }
+
+  @Test
+  void startSchedulesEnabledConfigurationsWithValidCron() {
+    var daemon = daemon();
+    try {
+      assertThat(
+              daemon.start(
+                  List.of(
+                      config("scheduled", true, "0 0 1 1 *"),
+                      config("disabled", false, "0 0 1 1 *"),
+                      config("invalid", true, "0 0 1 13 *"),
+                      config("jittered", "0 0 1 1 *", "PT5M"),
+                      config("jumpy", "0 0 1 1 *", "5 minutes"),
+                      CallculonConfiguration.builder().name("undeployed").build())))
+          .isEqualTo(2);
+    } finally {
+      daemon.stop();
+    }
+    assertThat(out.toString(UTF_8))
+        .contains("[callculon-daemon] disabled is not enabled")
+        .contains("[callculon-daemon] invalid cannot be scheduled: Invalid cron month")
+        .contains("[callculon-daemon] jumpy cannot be scheduled: Invalid jitter: 5 minutes")
+        .contains("[callculon-daemon] undeployed is not enabled")
+        .contains("[callculon-daemon] Scheduled 2 of 6 configurations");
+    verify(handler).flushNotifications(any(LambdaLogger.class));
+  }
+}
@@ -2,27 +2,38 @@ package gov.va.api.lighthouse.callculon;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
+import static org.mockserver.model.ConnectionOptions.connectionOptions;
 import static org.mockserver.model.HttpRequest.request;
 import static org.mockserver.model.HttpResponse.response;
 
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import gov.va.api.lighthouse.callculon.CallculonConfiguration.BodyMode;
 import gov.va.api.lighthouse.callculon.CallculonConfiguration.Deployment;
+import gov.va.api.lighthouse.callculon.CallculonConfiguration.Hedge;
 import gov.va.api.lighthouse.callculon.CallculonConfiguration.Notification;
 import gov.va.api.lighthouse.callculon.CallculonConfiguration.Protocol;
 import gov.va.api.lighthouse.callculon.CallculonConfiguration.Request;
 import gov.va.api.lighthouse.callculon.CallculonConfiguration.RequestMethod;
+import gov.va.api.lighthouse.callculon.CallculonConfiguration.Retry;
 import gov.va.api.lighthouse.callculon.CallculonConfiguration.Slack;
 import gov.va.api.lighthouse.callculon.CallculonHandler.HandlerOptions;
 import gov.va.api.lighthouse.callculon.CallculonHandler.InvalidConfiguration;
+import gov.va.api.lighthouse.callculon.CallculonResponse.Attempt;
+import gov.va.api.lighthouse.callculon.CallculonResponse.LatencyBreach;
+import gov.va.api.lighthouse.callculon.CallculonResponse.NotifierResult;
 import gov.va.api.lighthouse.callculon.Notifier.NotificationContext;
+import gov.va.api.lighthouse.callculon.Notifier.NotificationQueued;
 import java.io.IOException;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
@@ -30,6 +41,9 @@ import java.net.http.HttpResponse.BodyHandler;
 import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
@@ -38,7 +52,9 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockserver.client.MockServerClient;
+import org.mockserver.matchers.Times;
 import org.mockserver.netty.MockServer;
+import org.mockserver.verify.VerificationTimes;
 
 @ExtendWith(MockitoExtension.class)
 class CallculonHandlerTest {
@@ -94,11 +110,11 @@ class CallculonHandlerTest {
   }
 
   @Test
-  @SneakyThrows
   void errorSendingRequestIsMarkedAsFailedRequest() {
     HttpClient client = mock(HttpClient.class);
-    when(client.send(any(HttpRequest.class), any(BodyHandler.class)))
-        .thenThrow(new IOException("fugazi"));
+    doReturn(CompletableFuture.failedFuture(new IOException("fugazi")))
+        .when(client)
+        .sendAsync(any(HttpRequest.class), any(BodyHandler.class));
     when(ctx.getLogger()).thenReturn(logger);
 
     var explodingHandler =
@@ -122,6 +138,18 @@ class CallculonHandlerTest {
     assertThat(response.isNotificationError()).isFalse();
   }
 
+  @Test
+  void fastRequestIsNotHedged() {
+    startMockServer();
+    mockHttp.when(request().withPath("/ok")).respond(response().withStatusCode(200));
+    CallculonConfiguration event = config("/ok");
+    event.getRequest().setHedge(Hedge.builder().delay("PT5S").build());
+    CallculonResponse response = handler().handleRequest(event, ctx);
+    assertThat(response.getStatusCode()).isEqualTo(200);
+    assertThat(response.isHedged()).isFalse();
+    assertThat(response.isHedgeWon()).isFalse();
+  }
+
   private CallculonHandler handler() {
     return CallculonHandler.builder()
         .options(
@@ -140,6 +168,11 @@ class CallculonHandlerTest {
     var opts = HandlerOptions.fromEnvironmentVariables(env);
     assertThat(opts.connectTimeout()).isEqualTo(Duration.ofSeconds(20));
     assertThat(opts.requestTimeout()).isEqualTo(Duration.ofSeconds(120));
+    assertThat(opts.deadlineReserve()).isEqualTo(Duration.ofSeconds(2));
+    assertThat(opts.notificationTimeout()).isEqualTo(Duration.ofSeconds(10));
+    assertThat(opts.hostConcurrency()).isZero();
+    assertThat(opts.metricsNamespace()).isEqualTo("Callculon");
+    assertThat(opts.latencyReportInterval()).isEqualTo(Duration.ofMinutes(15));
   }
 
   @Test
@@ -149,10 +182,120 @@ class CallculonHandlerTest {
             HandlerOptions.OPTION_CONNECT_TIMEOUT,
             "PT99S",
             HandlerOptions.OPTION_REQUEST_TIMEOUT,
-            "PT33S");
+            "PT33S",
+            HandlerOptions.OPTION_HOST_CONCURRENCY,
+            "4",
+            HandlerOptions.OPTION_METRICS_NAMESPACE,
+            "Lighthouse/Callculon",
+            HandlerOptions.OPTION_LATENCY_REPORT_INTERVAL,
+            "PT1H");
     var opts = HandlerOptions.fromEnvironmentVariables(env);
     assertThat(opts.connectTimeout()).isEqualTo(Duration.ofSeconds(99));
     assertThat(opts.requestTimeout()).isEqualTo(Duration.ofSeconds(33));
+    assertThat(opts.hostConcurrency()).isEqualTo(4);
+    assertThat(opts.metricsNamespace()).isEqualTo("Lighthouse/Callculon");
+    assertThat(opts.latencyReportInterval()).isEqualTo(Duration.ofHours(1));
+  }
+
+  @Test
+  void hedgeNeedsItsOwnHostPermit() {
+    startMockServer();
+    mockHttp
+        .when(request().withPath("/busy"))
+        .respond(response().withStatusCode(200).withDelay(TimeUnit.MILLISECONDS, 300));
+    CallculonConfiguration event = config("/busy");
+    /* A hostname no other test limits, since limits are kept for the life of the JVM. */
+    event.getRequest().setHostname("127.0.0.1");
+    event.getRequest().setHedge(Hedge.builder().delay("PT0.05S").build());
+    CallculonResponse response =
+        CallculonHandler.builder()
+            .options(
+                HandlerOptions.builder()
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .requestTimeout(Duration.ofSeconds(10))
+                    .hostConcurrency(1)
+                    .build())
+            .secretProcessor(noSecrets())
+            .notifier(notifier)
+            .build()
+            .handleRequest(event, ctx);
+    assertThat(response.getStatusCode()).isEqualTo(200);
+    assertThat(response.isHedged()).isFalse();
+    mockHttp.verify(request().withPath("/busy"), VerificationTimes.once());
+  }
+
+  @Test
+  void hedgeWinsWhenFirstRequestFails() {
+    startMockServer();
+    mockHttp
+        .when(request().withPath("/flaky"), Times.once())
+        .respond(response().withStatusCode(503).withDelay(TimeUnit.MILLISECONDS, 300));
+    mockHttp
+        .when(request().withPath("/flaky"))
+        .respond(response().withStatusCode(200).withDelay(TimeUnit.MILLISECONDS, 600));
+    CallculonConfiguration event = config("/flaky");
+    event.getRequest().setHedge(Hedge.builder().delay("PT0.05S").build());
+    CallculonResponse response = handler().handleRequest(event, ctx);
+    assertThat(response.getStatusCode()).isEqualTo(200);
+    assertThat(response.isHedged()).isTrue();
+    assertThat(response.isHedgeWon()).isTrue();
+  }
+
+  @Test
+  void hedgeWinsWhenFirstRequestIsSlow() {
+    startMockServer();
+    mockHttp.when(request().withPath("/ok")).respond(response().withStatusCode(200));
+    HttpClient stuck = mock(HttpClient.class);
+    doReturn(new CompletableFuture<>())
+        .when(stuck)
+        .sendAsync(any(HttpRequest.class), any(BodyHandler.class));
+    CallculonConfiguration event = config("/ok");
+    event.getRequest().setHedge(Hedge.builder().delay("PT0.05S").build());
+    CallculonResponse response =
+        CallculonHandler.builder()
+            .options(
+                CallculonHandler.HandlerOptions.builder()
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .requestTimeout(Duration.ofSeconds(10))
+                    .build())
+            .secretProcessor(noSecrets())
+            .notifier(notifier)
+            .client(stuck)
+            .build()
+            .handleRequest(event, ctx);
+    assertThat(response.getStatusCode()).isEqualTo(200);
+    assertThat(response.isHedged()).isTrue();
+    assertThat(response.isHedgeWon()).isTrue();
+  }
+
+  @Test
+  void invalidCronConfigurationThrowsExceptions() {
+    startMockServer();
+    CallculonConfiguration event = config("/whatever");
+    event.getDeployment().setCron("0 0 * * 8");
+    assertThatExceptionOfType(InvalidConfiguration.class)
+        .isThrownBy(() -> handler().handleRequest(event, ctx))
+        .withMessageContaining("day-of-week");
+  }
+
+  @Test
+  void invalidJitterConfigurationThrowsExceptions() {
+    startMockServer();
+    CallculonConfiguration event = config("/whatever");
+    event.getDeployment().setJitter("5 minutes");
+    assertThatExceptionOfType(InvalidConfiguration.class)
+        .isThrownBy(() -> handler().handleRequest(event, ctx))
+        .withMessageContaining("jitter");
+  }
+
+  @Test
+  void invalidMaxDurationConfigurationThrowsExceptions() {
+    startMockServer();
+    CallculonConfiguration event = config("/whatever");
+    event.getRequest().setMaxDuration("PT0S");
+    assertThatExceptionOfType(InvalidConfiguration.class)
+        .isThrownBy(() -> handler().handleRequest(event, ctx))
+        .withMessageContaining("maxDuration");
   }
 
   @Test
@@ -209,7 +352,9 @@ class CallculonHandlerTest {
     assertThat(response.getDuration()).isNotNull();
     assertThat(response.getRequestTime()).isNotNull();
     assertThat(response.isNotificationError()).isFalse();
+    assertThat(response.getAttempts()).hasSize(1);
     verify(notifier).onFailure(any(NotificationContext.class));
+    verify(notifier).flushDue(any(LambdaLogger.class));
     verifyNoMoreInteractions(notifier);
   }
 
@@ -229,6 +374,9 @@ class CallculonHandlerTest {
     assertThat(response.getDuration()).isNotNull();
     assertThat(response.getRequestTime()).isNotNull();
     assertThat(response.isNotificationError()).isTrue();
+    assertThat(response.getNotifications())
+        .extracting(NotifierResult::getError)
+        .containsExactly("RuntimeException: fugazi");
   }
 
   @Test
@@ -244,7 +392,100 @@ class CallculonHandlerTest {
     assertThat(response.getDuration()).isNotNull();
     assertThat(response.getRequestTime()).isNotNull();
     assertThat(response.isNotificationError()).isFalse();
+    assertThat(response.getLatency()).isNotNull();
+    assertThat(response.getLatency().getTotalMillis())
+        .isGreaterThanOrEqualTo(response.getLatency().getTimeToHeadersMillis());
+    verify(notifier).onSuccess(any(NotificationContext.class));
+    verify(notifier).flushDue(any(LambdaLogger.class));
+    verifyNoMoreInteractions(notifier);
+  }
+
+  @Test
+  void queuedNotificationIsNotAnError() {
+    startMockServer();
+    mockHttp.when(request().withPath("/teapot")).respond(response().withStatusCode(419));
+    doThrow(new NotificationQueued("Status: 503"))
+        .when(notifier)
+        .onFailure(any(NotificationContext.class));
+    CallculonResponse response = handler().handleRequest(config("/teapot"), ctx);
+    assertThat(response.isNotificationError()).isFalse();
+    assertThat(response.getNotifications())
+        .extracting(NotifierResult::getError, NotifierResult::getQueued)
+        .containsExactly(tuple(null, "Status: 503"));
+  }
+
+  @Test
+  void requestOverMaxDurationIsCancelledAndFailed() {
+    startMockServer();
+    mockHttp
+        .when(request().withPath("/slow"))
+        .respond(response().withStatusCode(200).withDelay(TimeUnit.SECONDS, 5));
+    CallculonConfiguration event = config("/slow");
+    event.getRequest().setMaxDuration("PT0.2S");
+    CallculonResponse response = handler().handleRequest(event, ctx);
+    assertThat(response.getStatusCode()).isEqualTo(0);
+    assertThat(response.getLatencyBreach()).isEqualTo(LatencyBreach.MAX);
+    assertThat(response.getAttempts().get(0).getError()).isEqualTo("HttpTimeoutException");
+    assertThat(response.getAttempts().get(0).getMillis()).isLessThan(2000);
+    verify(notifier).onFailure(any(NotificationContext.class));
+    verify(notifier).flushDue(any(LambdaLogger.class));
+    verifyNoMoreInteractions(notifier);
+  }
+
+  @Test
+  void responseBodyIsCapturedWhenRequested() {
+    startMockServer();
+    mockHttp
+        .when(request().withPath("/teapot"))
+        .respond(response().withStatusCode(419).withBody("i'm a teapot."));
+    CallculonConfiguration event = config("/teapot");
+    event.getRequest().setBodyMode(BodyMode.CAPTURE);
+    event.getRequest().setCaptureBytes(3);
+    CallculonResponse response = handler().handleRequest(event, ctx);
+    assertThat(response.getBody()).isEqualTo("i'm");
+    verify(notifier)
+        .onFailure(argThat((NotificationContext n) -> n.getBody().equals(Optional.of("i'm"))));
+  }
+
+  @Test
+  void responseBodyIsNotKeptByDefault() {
+    startMockServer();
+    mockHttp
+        .when(request().withPath("/ok"))
+        .respond(response().withStatusCode(200).withBody("Good job buddy!"));
+    CallculonResponse response = handler().handleRequest(config("/ok"), ctx);
+    assertThat(response.getStatusCode()).isEqualTo(200);
+    assertThat(response.getBody()).isNull();
+  }
+
+  @Test
+  void retriesStopAtMaxAttempts() {
+    startMockServer();
+    mockHttp.when(request().withPath("/down")).respond(response().withStatusCode(503));
+    CallculonConfiguration event = config("/down");
+    event.getRequest().setRetry(Retry.builder().maxAttempts(2).initialBackoff("PT0.01S").build());
+    CallculonResponse response = handler().handleRequest(event, ctx);
+    assertThat(response.getStatusCode()).isEqualTo(503);
+    assertThat(response.getAttempts()).hasSize(2);
+    verify(notifier).onFailure(any(NotificationContext.class));
+  }
+
+  @Test
+  void retryableStatusIsRetried() {
+    startMockServer();
+    mockHttp
+        .when(request().withPath("/flaky"), Times.once())
+        .respond(response().withStatusCode(503));
+    mockHttp.when(request().withPath("/flaky")).respond(response().withStatusCode(200));
+    CallculonConfiguration event = config("/flaky");
+    event.getRequest().setRetry(Retry.builder().maxAttempts(3).initialBackoff("PT0.01S").build());
+    CallculonResponse response = handler().handleRequest(event, ctx);
+    assertThat(response.getStatusCode()).isEqualTo(200);
+    assertThat(response.getAttempts())
+        .extracting(Attempt::getStatusCode)
+        .containsExactly(503, 200);
     verify(notifier).onSuccess(any(NotificationContext.class));
+    verify(notifier).flushDue(any(LambdaLogger.class));
     verifyNoMoreInteractions(notifier);
   }
 
@@ -268,6 +509,102 @@ class CallculonHandlerTest {
     assertThat(response.getStatusCode()).isEqualTo(200);
   }
 
+  @Test
+  void slowBodyOverMaxDurationIsCancelledAndFailed() {
+    startMockServer();
+    mockHttp
+        .when(request().withPath("/dribble"))
+        .respond(
+            response()
+                .withStatusCode(200)
+                .withBody("not all of it")
+                .withConnectionOptions(
+                    connectionOptions()
+                        .withContentLengthHeaderOverride(1000)
+                        .withCloseSocket(false)));
+    CallculonConfiguration event = config("/dribble");
+    event.getRequest().setMaxDuration("PT0.2S");
+    CallculonResponse response = handler().handleRequest(event, ctx);
+    assertThat(response.getStatusCode()).isEqualTo(0);
+    assertThat(response.getLatencyBreach()).isEqualTo(LatencyBreach.MAX);
+    assertThat(response.getAttempts().get(0).getError()).isEqualTo("HttpTimeoutException");
+    assertThat(response.getAttempts().get(0).getMillis()).isLessThan(2000);
+    verify(notifier).onFailure(any(NotificationContext.class));
+  }
+
+  @Test
+  void slowSecretLookupOverMaxDurationIsFailed() {
+    startMockServer();
+    CallculonConfiguration event = config("/topsecret(slow)");
+    event.getRequest().setMaxDuration("PT0.1S");
+    SecretProcessor slowSecrets =
+        new SecretProcessor() {
+          @Override
+          public String identifier() {
+            return "topsecret";
+          }
+
+          @Override
+          @SneakyThrows
+          public List<String> lookup(List<String> secrets) {
+            Thread.sleep(300);
+            return secrets;
+          }
+        };
+    CallculonResponse response =
+        CallculonHandler.builder()
+            .options(
+                HandlerOptions.builder()
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .requestTimeout(Duration.ofSeconds(10))
+                    .build())
+            .secretProcessor(slowSecrets)
+            .notifier(notifier)
+            .build()
+            .handleRequest(event, ctx);
+    assertThat(response.getStatusCode()).isEqualTo(0);
+    assertThat(response.getLatencyBreach()).isEqualTo(LatencyBreach.MAX);
+    assertThat(response.getAttempts()).hasSize(1);
+    assertThat(response.getAttempts().get(0).getError()).isEqualTo("HttpTimeoutException");
+    verify(notifier).onFailure(any(NotificationContext.class));
+    verify(notifier).flushDue(any(LambdaLogger.class));
+    verifyNoMoreInteractions(notifier);
+  }
+
+  @Test
+  void slowResponseOverWarnDurationIsAWarning() {
+    startMockServer();
+    mockHttp
+        .when(request().withPath("/slow"))
+        .respond(response().withStatusCode(200).withDelay(TimeUnit.MILLISECONDS, 300));
+    CallculonConfiguration event = config("/slow");
+    event.getRequest().setWarnDuration("PT0.1S");
+    event.getRequest().setMaxDuration("PT10S");
+    CallculonResponse response = handler().handleRequest(event, ctx);
+    assertThat(response.getStatusCode()).isEqualTo(200);
+    assertThat(response.getLatencyBreach()).isEqualTo(LatencyBreach.WARN);
+    verify(notifier)
+        .onWarning(
+            argThat(
+                c ->
+                    c.getNote()
+                        .orElse("")
+                        .matches("Took \\d+ ms, more than the warnDuration of 100 ms")));
+    verify(notifier).flushDue(any(LambdaLogger.class));
+    verifyNoMoreInteractions(notifier);
+  }
+
+  @Test
+  void unnamedConfigurationIsHandled() {
+    startMockServer();
+    mockHttp.when(request().withPath("/unnamed")).respond(response().withStatusCode(200));
+    CallculonConfiguration event = config("/unnamed");
+    event.setName(null);
+    CallculonResponse response = handler().handleRequest(event, ctx);
+    assertThat(response.getStatusCode()).isEqualTo(200);
+    assertThat(response.getLatencyPercentiles().getCount()).isPositive();
+  }
+
   void startMockServer() {
     when(ctx.getLogger()).thenReturn(logger);
     doAnswer(
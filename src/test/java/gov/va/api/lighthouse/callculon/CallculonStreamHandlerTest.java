@@ -0,0 +1,56 @@
+package gov.va.api.lighthouse.callculon;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import gov.va.api.lighthouse.callculon.CallculonHandler.InvalidConfiguration;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class CallculonStreamHandlerTest {
+
+  @Mock Context ctx;
+  @Mock CallculonHandler handler;
+
+  @SneakyThrows
+  private String handle(String json) {
+    var output = new ByteArrayOutputStream();
+    CallculonStreamHandler.builder()
+        .handler(handler)
+        .build()
+        .handleRequest(new ByteArrayInputStream(json.getBytes(UTF_8)), output, ctx);
+    return output.toString(UTF_8);
+  }
+
+  @Test
+  void configurationIsHandledAndResponseIsWritten() {
+    when(handler.handleRequest(any(CallculonConfiguration.class), eq(ctx)))
+        .thenAnswer(
+            invocation ->
+                CallculonResponse.builder()
+                    .configuration(invocation.getArgument(0))
+                    .statusCode(200)
+                    .build());
+    assertThat(handle("{\"name\":\"caf\u00e9\"}"))
+        .startsWith("{\"configuration\":{\"name\":\"caf\u00e9\",\"notification\":{}}")
+        .contains("\"statusCode\":200");
+  }
+
+  @Test
+  void malformedConfigurationIsNotHandled() {
+    assertThatExceptionOfType(InvalidConfiguration.class).isThrownBy(() -> handle("{\"name\""));
+    verifyNoInteractions(handler);
+  }
+}
@@ -0,0 +1,117 @@
+package gov.va.api.lighthouse.callculon;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import gov.va.api.lighthouse.callculon.CallculonResponse.NotifierResult;
+import gov.va.api.lighthouse.callculon.Notifier.NotificationContext;
+import gov.va.api.lighthouse.callculon.Notifier.NotificationFailure;
+import gov.va.api.lighthouse.callculon.Notifier.NotificationQueued;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class CompositeNotifierTest {
+
+  @Mock LambdaLogger logger;
+  @Mock Notifier fast;
+  @Mock Notifier slow;
+
+  private NotificationContext ctx() {
+    return NotificationContext.builder().logger(logger).statusCode(500).build();
+  }
+
+  @Test
+  void failuresAreReportedPerNotifier() {
+    doThrow(new NotificationFailure("nope")).when(slow).onFailure(ctx());
+    var composite = fastAndSlow();
+    List<NotifierResult> results =
+        composite.dispatch(ctx(), Notifier::onFailure, Duration.ofSeconds(5)).join();
+    assertThat(results).extracting(NotifierResult::getNotifier).containsExactly("fast", "slow");
+    assertThat(results.get(0).getError()).isNull();
+    assertThat(results.get(1).getError()).isEqualTo("NotificationFailure: nope");
+    verify(fast).onFailure(ctx());
+  }
+
+  private CompositeNotifier fastAndSlow() {
+    return CompositeNotifier.builder().notifier("fast", fast).notifier("slow", slow).build();
+  }
+
+  @Test
+  void notifiersAreInvokedInParallel() {
+    CountDownLatch bothStarted = new CountDownLatch(2);
+    doAnswer(
+            invocation -> {
+              bothStarted.countDown();
+              if (!bothStarted.await(5, TimeUnit.SECONDS)) {
+                throw new NotificationFailure("not parallel");
+              }
+              return null;
+            })
+        .when(fast)
+        .onSuccess(ctx());
+    doAnswer(
+            invocation -> {
+              bothStarted.countDown();
+              return null;
+            })
+        .when(slow)
+        .onSuccess(ctx());
+    var composite = fastAndSlow();
+    assertThat(composite.dispatch(ctx(), Notifier::onSuccess, Duration.ofSeconds(10)).join())
+        .extracting(NotifierResult::getError)
+        .containsOnlyNulls();
+  }
+
+  @Test
+  void ofWrapsSingleNotifiers() {
+    var composite = CompositeNotifier.builder().notifier("fast", fast).build();
+    assertThat(CompositeNotifier.of(composite)).isSameAs(composite);
+    CompositeNotifier.of(fast).onSuccess(ctx());
+    verify(fast).onSuccess(ctx());
+  }
+
+  @Test
+  void onFailureThrowsIfAnyNotifierFailed() {
+    doThrow(new NotificationFailure("nope")).when(slow).onFailure(ctx());
+    var composite = fastAndSlow();
+    assertThatExceptionOfType(NotificationFailure.class)
+        .isThrownBy(() -> composite.onFailure(ctx()))
+        .withMessageContaining("slow: NotificationFailure: nope");
+  }
+
+  @Test
+  void queuedNotificationsAreNotErrors() {
+    doThrow(new NotificationQueued("later")).when(slow).onFailure(ctx());
+    var composite = fastAndSlow();
+    List<NotifierResult> results =
+        composite.dispatch(ctx(), Notifier::onFailure, Duration.ofSeconds(5)).join();
+    assertThat(results).extracting(NotifierResult::getError).containsOnlyNulls();
+    assertThat(results).extracting(NotifierResult::getQueued).containsExactly(null, "later");
+    assertThatExceptionOfType(NotificationQueued.class)
+        .isThrownBy(() -> composite.onFailure(ctx()))
+        .withMessage("slow: later");
+  }
+
+  @Test
+  void slowNotifiersTimeOut() {
+    CountDownLatch never = new CountDownLatch(1);
+    doAnswer(invocation -> never.await(5, TimeUnit.SECONDS)).when(slow).onFailure(ctx());
+    var composite = fastAndSlow();
+    List<NotifierResult> results =
+        composite.dispatch(ctx(), Notifier::onFailure, Duration.ofMillis(100)).join();
+    assertThat(results.get(0).getError()).isNull();
+    assertThat(results.get(1).getError()).isEqualTo("Timed out after 100 ms");
+    never.countDown();
+  }
+}
@@ -0,0 +1,102 @@
+package gov.va.api.lighthouse.callculon;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gov.va.api.lighthouse.callculon.CallculonConfiguration.BodyMode;
+import gov.va.api.lighthouse.callculon.CallculonConfiguration.Protocol;
+import gov.va.api.lighthouse.callculon.CallculonHandler.InvalidConfiguration;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.util.List;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+
+class ConfigurationDecoderTest {
+
+  @SneakyThrows
+  private CallculonConfiguration decode(String json) {
+    return ConfigurationDecoder.decode(new StringReader(json));
+  }
+
+  @Test
+  @SneakyThrows
+  void decodesEveryFieldLikeTheReflectiveSerializer() {
+    CallculonConfiguration config;
+    try (var in = getClass().getResourceAsStream("/stream-configuration.json")) {
+      config = ConfigurationDecoder.decode(new InputStreamReader(in, UTF_8));
+    }
+    CallculonConfiguration expected =
+        new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .readValue(
+                getClass().getResource("/stream-configuration.json"),
+                CallculonConfiguration.class);
+    assertThat(config).isEqualTo(expected);
+    assertThat(config.getRequest().getProtocol()).isEqualTo(Protocol.HTTPS);
+    assertThat(config.getRequest().getPath()).endsWith("\"quoted\"\\back\u00e9");
+    assertThat(config.getRequest().getHeaders()).containsEntry("X-Tab", "a\tb/c");
+    assertThat(config.getRequest().getBodyMode()).isEqualTo(BodyMode.CAPTURE);
+    assertThat(config.getRequest().getRetry().getStatuses()).containsExactly(502, 503);
+    assertThat(config.getRequest().getHedge().getPercentile()).isEqualTo(95);
+    assertThat(config.getRequest().getMaxDuration()).isEqualTo("PT30S");
+    assertThat(config.getNotification().getSlack().isDigest()).isTrue();
+  }
+
+  @Test
+  void longValuesSpanningReadsAreDecoded() {
+    String path = "/" + "x".repeat(10_000);
+    assertThat(decode("{\"request\":{\"path\":\"" + path + "\"}}").getRequest().getPath())
+        .isEqualTo(path);
+  }
+
+  @Test
+  void malformedInputIsInvalid() {
+    for (String json :
+        List.of(
+            "",
+            "{",
+            "[]",
+            "{} {}",
+            "{\"name\" \"a\"}",
+            "{\"name\":\"unterminated}",
+            "{\"name\":\"a\" \"b\":1}",
+            "{\"request\":{\"port\":\"443x\"}}",
+            "{\"request\":{\"protocol\":\"FTP\"}}",
+            "{\"deployment\":{\"enabled\":yes}}",
+            "{\"name\":\"bad \\q escape\"}",
+            "{\"request\":{\"retry\":{\"statuses\":[502 503]}}}")) {
+      assertThatExceptionOfType(InvalidConfiguration.class)
+          .as(json)
+          .isThrownBy(() -> decode(json));
+    }
+  }
+
+  @Test
+  void nullsKeepDefaultsAndScalarsMayBeStrings() {
+    var config =
+        decode(
+            "{\"name\":null,\"deployment\":{\"enabled\":\"true\"},"
+                + "\"request\":{\"port\":\"8443\",\"retry\":null,\"captureBytes\":null,"
+                + "\"headers\":{}},"
+                + "\"notification\":{\"slack\":{\"onFailure\":null,\"channel\":\"c\"}}}");
+    assertThat(config.getName()).isNull();
+    assertThat(config.getDeployment().isEnabled()).isTrue();
+    assertThat(config.getRequest().getPort()).isEqualTo(8443);
+    assertThat(config.getRequest().getRetry()).isNull();
+    assertThat(config.getRequest().getCaptureBytes()).isZero();
+    assertThat(config.getRequest().getHeaders()).isEmpty();
+    assertThat(config.getNotification().getSlack().isOnFailure()).isTrue();
+    assertThat(config.getNotification().getSlack().isOnSuccess()).isFalse();
+    assertThat(decode(" null ")).isEqualTo(new CallculonConfiguration());
+    assertThat(
+            decode("{\"request\":{\"retry\":{\"exceptions\":[]}}}")
+                .getRequest()
+                .getRetry()
+                .getExceptions())
+        .isEmpty();
+  }
+}
@@ -0,0 +1,64 @@
+package gov.va.api.lighthouse.callculon;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.mockserver.client.MockServerClient;
+import org.mockserver.netty.MockServer;
+
+class ConnectionWarmerTest {
+
+  @Test
+  void originsAreNormalized() {
+    assertThat(ConnectionWarmer.originOf(URI.create("HTTPS://Example.com/a/b?c")))
+        .isEqualTo("https://example.com:443");
+    assertThat(ConnectionWarmer.originOf(URI.create("http://example.com/a")))
+        .isEqualTo("http://example.com:80");
+    assertThat(ConnectionWarmer.originOf(URI.create("http://example.com:8080")))
+        .isEqualTo("http://example.com:8080");
+  }
+
+  @Test
+  void originsFromEnvironmentVariables() {
+    assertThat(ConnectionWarmer.originsFromEnvironmentVariables(Map.of())).isEmpty();
+    assertThat(
+            ConnectionWarmer.originsFromEnvironmentVariables(
+                Map.of(
+                    ConnectionWarmer.OPTION_WARM_ORIGINS,
+                    "https://blue.qa.lighthouse.va.gov:443, http://localhost:8080,")))
+        .containsExactly(
+            URI.create("https://blue.qa.lighthouse.va.gov:443"),
+            URI.create("http://localhost:8080"));
+  }
+
+  @Test
+  void warmingContactsReachableOrigins() {
+    MockServer server = new MockServer();
+    MockServerClient mockHttp = new MockServerClient("localhost", server.getLocalPort());
+    try {
+      mockHttp.when(request().withMethod("HEAD")).respond(response().withStatusCode(404));
+      URI reachable = URI.create("http://localhost:" + server.getLocalPort());
+      URI unreachable = URI.create("http://localhost:1");
+      int warmed =
+          ConnectionWarmer.warm(
+              HttpClients.relaxed(Duration.ofSeconds(1)),
+              List.of(reachable, unreachable),
+              Duration.ofSeconds(2));
+      assertThat(warmed).isEqualTo(1);
+      assertThat(ConnectionWarmer.wasRecentlyContacted(reachable.resolve("/fhir/metadata")))
+          .isTrue();
+      assertThat(ConnectionWarmer.wasRecentlyContacted(unreachable)).isFalse();
+    } finally {
+      server.stop();
+      server.close();
+      mockHttp.stop(true);
+      mockHttp.close();
+    }
+  }
+}
@@ -0,0 +1,136 @@
+package gov.va.api.lighthouse.callculon;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import gov.va.api.lighthouse.callculon.CallculonHandler.InvalidConfiguration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class CronScheduleTest {
+
+  /** A Saturday. */
+  private static final ZonedDateTime NOW =
+      ZonedDateTime.of(2020, 6, 6, 12, 34, 56, 0, ZoneOffset.UTC);
+
+  private static ZonedDateTime at(int month, int day, int hour, int minute) {
+    return at(2020, month, day, hour, minute);
+  }
+
+  private static ZonedDateTime at(int year, int month, int day, int hour, int minute) {
+    return ZonedDateTime.of(year, month, day, hour, minute, 0, 0, ZoneOffset.UTC);
+  }
+
+  private static ZonedDateTime next(String cron) {
+    return CronSchedule.parse(cron).next(NOW).orElseThrow();
+  }
+
+  @Test
+  void awsExpressionsCountSundayAsOne() {
+    assertThat(next("cron(0 8 ? * 1 *)")).isEqualTo(at(6, 7, 8, 0));
+    assertThat(next("0 8 ? * 2-6 *")).isEqualTo(at(6, 8, 8, 0));
+    assertThat(next("15 10 ? * 7 2020")).isEqualTo(at(6, 13, 10, 15));
+  }
+
+  @Test
+  void awsSpecialDaysAreUnderstood() {
+    assertThat(next("0 9 L * ?")).isEqualTo(at(6, 30, 9, 0));
+    assertThat(next("0 9 LW * ?")).isEqualTo(at(6, 30, 9, 0));
+    assertThat(next("0 9 6W * ?")).isEqualTo(at(7, 6, 9, 0));
+    assertThat(next("0 9 1W * ?")).isEqualTo(at(7, 1, 9, 0));
+    assertThat(next("0 9 ? * 6L *")).isEqualTo(at(6, 26, 9, 0));
+    assertThat(next("0 9 ? * 2#2 *")).isEqualTo(at(6, 8, 9, 0));
+    assertThat(next("0 9 ? * 2#5 *")).isEqualTo(at(6, 29, 9, 0));
+    assertThat(next("0 9 ? * L *")).isEqualTo(at(6, 13, 9, 0));
+    assertThat(next("0 9 * * FRI#1")).isEqualTo(at(7, 3, 9, 0));
+  }
+
+  @Test
+  void eitherRestrictedDayMatches() {
+    assertThat(next("0 0 20 * 1")).isEqualTo(at(6, 8, 0, 0));
+    assertThat(next("0 0 7 * 5")).isEqualTo(at(6, 7, 0, 0));
+  }
+
+  @Test
+  void invalidExpressionsAreRejected() {
+    for (String cron :
+        List.of(
+            "",
+            "* * * *",
+            "60 * * * *",
+            "* 24 * * *",
+            "* * 0 * *",
+            "* * * 13 *",
+            "x * * * *",
+            "*/0 * * * *",
+            "5-1 * * * *",
+            "* * * * 8",
+            "* * ? * * 1969",
+            "0 8 * * 1 *",
+            "0 8 ? * ? *",
+            "0 9 ? * 2#6 *",
+            "0 9 32W * ?",
+            "0 9 ? * 8L *",
+            "rate(0 minutes)",
+            "rate(5 weeks)",
+            "rate(5)")) {
+      assertThatExceptionOfType(InvalidConfiguration.class)
+          .as(cron)
+          .isThrownBy(() -> CronSchedule.parse(cron));
+    }
+    assertThatExceptionOfType(InvalidConfiguration.class)
+        .isThrownBy(() -> CronSchedule.parse(null));
+  }
+
+  @Test
+  void namesAreUnderstood() {
+    assertThat(next("0 9 ? JUN-AUG MON-FRI *")).isEqualTo(at(6, 8, 9, 0));
+    assertThat(next("0 9 * jan sun")).isEqualTo(at(2021, 1, 3, 9, 0));
+  }
+
+  @Test
+  void nextIsAfterTheGivenTime() {
+    assertThat(next("* * * * *")).isEqualTo(at(6, 6, 12, 35));
+    assertThat(next("0 0 * * *")).isEqualTo(at(6, 7, 0, 0));
+    assertThat(next("34 12 * * *")).isEqualTo(at(6, 7, 12, 34));
+    assertThat(next("*/15 * * * *")).isEqualTo(at(6, 6, 12, 45));
+    assertThat(next("5,50 13-14 * * *")).isEqualTo(at(6, 6, 13, 5));
+    assertThat(next("10/20 * * * *")).isEqualTo(at(6, 6, 12, 50));
+    assertThat(next("0 0 1 1 *")).isEqualTo(at(2021, 1, 1, 0, 0));
+    assertThat(next("0 0 29 2 *")).isEqualTo(at(2024, 2, 29, 0, 0));
+    assertThat(next("0 0 1 1 ? 2030")).isEqualTo(at(2030, 1, 1, 0, 0));
+  }
+
+  @Test
+  void nextIsFoundAcrossCenturies() {
+    var leapDays = CronSchedule.parse("0 0 29 2 *");
+    var time = NOW;
+    for (int i = 0; i < 20; i++) {
+      time = leapDays.next(time).orElseThrow();
+    }
+    assertThat(time).isEqualTo(at(2104, 2, 29, 0, 0));
+  }
+
+  @Test
+  void rateExpressionsFireAtMultiplesOfTheRate() {
+    assertThat(next("rate(5 minutes)")).isEqualTo(at(6, 6, 12, 35));
+    assertThat(next("rate(1 minute)")).isEqualTo(at(6, 6, 12, 35));
+    assertThat(next("rate(1 hour)")).isEqualTo(at(6, 6, 13, 0));
+    assertThat(next("rate(2 days)")).isEqualTo(at(6, 7, 0, 0));
+  }
+
+  @Test
+  void schedulesThatNeverFireAreEmpty() {
+    assertThat(CronSchedule.parse("0 0 30 2 *").next(NOW)).isEmpty();
+    assertThat(CronSchedule.parse("0 0 * * ? 2019").next(NOW)).isEmpty();
+  }
+
+  @Test
+  void unixExpressionsCountSundayAsZeroOrSeven() {
+    assertThat(next("0 8 * * 0")).isEqualTo(at(6, 7, 8, 0));
+    assertThat(next("0 8 * * 7")).isEqualTo(at(6, 7, 8, 0));
+    assertThat(next("0 8 * * 1-5")).isEqualTo(at(6, 8, 8, 0));
+  }
+}
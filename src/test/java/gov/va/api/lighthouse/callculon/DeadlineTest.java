@@ -0,0 +1,57 @@
+package gov.va.api.lighthouse.callculon;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class DeadlineTest {
+
+  @Mock Context ctx;
+
+  @Test
+  void atMostKeepsTheSoonerDeadline() {
+    when(ctx.getRemainingTimeInMillis()).thenReturn(60_000, 60_000, 0);
+    var deadline = Deadline.of(ctx, Duration.ofSeconds(10));
+    assertThat(deadline.atMost(Duration.ofMinutes(5))).isSameAs(deadline);
+    assertThat(deadline.atMost(Duration.ofSeconds(1)).remaining())
+        .isLessThanOrEqualTo(Duration.ofSeconds(1));
+    var unbounded = Deadline.of(ctx, Duration.ofSeconds(10));
+    assertThat(unbounded.atMost(Duration.ofSeconds(1)).remaining())
+        .isLessThanOrEqualTo(Duration.ofSeconds(1));
+  }
+
+  @Test
+  void remainingTimeKeepsTheReserve() {
+    when(ctx.getRemainingTimeInMillis()).thenReturn(60_000);
+    var deadline = Deadline.of(ctx, Duration.ofSeconds(10));
+    assertThat(deadline.remaining())
+        .isLessThanOrEqualTo(Duration.ofSeconds(50))
+        .isGreaterThan(Duration.ofSeconds(49));
+    assertThat(deadline.timeout(Duration.ofSeconds(5))).isEqualTo(Duration.ofSeconds(5));
+    assertThat(deadline.timeout(Duration.ofSeconds(120))).isLessThan(Duration.ofSeconds(51));
+  }
+
+  @Test
+  void reserveIsAtMostAQuarterOfTheRemainingTime() {
+    when(ctx.getRemainingTimeInMillis()).thenReturn(4_000);
+    var deadline = Deadline.of(ctx, Duration.ofSeconds(10));
+    assertThat(deadline.remaining())
+        .isLessThanOrEqualTo(Duration.ofSeconds(3))
+        .isGreaterThan(Duration.ofSeconds(2));
+  }
+
+  @Test
+  void unknownRemainingTimeIsUnbounded() {
+    when(ctx.getRemainingTimeInMillis()).thenReturn(0);
+    var deadline = Deadline.of(ctx, Duration.ofSeconds(10));
+    assertThat(deadline.remaining()).isEqualTo(Deadline.UNBOUNDED);
+    assertThat(deadline.timeout(Duration.ofSeconds(5))).isEqualTo(Duration.ofSeconds(5));
+  }
+}
@@ -0,0 +1,160 @@
+package gov.va.api.lighthouse.callculon;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import gov.va.api.lighthouse.callculon.CallculonConfiguration.Deployment;
+import gov.va.api.lighthouse.callculon.CallculonConfiguration.Notification;
+import gov.va.api.lighthouse.callculon.CallculonConfiguration.Slack;
+import gov.va.api.lighthouse.callculon.Notifier.NotificationContext;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class DigestNotifierTest {
+
+  @Mock LambdaLogger logger;
+  @Mock Notifier delegate;
+  @Mock Function<HttpRequest, HttpResponse<String>> invoker;
+  @Mock HttpResponse<String> response;
+
+  private NotificationContext ctx(String channel, boolean digest, int statusCode, long millis) {
+    return NotificationContext.builder()
+        .secretProcessor(noSecrets())
+        .logger(logger)
+        .url("https://fugazi.com/" + statusCode)
+        .statusCode(statusCode)
+        .duration(Duration.ofMillis(millis))
+        .note(statusCode == 0 ? Optional.of("Error `IOException`") : Optional.empty())
+        .config(
+            CallculonConfiguration.builder()
+                .name("timer-" + millis)
+                .deployment(Deployment.builder().product("fugazi").environment("test").build())
+                .notification(
+                    Notification.builder()
+                        .slack(
+                            Slack.builder()
+                                .channel(channel)
+                                .webhook("https://fugazi.com/" + channel)
+                                .digest(digest)
+                                .build())
+                        .build())
+                .build())
+        .build();
+  }
+
+  private DigestNotifier digestNotifier(Duration window) {
+    return DigestNotifier.builder()
+        .slack(SlackNotifier.builder().invoker(invoker).build())
+        .delegate(delegate)
+        .window(window)
+        .build();
+  }
+
+  @Test
+  void digestIsSentWhenTheWindowHasPassed() {
+    when(response.statusCode()).thenReturn(200);
+    when(invoker.apply(any(HttpRequest.class))).thenReturn(response);
+    var notifier = digestNotifier(Duration.ZERO);
+    notifier.onFailure(ctx("window", true, 500, 10));
+    verify(invoker).apply(any(HttpRequest.class));
+  }
+
+  @Test
+  void expiredDigestsOfOtherChannelsAreLeftToFlush() {
+    when(response.statusCode()).thenReturn(200);
+    when(invoker.apply(any(HttpRequest.class))).thenReturn(response);
+    digestNotifier(Duration.ofHours(1)).onFailure(ctx("left-a", true, 500, 10));
+    var notifier = digestNotifier(Duration.ZERO);
+    notifier.onFailure(ctx("left-b", true, 500, 20));
+    verify(invoker).apply(argThat(r -> r.uri().getPath().equals("/left-b")));
+    notifier.flush(logger);
+    verify(invoker).apply(argThat(r -> r.uri().getPath().equals("/left-a")));
+  }
+
+  @Test
+  void flushDueOnlySendsDigestsPastTheWindow() {
+    when(response.statusCode()).thenReturn(200);
+    when(invoker.apply(any(HttpRequest.class))).thenReturn(response);
+    digestNotifier(Duration.ofHours(1)).onFailure(ctx("due-a", true, 500, 10));
+    digestNotifier(Duration.ofHours(1)).flushDue(logger);
+    verifyNoInteractions(invoker);
+    digestNotifier(Duration.ZERO).flushDue(logger);
+    verify(invoker).apply(argThat(r -> r.uri().getPath().equals("/due-a")));
+    verify(delegate, times(2)).flushDue(logger);
+  }
+
+  @Test
+  void flushSendsOneMessagePerChannel() {
+    when(response.statusCode()).thenReturn(200);
+    when(invoker.apply(any(HttpRequest.class))).thenReturn(response);
+    var notifier = digestNotifier(Duration.ofHours(1));
+    notifier.onSuccess(ctx("flush-a", true, 200, 10));
+    notifier.onFailure(ctx("flush-a", true, 500, 20));
+    notifier.onFailure(ctx("flush-a", true, 0, 30));
+    notifier.onFailure(ctx("flush-b", true, 503, 40));
+    verifyNoInteractions(invoker);
+    notifier.flush(logger);
+    verify(invoker, times(2)).apply(any(HttpRequest.class));
+    verify(delegate).flush(logger);
+  }
+
+  @Test
+  void nonDigestConfigurationsArePassedOn() {
+    var notifier = digestNotifier(Duration.ofHours(1));
+    notifier.onFailure(ctx("passed-on", false, 500, 10));
+    notifier.onSuccess(ctx("passed-on", false, 200, 10));
+    notifier.onRecovery(ctx("passed-on", false, 200, 10), 3);
+    verify(delegate).onFailure(ctx("passed-on", false, 500, 10));
+    verify(delegate).onSuccess(ctx("passed-on", false, 200, 10));
+    verify(delegate).onRecovery(ctx("passed-on", false, 200, 10), 3);
+    verifyNoInteractions(invoker);
+  }
+
+  private SecretProcessor noSecrets() {
+    return new SecretProcessor() {
+      @Override
+      public String identifier() {
+        return "noop";
+      }
+
+      @Override
+      public List<String> lookup(List<String> secrets) {
+        return secrets;
+      }
+    };
+  }
+
+  @Test
+  void successOnlyDigestsAreNotSentWhenOnlyFailuresAreWanted() {
+    var notifier = digestNotifier(Duration.ofHours(1));
+    notifier.onSuccess(ctx("all-good", true, 200, 10));
+    notifier.flush(logger);
+    verifyNoInteractions(invoker);
+  }
+
+  @Test
+  void windowFromEnvironmentVariables() {
+    assertThat(DigestNotifier.windowFromEnvironmentVariables(Map.of()))
+        .isEqualTo(Duration.ofMinutes(5));
+    assertThat(
+            DigestNotifier.windowFromEnvironmentVariables(
+                Map.of(DigestNotifier.OPTION_DIGEST_WINDOW, "PT1M")))
+        .isEqualTo(Duration.ofMinutes(1));
+  }
+}
@@ -0,0 +1,124 @@
+package gov.va.api.lighthouse.callculon;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gov.va.api.lighthouse.callculon.CallculonConfiguration.Deployment;
+import gov.va.api.lighthouse.callculon.CallculonResponse.Latency;
+import gov.va.api.lighthouse.callculon.CallculonResponse.LatencyBreach;
+import gov.va.api.lighthouse.callculon.CallculonResponse.NotifierResult;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class EmbeddedMetricsTest {
+
+  private final ObjectMapper mapper = new ObjectMapper();
+
+  @Mock LambdaLogger logger;
+
+  private CallculonConfiguration config() {
+    return CallculonConfiguration.builder()
+        .name("quote\"name")
+        .deployment(Deployment.builder().product("callculon").environment("qa").build())
+        .build();
+  }
+
+  @Test
+  void blankNamespaceIsDisabled() {
+    assertThat(EmbeddedMetrics.of(null)).isSameAs(EmbeddedMetrics.DISABLED);
+    assertThat(EmbeddedMetrics.of(" ")).isSameAs(EmbeddedMetrics.DISABLED);
+    EmbeddedMetrics.DISABLED.log(logger, config(), new CallculonResponse(), 1);
+    verifyNoInteractions(logger);
+  }
+
+  @Test
+  void enabledMetricsAreLogged() {
+    EmbeddedMetrics.of("Callculon").log(logger, config(), new CallculonResponse(), 1);
+    verify(logger).log(anyString());
+  }
+
+  @Test
+  @SneakyThrows
+  void lineIsEmbeddedMetricFormat() {
+    var response =
+        CallculonResponse.builder()
+            .statusCode(503)
+            .latency(Latency.builder().secretLookupMillis(3).notificationMillis(7).build())
+            .notifications(
+                List.of(
+                    NotifierResult.builder().notifier("SlackNotifier").build(),
+                    NotifierResult.builder().notifier("other").error("nope").build()))
+            .build();
+    JsonNode line =
+        mapper.readTree(EmbeddedMetrics.of("Call\"culon").line(1234L, config(), response, 42));
+    JsonNode aws = line.get("_aws");
+    assertThat(aws.get("Timestamp").asLong()).isEqualTo(1234L);
+    JsonNode directive = aws.get("CloudWatchMetrics").get(0);
+    assertThat(directive.get("Namespace").asText()).isEqualTo("Call\"culon");
+    assertThat(directive.get("Dimensions").toString())
+        .isEqualTo("[[\"product\",\"environment\",\"name\"]]");
+    List<String> names = new ArrayList<>();
+    for (JsonNode metric : directive.get("Metrics")) {
+      names.add(metric.get("Name").asText());
+      assertThat(line.has(metric.get("Name").asText())).isTrue();
+    }
+    assertThat(names)
+        .containsExactly(
+            "RequestDuration",
+            "SecretLookupDuration",
+            "NotificationDuration",
+            "Status2xx",
+            "Status3xx",
+            "Status4xx",
+            "Status5xx",
+            "Errors",
+            "NotificationErrors");
+    assertThat(line.get("product").asText()).isEqualTo("callculon");
+    assertThat(line.get("environment").asText()).isEqualTo("qa");
+    assertThat(line.get("name").asText()).isEqualTo("quote\"name");
+    assertThat(line.get("StatusCode").asInt()).isEqualTo(503);
+    assertThat(line.get("RequestDuration").asLong()).isEqualTo(42);
+    assertThat(line.get("SecretLookupDuration").asLong()).isEqualTo(3);
+    assertThat(line.get("NotificationDuration").asLong()).isEqualTo(7);
+    assertThat(line.get("Status2xx").asInt()).isZero();
+    assertThat(line.get("Status5xx").asInt()).isOne();
+    assertThat(line.get("Errors").asInt()).isOne();
+    assertThat(line.get("NotificationErrors").asInt()).isOne();
+  }
+
+  @Test
+  @SneakyThrows
+  void maxDurationBreachIsAnError() {
+    var response =
+        CallculonResponse.builder().statusCode(200).latencyBreach(LatencyBreach.MAX).build();
+    JsonNode line =
+        mapper.readTree(EmbeddedMetrics.of("Callculon").line(1, config(), response, 5));
+    assertThat(line.get("Status2xx").asInt()).isOne();
+    assertThat(line.get("Errors").asInt()).isOne();
+  }
+
+  @Test
+  @SneakyThrows
+  void missingValuesAreUnknownOrZero() {
+    var config = CallculonConfiguration.builder().name("lonely").build();
+    var response = CallculonResponse.builder().statusCode(204).build();
+    JsonNode line = mapper.readTree(EmbeddedMetrics.of("Callculon").line(1, config, response, 5));
+    assertThat(line.get("product").asText()).isEqualTo("unknown");
+    assertThat(line.get("environment").asText()).isEqualTo("unknown");
+    assertThat(line.get("SecretLookupDuration").asLong()).isZero();
+    assertThat(line.get("Status2xx").asInt()).isOne();
+    assertThat(line.get("Errors").asInt()).isZero();
+    assertThat(line.get("NotificationErrors").asInt()).isZero();
+  }
+}
@@ -0,0 +1,60 @@
+package gov.va.api.lighthouse.callculon;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import gov.va.api.lighthouse.callculon.CallculonConfiguration.Hedge;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class HedgePolicyTest {
+
+  @Test
+  void fixedDelayIsUsedUntilThereAreEnoughSamples() {
+    var hedge = Hedge.builder().delay("PT0.5S").percentile(90).build();
+    for (int i = 1; i < HedgePolicy.MIN_SAMPLES; i++) {
+      HedgePolicy.record("fixed-until-samples", Duration.ofMillis(i));
+    }
+    assertThat(HedgePolicy.delay(hedge, "fixed-until-samples")).contains(Duration.ofMillis(500));
+    HedgePolicy.record("fixed-until-samples", Duration.ofMillis(HedgePolicy.MIN_SAMPLES));
+    assertThat(HedgePolicy.delay(hedge, "fixed-until-samples")).contains(Duration.ofMillis(18));
+  }
+
+  @Test
+  void hedgingIsOffWithoutDelayOrSamples() {
+    assertThat(HedgePolicy.delay(null, "off")).isEmpty();
+    assertThat(HedgePolicy.delay(new Hedge(), "off")).isEmpty();
+    assertThat(HedgePolicy.delay(Hedge.builder().percentile(95).build(), "off")).isEmpty();
+  }
+
+  @Test
+  void onlyRecentSamplesAreUsed() {
+    for (int i = 0; i < 128; i++) {
+      HedgePolicy.record("recent", Duration.ofSeconds(10));
+    }
+    for (int i = 0; i < 128; i++) {
+      HedgePolicy.record("recent", Duration.ofMillis(100));
+    }
+    assertThat(HedgePolicy.delay(Hedge.builder().percentile(99).build(), "recent"))
+        .contains(Duration.ofMillis(100));
+  }
+
+  @Test
+  void percentileOfRecentSamples() {
+    for (int i = 1; i <= 100; i++) {
+      HedgePolicy.record("percentile", Duration.ofMillis(i));
+    }
+    assertThat(HedgePolicy.delay(Hedge.builder().percentile(95).build(), "percentile"))
+        .contains(Duration.ofMillis(95));
+    assertThat(HedgePolicy.delay(Hedge.builder().percentile(50).build(), "percentile"))
+        .contains(Duration.ofMillis(50));
+  }
+
+  @Test
+  void unnamedTargetsShareSamples() {
+    for (int i = 0; i < HedgePolicy.MIN_SAMPLES; i++) {
+      HedgePolicy.record(null, Duration.ofMillis(7));
+    }
+    assertThat(HedgePolicy.delay(Hedge.builder().percentile(50).build(), null))
+        .contains(Duration.ofMillis(7));
+  }
+}
@@ -0,0 +1,63 @@
+package gov.va.api.lighthouse.callculon;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+
+class HostLimiterTest {
+
+  @Test
+  @SneakyThrows
+  void hostsAreLimitedSeparately() {
+    var limiter = HostLimiter.of(1);
+    try (var permit = limiter.acquire("separately-a.example.com", Duration.ofSeconds(1))) {
+      limiter.acquire("separately-b.example.com", Duration.ofSeconds(1)).close();
+    }
+  }
+
+  @Test
+  @SneakyThrows
+  void permitsAreReturnedWhenClosed() {
+    var limiter = HostLimiter.of(1);
+    limiter.acquire("returned.example.com", Duration.ofSeconds(1)).close();
+    limiter.acquire("returned.example.com", Duration.ofSeconds(1)).close();
+  }
+
+  @Test
+  @SneakyThrows
+  void tryAcquireOnlyTakesAFreePermit() {
+    var limiter = HostLimiter.of(1);
+    try (var permit = limiter.acquire("try.example.com", Duration.ofSeconds(1))) {
+      assertThat(limiter.tryAcquire("try.example.com")).isEmpty();
+    }
+    var permit = limiter.tryAcquire("try.example.com");
+    assertThat(permit).isPresent();
+    permit.get().close();
+    assertThat(HostLimiter.of(0).tryAcquire("try.example.com")).isPresent();
+  }
+
+  @Test
+  @SneakyThrows
+  void waitingTooLongIsATimeout() {
+    var limiter = HostLimiter.of(2);
+    try (var first = limiter.acquire("busy.example.com", Duration.ofSeconds(1));
+        var second = limiter.acquire("busy.example.com", Duration.ofSeconds(1))) {
+      assertThatExceptionOfType(HttpTimeoutException.class)
+          .isThrownBy(() -> limiter.acquire("busy.example.com", Duration.ofMillis(10)))
+          .withMessageContaining("2 requests to busy.example.com");
+    }
+  }
+
+  @Test
+  @SneakyThrows
+  void zeroIsNoLimit() {
+    var limiter = HostLimiter.of(0);
+    for (int i = 0; i < 100; i++) {
+      assertThat(limiter.acquire("unlimited.example.com", Duration.ZERO)).isNotNull();
+    }
+  }
+}
@@ -0,0 +1,25 @@
+package gov.va.api.lighthouse.callculon;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.http.HttpClient.Redirect;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class HttpClientsTest {
+
+  @Test
+  void clientsAreSharedByConnectTimeout() {
+    assertThat(HttpClients.relaxed(Duration.ofSeconds(7)))
+        .isSameAs(HttpClients.relaxed(Duration.ofSeconds(7)));
+    assertThat(HttpClients.relaxed(Duration.ofSeconds(7)))
+        .isNotSameAs(HttpClients.relaxed(Duration.ofSeconds(8)));
+  }
+
+  @Test
+  void defaultClientUsesEnvironmentConnectTimeout() {
+    assertThat(HttpClients.relaxed()).isSameAs(HttpClients.relaxed(Duration.ofSeconds(20)));
+    assertThat(HttpClients.relaxed().connectTimeout()).contains(Duration.ofSeconds(20));
+    assertThat(HttpClients.relaxed().followRedirects()).isEqualTo(Redirect.NEVER);
+  }
+}
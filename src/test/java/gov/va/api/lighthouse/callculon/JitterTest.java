@@ -0,0 +1,57 @@
+package gov.va.api.lighthouse.callculon;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import gov.va.api.lighthouse.callculon.CallculonConfiguration.Deployment;
+import gov.va.api.lighthouse.callculon.CallculonHandler.InvalidConfiguration;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class JitterTest {
+
+  private static CallculonConfiguration config(String id, String jitter) {
+    return CallculonConfiguration.builder()
+        .name("fugazi")
+        .deployment(Deployment.builder().id(id).jitter(jitter).build())
+        .build();
+  }
+
+  @Test
+  void invalidWindowsAreRejected() {
+    for (String jitter : List.of("5 minutes", "PT0S", "-PT5M")) {
+      assertThatExceptionOfType(InvalidConfiguration.class)
+          .as(jitter)
+          .isThrownBy(() -> Jitter.offset(config("0-a", jitter)));
+    }
+  }
+
+  @Test
+  void noWindowIsNoOffset() {
+    assertThat(Jitter.offset(config("0-a", null))).isZero();
+    assertThat(Jitter.offset(CallculonConfiguration.builder().name("fugazi").build())).isZero();
+  }
+
+  @Test
+  void offsetUsesNameWithoutId() {
+    assertThat(Jitter.offset(config(null, "PT1H")))
+        .isEqualTo(Jitter.offset(config("fugazi", "PT1H")));
+  }
+
+  @Test
+  void offsetsAreStableAndSpreadAcrossTheWindow() {
+    Duration window = Duration.ofMinutes(5);
+    Set<Long> minutes = new HashSet<>();
+    for (int i = 0; i < 100; i++) {
+      var config = config("0-timer-" + i + "-0-0-0-000", "PT5M");
+      Duration offset = Jitter.offset(config);
+      assertThat(offset).isBetween(Duration.ZERO, window.minusMillis(1));
+      assertThat(Jitter.offset(config)).isEqualTo(offset);
+      minutes.add(offset.toMinutes());
+    }
+    assertThat(minutes).hasSize(5);
+  }
+}
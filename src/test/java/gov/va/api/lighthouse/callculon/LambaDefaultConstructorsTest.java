@@ -15,10 +15,18 @@ class LambaDefaultConstructorsTest {
      * constructors.
      */
     new CallculonResponse();
+    new CallculonResponse.Attempt();
+    new CallculonResponse.Latency();
+    new CallculonResponse.NotifierResult();
+    new CallculonBatch();
+    new CallculonBatchResponse();
     new CallculonConfiguration.Request();
     new CallculonConfiguration.Deployment();
     new CallculonConfiguration.Notification();
+    new CallculonConfiguration.Retry();
     new CallculonConfiguration.Slack();
     new CallculonHandler();
+    new CallculonBatchHandler();
+    new CallculonStreamHandler();
   }
 }
@@ -0,0 +1,60 @@
+package gov.va.api.lighthouse.callculon;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.Mockito.mock;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import gov.va.api.lighthouse.callculon.CallculonConfiguration.Request;
+import gov.va.api.lighthouse.callculon.CallculonHandler.InvalidConfiguration;
+import gov.va.api.lighthouse.callculon.CallculonResponse.LatencyBreach;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class LatencyBudgetTest {
+
+  @Test
+  void breachesAreReportedWithTheirDuration() {
+    var budget =
+        LatencyBudget.of(Request.builder().warnDuration("PT1S").maxDuration("PT5S").build());
+    assertThat(budget.breach(Duration.ofMillis(1000))).isEmpty();
+    assertThat(budget.note(Duration.ofMillis(1000))).isEmpty();
+    assertThat(budget.breach(Duration.ofMillis(1001))).contains(LatencyBreach.WARN);
+    assertThat(budget.note(Duration.ofMillis(1001)))
+        .contains("Took 1001 ms, more than the warnDuration of 1000 ms");
+    assertThat(budget.breach(Duration.ofMillis(5001))).contains(LatencyBreach.MAX);
+    assertThat(budget.note(Duration.ofMillis(5001)))
+        .contains("Took 5001 ms, more than the maxDuration of 5000 ms");
+  }
+
+  @Test
+  void invalidDurationsAreInvalidConfiguration() {
+    for (Request request :
+        List.of(
+            Request.builder().maxDuration("30 seconds").build(),
+            Request.builder().maxDuration("PT0S").build(),
+            Request.builder().warnDuration("-PT1S").build())) {
+      assertThatExceptionOfType(InvalidConfiguration.class)
+          .isThrownBy(() -> LatencyBudget.of(request));
+    }
+  }
+
+  @Test
+  void maxDurationBringsTheDeadlineForward() {
+    var unlimited = Deadline.of(mock(Context.class), Duration.ZERO);
+    var budget = LatencyBudget.of(Request.builder().maxDuration("PT1S").build());
+    assertThat(budget.limit(unlimited).remaining()).isLessThanOrEqualTo(Duration.ofSeconds(1));
+  }
+
+  @Test
+  void withoutDurationsNothingIsSlow() {
+    for (Request request : List.of(new Request(), Request.builder().maxDuration(" ").build())) {
+      var budget = LatencyBudget.of(request);
+      assertThat(budget.breach(Duration.ofHours(1))).isEmpty();
+      var deadline = Deadline.of(mock(Context.class), Duration.ZERO);
+      assertThat(budget.limit(deadline)).isSameAs(deadline);
+    }
+    assertThat(LatencyBudget.of(null).breach(Duration.ofHours(1))).isEmpty();
+  }
+}
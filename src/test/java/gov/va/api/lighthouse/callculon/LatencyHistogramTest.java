@@ -0,0 +1,77 @@
+package gov.va.api.lighthouse.callculon;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+  @Test
+  void bucketsAreExactForSmallValuesAndCloseForLargeValues() {
+    for (long millis = 0; millis < 128; millis++) {
+      assertThat(LatencyHistogram.upperBound(LatencyHistogram.index(millis))).isEqualTo(millis);
+    }
+    for (long millis = 128; millis <= LatencyHistogram.MAX_MILLIS; millis += 997) {
+      long upperBound = LatencyHistogram.upperBound(LatencyHistogram.index(millis));
+      assertThat(upperBound).isBetween(millis, millis + millis / 64);
+    }
+  }
+
+  @Test
+  void emptyHistogramIsZero() {
+    var latencies = LatencyHistogram.of("empty");
+    assertThat(latencies.count()).isZero();
+    assertThat(latencies.percentile(99)).isZero();
+    assertThat(latencies.percentiles().getMaxMillis()).isZero();
+  }
+
+  @Test
+  void histogramIsSharedByTarget() {
+    LatencyHistogram.of("shared").record(Duration.ofMillis(5));
+    assertThat(LatencyHistogram.of("shared").count()).isOne();
+    assertThat(LatencyHistogram.of("not-shared").count()).isZero();
+  }
+
+  @Test
+  void percentilesOfRecordedLatencies() {
+    var latencies = LatencyHistogram.of("percentiles");
+    for (int i = 1; i <= 1000; i++) {
+      latencies.record(Duration.ofMillis(i));
+    }
+    var percentiles = latencies.percentiles();
+    assertThat(percentiles.getCount()).isEqualTo(1000);
+    assertThat(percentiles.getP50Millis()).isBetween(500L, 507L);
+    assertThat(percentiles.getP90Millis()).isBetween(900L, 914L);
+    assertThat(percentiles.getP99Millis()).isBetween(990L, 1000L);
+    assertThat(percentiles.getMaxMillis()).isEqualTo(1000);
+  }
+
+  @Test
+  void percentilesNeverExceedMax() {
+    var latencies = LatencyHistogram.of("never-exceed-max");
+    latencies.record(Duration.ofMillis(1000));
+    assertThat(latencies.percentile(50)).isEqualTo(1000);
+    latencies.record(Duration.ofHours(2));
+    assertThat(latencies.percentiles().getMaxMillis()).isEqualTo(LatencyHistogram.MAX_MILLIS);
+  }
+
+  @Test
+  void reportIsDueEachIntervalOnceSomethingIsRecorded() {
+    var latencies = LatencyHistogram.of("report");
+    long later = System.nanoTime() + Duration.ofMinutes(15).toNanos();
+    assertThat(latencies.reportDue(later, Duration.ofMinutes(15))).isFalse();
+    latencies.record(Duration.ofMillis(5));
+    assertThat(latencies.reportDue(System.nanoTime(), Duration.ofMinutes(15))).isFalse();
+    assertThat(latencies.reportDue(later, Duration.ofMinutes(15))).isTrue();
+    assertThat(latencies.reportDue(later, Duration.ofMinutes(15))).isFalse();
+    long evenLater = later + Duration.ofMinutes(15).toNanos();
+    assertThat(latencies.reportDue(evenLater, Duration.ofMinutes(15))).isTrue();
+  }
+
+  @Test
+  void unnamedTargetsShareAHistogram() {
+    LatencyHistogram.of(null).record(Duration.ofMillis(5));
+    assertThat(LatencyHistogram.of(null).count()).isPositive();
+  }
+}
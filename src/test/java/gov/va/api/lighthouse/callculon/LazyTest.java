@@ -0,0 +1,56 @@
+package gov.va.api.lighthouse.callculon;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class LazyTest {
+
+  @Test
+  void givenValueIsUsedWithoutCreating() {
+    AtomicInteger created = new AtomicInteger();
+    var lazy = Lazy.orElse("given", () -> "created " + created.incrementAndGet());
+    assertThat(lazy.get()).isEqualTo("given");
+    assertThat(created).hasValue(0);
+  }
+
+  @Test
+  void valueIsCreatedOnceOnFirstUse() throws Exception {
+    AtomicInteger created = new AtomicInteger();
+    CountDownLatch start = new CountDownLatch(1);
+    var lazy =
+        Lazy.orElse(
+            null,
+            () -> {
+              created.incrementAndGet();
+              return new Object();
+            });
+    assertThat(created).hasValue(0);
+    var futures =
+        IntStream.range(0, 8)
+            .mapToObj(
+                i ->
+                    CompletableFuture.supplyAsync(
+                        () -> {
+                          try {
+                            start.await(5, TimeUnit.SECONDS);
+                          } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                          }
+                          return lazy.get();
+                        }))
+            .collect(toList());
+    start.countDown();
+    var first = futures.get(0).get(5, TimeUnit.SECONDS);
+    for (var future : futures) {
+      assertThat(future.get(5, TimeUnit.SECONDS)).isSameAs(first);
+    }
+    assertThat(created).hasValue(1);
+  }
+}
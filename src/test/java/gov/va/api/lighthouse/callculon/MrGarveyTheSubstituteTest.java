@@ -7,6 +7,18 @@ import org.junit.jupiter.api.Test;
 
 class MrGarveyTheSubstituteTest {
 
+  @Test
+  void keysWithoutSubstitutionsAreLeftAsIs() {
+    String expected = "{ \"student\" : \"${name}\", \"warning\" : \"you done goofed ${name}\" }";
+    String actual =
+        MrGarveyTheSubstitute.builder()
+            .resource("/mr-garvey.json")
+            .substitutions(Map.of("verb", "goofed"))
+            .build()
+            .rollCall();
+    assertThat(actual).isEqualToIgnoringWhitespace(expected);
+  }
+
   @Test
   void performsSubstitution() {
     String expected = "{ \"student\" : \"a-aron\", \"warning\" : \"you done messed up a-aron\" }";
@@ -18,4 +30,18 @@ class MrGarveyTheSubstituteTest {
             .rollCall();
     assertThat(actual).isEqualToIgnoringWhitespace(expected);
   }
+
+  @Test
+  void substitutionsAreEscapedForJson() {
+    String expected =
+        "{ \"student\" : \"\\\"a-aron\\\"\","
+            + " \"warning\" : \"you done messed\\nup \\\\o/ \\\"a-aron\\\"\" }";
+    String actual =
+        MrGarveyTheSubstitute.builder()
+            .resource("/mr-garvey.json")
+            .substitutions(Map.of("verb", "messed\nup \\o/", "name", "\"a-aron\""))
+            .build()
+            .rollCall();
+    assertThat(actual).isEqualToIgnoringWhitespace(expected);
+  }
 }
@@ -0,0 +1,97 @@
+package gov.va.api.lighthouse.callculon;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import gov.va.api.lighthouse.callculon.NotificationOutbox.Entry;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class NotificationOutboxTest {
+
+  static final Instant NOW = Instant.parse("2020-06-01T12:00:00Z");
+
+  @TempDir Path directory;
+
+  private Entry entry(String message, Instant created) {
+    return Entry.builder()
+        .created(created)
+        .channel("shanktovoid")
+        .webhook("https://hooks.slack.com/aws-secret(/dvp/slack/liberty)")
+        .message(message)
+        .build();
+  }
+
+  private NotificationOutbox outbox(int maxEntries, Instant now) {
+    return NotificationOutbox.builder()
+        .file(directory.resolve("outbox"))
+        .maxEntries(maxEntries)
+        .maxAge(Duration.ofHours(1))
+        .clock(Clock.fixed(now, ZoneOffset.UTC))
+        .build();
+  }
+
+  @Test
+  void corruptLinesAreSkipped() throws Exception {
+    var outbox = outbox(10, NOW);
+    outbox.add(entry("{\"text\":\"a\tb\nc\"}", NOW));
+    Files.writeString(
+        directory.resolve("outbox"), "nope\n12\tpartial", StandardOpenOption.APPEND);
+    assertThat(outbox.drain()).containsExactly(entry("{\"text\":\"a\tb\nc\"}", NOW));
+  }
+
+  @Test
+  void drainEmptiesTheOutbox() {
+    var outbox = outbox(10, NOW);
+    assertThat(outbox.isEmpty()).isTrue();
+    assertThat(outbox.drain()).isEmpty();
+    outbox.add(entry("a", NOW.minusSeconds(2)));
+    outbox.add(entry("b", NOW.minusSeconds(1)));
+    assertThat(outbox.isEmpty()).isFalse();
+    assertThat(outbox.drain())
+        .containsExactly(entry("a", NOW.minusSeconds(2)), entry("b", NOW.minusSeconds(1)));
+    assertThat(outbox.isEmpty()).isTrue();
+  }
+
+  @Test
+  void expiredEntriesAreDropped() {
+    outbox(10, NOW).add(entry("old", NOW));
+    outbox(10, NOW).add(entry("new", NOW.plus(Duration.ofMinutes(30))));
+    var later = outbox(10, NOW.plus(Duration.ofMinutes(90)));
+    assertThat(later.drain()).containsExactly(entry("new", NOW.plus(Duration.ofMinutes(30))));
+  }
+
+  @Test
+  void fromEnvironmentVariables() {
+    var outbox =
+        NotificationOutbox.fromEnvironmentVariables(
+            Map.of(
+                NotificationOutbox.OPTION_OUTBOX_FILE,
+                directory.resolve("env-outbox").toString(),
+                NotificationOutbox.OPTION_OUTBOX_SIZE,
+                "2"));
+    outbox.add(entry("a", Instant.now()));
+    outbox.add(entry("b", Instant.now()));
+    outbox.add(entry("c", Instant.now()));
+    assertThat(outbox.drain().stream().map(Entry::message).collect(toList()))
+        .containsExactly("b", "c");
+  }
+
+  @Test
+  void oldestEntriesAreDroppedWhenFull() {
+    var outbox = outbox(3, NOW);
+    for (int i = 0; i < 5; i++) {
+      outbox.add(entry("m" + i, NOW));
+    }
+    assertThat(outbox.drain().stream().map(Entry::message).collect(toList()))
+        .containsExactly("m2", "m3", "m4");
+  }
+}
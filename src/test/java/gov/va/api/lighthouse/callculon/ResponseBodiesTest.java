@@ -0,0 +1,85 @@
+package gov.va.api.lighthouse.callculon;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import gov.va.api.lighthouse.callculon.CallculonConfiguration.BodyMode;
+import gov.va.api.lighthouse.callculon.CallculonConfiguration.Request;
+import java.net.http.HttpResponse.BodyHandler;
+import java.net.http.HttpResponse.BodySubscriber;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.Flow.Subscription;
+import org.junit.jupiter.api.Test;
+
+class ResponseBodiesTest {
+
+  private static String read(BodyHandler<String> handler, String... chunks) {
+    BodySubscriber<String> subscriber = handler.apply(null);
+    subscriber.onSubscribe(mock(Subscription.class));
+    for (String chunk : chunks) {
+      subscriber.onNext(List.of(ByteBuffer.wrap(chunk.getBytes(StandardCharsets.UTF_8))));
+    }
+    subscriber.onComplete();
+    return subscriber.getBody().toCompletableFuture().join();
+  }
+
+  @Test
+  void captureBytesAreDefaultedAndBounded() {
+    assertThat(ResponseBodies.captureBytes(Request.builder().build()))
+        .isEqualTo(ResponseBodies.DEFAULT_CAPTURE_BYTES);
+    assertThat(ResponseBodies.captureBytes(Request.builder().captureBytes(10).build()))
+        .isEqualTo(10);
+    assertThat(ResponseBodies.captureBytes(Request.builder().captureBytes(1 << 30).build()))
+        .isEqualTo(ResponseBodies.MAX_CAPTURE_BYTES);
+  }
+
+  @Test
+  void captureKeepsOnlyTheFirstBytes() {
+    assertThat(read(ResponseBodies.capture(5), "abc", "defgh", "ijk")).isEqualTo("abcde");
+    assertThat(read(ResponseBodies.capture(5), "abc")).isEqualTo("abc");
+  }
+
+  @Test
+  void captureNeverSplitsACharacter() {
+    /* An e with an acute accent is two bytes and an emoji is four, so each limit splits one. */
+    assertThat(read(ResponseBodies.capture(4), "abc\u00e9")).isEqualTo("abc");
+    assertThat(read(ResponseBodies.capture(5), "ab\uD83D\uDE00")).isEqualTo("ab");
+    assertThat(read(ResponseBodies.capture(6), "ab\uD83D\uDE00", "cd")).isEqualTo("ab\uD83D\uDE00");
+    assertThat(read(ResponseBodies.capture(1), "\u00e9")).isEmpty();
+  }
+
+  @Test
+  void captureReadsTheWholeBody() {
+    Subscription subscription = mock(Subscription.class);
+    ResponseBodies.capture(5).apply(null).onSubscribe(subscription);
+    verify(subscription).request(Long.MAX_VALUE);
+  }
+
+  @Test
+  void discardKeepsNothing() {
+    assertThat(read(ResponseBodies.discard(), "abc", "def")).isNull();
+  }
+
+  @Test
+  void headersOnlyCancelsTheBody() {
+    Subscription subscription = mock(Subscription.class);
+    BodySubscriber<String> subscriber = ResponseBodies.headersOnly().apply(null);
+    subscriber.onSubscribe(subscription);
+    verify(subscription).cancel();
+    assertThat(subscriber.getBody().toCompletableFuture().join()).isNull();
+  }
+
+  @Test
+  void requestBodyModeSelectsHandler() {
+    assertThat(
+            read(
+                ResponseBodies.forRequest(
+                    Request.builder().bodyMode(BodyMode.CAPTURE).captureBytes(2).build()),
+                "abc"))
+        .isEqualTo("ab");
+    assertThat(read(ResponseBodies.forRequest(Request.builder().build()), "abc")).isNull();
+  }
+}
@@ -0,0 +1,95 @@
+package gov.va.api.lighthouse.callculon;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gov.va.api.lighthouse.callculon.CallculonResponse.Attempt;
+import gov.va.api.lighthouse.callculon.CallculonResponse.Latency;
+import gov.va.api.lighthouse.callculon.CallculonResponse.LatencyBreach;
+import gov.va.api.lighthouse.callculon.CallculonResponse.LatencyPercentiles;
+import gov.va.api.lighthouse.callculon.CallculonResponse.NotifierResult;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+
+class ResponseEncoderTest {
+
+  private final ObjectMapper mapper =
+      new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+  @SneakyThrows
+  private void assertEncodedLikeTheReflectiveSerializer(CallculonResponse response) {
+    String json = ResponseEncoder.encode(response);
+    assertThat(mapper.readTree(json))
+        .isEqualTo(mapper.readTree(mapper.writeValueAsString(response)));
+  }
+
+  @SneakyThrows
+  private CallculonConfiguration config() {
+    try (var in = getClass().getResourceAsStream("/stream-configuration.json")) {
+      return ConfigurationDecoder.decode(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+  }
+
+  @Test
+  void emptyResponse() {
+    assertEncodedLikeTheReflectiveSerializer(new CallculonResponse());
+  }
+
+  @Test
+  void everyField() {
+    assertEncodedLikeTheReflectiveSerializer(
+        CallculonResponse.builder()
+            .configuration(config())
+            .statusCode(503)
+            .requestTime("2020-06-01T12:00:00Z")
+            .duration("PT0.123S")
+            .notificationError(true)
+            .notifications(
+                List.of(
+                    NotifierResult.builder().notifier("SlackNotifier").millis(12).build(),
+                    NotifierResult.builder().notifier("other").error("nope \"x\"").build(),
+                    NotifierResult.builder().notifier("queue").queued("later").build()))
+            .originRecentlyContacted(true)
+            .latency(
+                Latency.builder()
+                    .secretLookupMillis(1)
+                    .timeToHeadersMillis(2)
+                    .bodyMillis(3)
+                    .notificationMillis(4)
+                    .totalMillis(10)
+                    .build())
+            .latencyPercentiles(
+                LatencyPercentiles.builder()
+                    .count(40)
+                    .p50Millis(12)
+                    .p90Millis(30)
+                    .p99Millis(95)
+                    .maxMillis(101)
+                    .build())
+            .latencyBreach(LatencyBreach.MAX)
+            .hedged(true)
+            .hedgeWon(true)
+            .attempts(
+                List.of(
+                    Attempt.builder().statusCode(0).error("IOException").millis(5).build(),
+                    Attempt.builder().statusCode(503).millis(6).build()))
+            .body("{\"oops\":\"\u0001\"}\n")
+            .error("InvalidConfiguration: missing port")
+            .build());
+  }
+
+  @Test
+  void partialConfiguration() {
+    var config = config();
+    config.getRequest().setHeaders(null);
+    config.getRequest().setRetry(null);
+    config.setDeployment(null);
+    config.getNotification().setSlack(null);
+    assertEncodedLikeTheReflectiveSerializer(
+        CallculonResponse.builder().configuration(config).statusCode(200).build());
+  }
+}
@@ -0,0 +1,63 @@
+package gov.va.api.lighthouse.callculon;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import gov.va.api.lighthouse.callculon.CallculonConfiguration.Retry;
+import java.io.IOException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class RetryPolicyTest {
+
+  @Test
+  void backoffGrowsExponentiallyUpToTheMaximum() {
+    var policy =
+        RetryPolicy.of(Retry.builder().initialBackoff("PT0.1S").maxBackoff("PT0.3S").build());
+    for (int i = 0; i < 100; i++) {
+      assertThat(policy.backoff(1)).isBetween(Duration.ZERO, Duration.ofMillis(100));
+      assertThat(policy.backoff(2)).isBetween(Duration.ZERO, Duration.ofMillis(200));
+      assertThat(policy.backoff(3)).isBetween(Duration.ZERO, Duration.ofMillis(300));
+      assertThat(policy.backoff(60)).isBetween(Duration.ZERO, Duration.ofMillis(300));
+    }
+  }
+
+  @Test
+  void defaultsAreUsedForMissingValues() {
+    var policy = RetryPolicy.of(new Retry());
+    assertThat(policy.maxAttempts()).isEqualTo(RetryPolicy.DEFAULT_MAX_ATTEMPTS);
+    assertThat(policy.isRetryable(503)).isTrue();
+    assertThat(policy.isRetryable(500)).isFalse();
+    assertThat(policy.isRetryable(new IOException("fugazi"))).isTrue();
+  }
+
+  @Test
+  void exceptionsAreMatchedBySuperClassName() {
+    var policy =
+        RetryPolicy.of(
+            Retry.builder()
+                .exceptions(List.of("java.net.http.HttpTimeoutException", "ConnectException"))
+                .build());
+    assertThat(policy.isRetryable(new HttpTimeoutException("slow"))).isTrue();
+    assertThat(policy.isRetryable(new java.net.http.HttpConnectTimeoutException("slow"))).isTrue();
+    assertThat(policy.isRetryable(new java.net.ConnectException("nope"))).isTrue();
+    assertThat(policy.isRetryable(new IOException("fugazi"))).isFalse();
+  }
+
+  @Test
+  void nothingIsRetriedWithoutConfiguration() {
+    var policy = RetryPolicy.of(null);
+    assertThat(policy.maxAttempts()).isEqualTo(1);
+    assertThat(policy.isRetryable(503)).isFalse();
+    assertThat(policy.isRetryable(new IOException("fugazi"))).isFalse();
+  }
+
+  @Test
+  void statusesCanBeConfigured() {
+    var policy = RetryPolicy.of(Retry.builder().maxAttempts(5).statuses(List.of(500)).build());
+    assertThat(policy.maxAttempts()).isEqualTo(5);
+    assertThat(policy.isRetryable(500)).isTrue();
+    assertThat(policy.isRetryable(503)).isFalse();
+  }
+}
@@ -0,0 +1,135 @@
+package gov.va.api.lighthouse.callculon;
+
+import static java.util.stream.Collectors.toMap;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+
+class SecretCacheTest {
+
+  TestClock clock = new TestClock();
+
+  List<List<String>> loads = new ArrayList<>();
+
+  String version = "v1";
+
+  private SecretCache cache(int maxSize) {
+    return SecretCache.builder()
+        .ttl(Duration.ofMinutes(5))
+        .staleTtl(Duration.ofMinutes(10))
+        .maxSize(maxSize)
+        .clock(clock)
+        .refresher(Runnable::run)
+        .build();
+  }
+
+  @Test
+  void evictsLeastRecentlyUsedWhenFull() {
+    SecretCache cache = cache(2);
+    cache.get(List.of("a", "b"), loader());
+    cache.get(List.of("a"), loader());
+    cache.get(List.of("c"), loader());
+    assertThat(cache.statistics().getEvictions()).isEqualTo(1);
+    assertThat(cache.statistics().getSize()).isEqualTo(2);
+    loads.clear();
+    cache.get(List.of("a", "b", "c"), loader());
+    assertThat(loads).containsExactly(List.of("b"));
+  }
+
+  @Test
+  void expiredValuesAreLoadedAgain() {
+    SecretCache cache = cache(10);
+    cache.get(List.of("a"), loader());
+    clock.advance(Duration.ofMinutes(16));
+    version = "v2";
+    assertThat(cache.get(List.of("a"), loader())).containsEntry("a", "a-v2");
+    assertThat(loads).hasSize(2);
+    assertThat(cache.statistics().getMisses()).isEqualTo(2);
+  }
+
+  @Test
+  void freshValuesAreServedFromCache() {
+    SecretCache cache = cache(10);
+    assertThat(cache.get(List.of("a", "b"), loader())).isEqualTo(Map.of("a", "a-v1", "b", "b-v1"));
+    clock.advance(Duration.ofMinutes(4));
+    assertThat(cache.get(List.of("b", "c"), loader())).isEqualTo(Map.of("b", "b-v1", "c", "c-v1"));
+    assertThat(loads).containsExactly(List.of("a", "b"), List.of("c"));
+    assertThat(cache.statistics().getHits()).isEqualTo(1);
+    assertThat(cache.statistics().getMisses()).isEqualTo(3);
+  }
+
+  private Function<List<String>, Map<String, String>> loader() {
+    return names -> {
+      loads.add(names);
+      return names.stream()
+          .filter(n -> !n.equals("missing"))
+          .collect(toMap(Function.identity(), n -> n + "-" + version));
+    };
+  }
+
+  @Test
+  void missingValuesAreOmitted() {
+    SecretCache cache = cache(10);
+    assertThat(cache.get(List.of("a", "missing"), loader())).isEqualTo(Map.of("a", "a-v1"));
+  }
+
+  @Test
+  void refreshFailuresKeepServingStaleValues() {
+    SecretCache cache = cache(10);
+    cache.get(List.of("a"), loader());
+    clock.advance(Duration.ofMinutes(6));
+    Map<String, String> values =
+        cache.get(
+            List.of("a"),
+            names -> {
+              throw new IllegalStateException("ssm is down");
+            });
+    assertThat(values).containsEntry("a", "a-v1");
+    assertThat(cache.statistics().getRefreshFailures()).isEqualTo(1);
+  }
+
+  @Test
+  void staleValuesAreServedWhileRefreshing() {
+    SecretCache cache = cache(10);
+    cache.get(List.of("a"), loader());
+    clock.advance(Duration.ofMinutes(6));
+    version = "v2";
+    assertThat(cache.get(List.of("a"), loader())).containsEntry("a", "a-v1");
+    assertThat(cache.get(List.of("a"), loader())).containsEntry("a", "a-v2");
+    assertThat(loads).hasSize(2);
+    assertThat(cache.statistics().getStaleHits()).isEqualTo(1);
+    assertThat(cache.statistics().getHits()).isEqualTo(1);
+  }
+
+  static class TestClock extends Clock {
+    Instant now = Instant.parse("2021-06-01T00:00:00Z");
+
+    void advance(Duration duration) {
+      now = now.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+  }
+}
@@ -6,6 +6,8 @@ import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
 import gov.va.api.lighthouse.callculon.SecretProcessor.InvalidSecretSpecification;
 import gov.va.api.lighthouse.callculon.SecretProcessor.MissingLookupValue;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 import org.junit.jupiter.api.Test;
@@ -51,6 +53,33 @@ class SecretProcessorTest {
     assertThat(UPCASE.apply("An up(  awesome  ) up( possum)!")).isEqualTo("An AWESOME POSSUM!");
   }
 
+  @Test
+  void allValuesAreResolvedWithOneLookup() {
+    List<List<String>> lookups = new ArrayList<>();
+    SecretProcessor counting =
+        new SecretProcessor() {
+          @Override
+          public String identifier() {
+            return "up";
+          }
+
+          @Override
+          public List<String> lookup(List<String> secrets) {
+            lookups.add(secrets);
+            return UPCASE.lookup(secrets);
+          }
+        };
+    SecretProcessor resolved =
+        counting.resolveAll(Arrays.asList("/up(a)/up(b)", null, "up(b) up(c)", "plain"));
+    assertThat(lookups).containsExactly(List.of("a", "b", "c"));
+    assertThat(resolved.apply("/up(a)/up(b)")).isEqualTo("/A/B");
+    assertThat(resolved.apply("up(b) up(c)")).isEqualTo("B C");
+    assertThat(resolved.apply("plain")).isEqualTo("plain");
+    assertThat(lookups).hasSize(1);
+    assertThat(resolved.apply("up(d)")).isEqualTo("D");
+    assertThat(lookups).hasSize(2);
+  }
+
   @Test
   void invalidSpecificationsThrowsExceptions() {
     for (String bad :
@@ -70,6 +99,26 @@ class SecretProcessorTest {
     }
   }
 
+  @Test
+  void missingValuesAreNotResolvedUpFront() {
+    SecretProcessor whoops =
+        new SecretProcessor() {
+          @Override
+          public String identifier() {
+            return "whoops";
+          }
+
+          @Override
+          public List<String> lookup(List<String> secrets) {
+            return List.of("just one");
+          }
+        };
+    SecretProcessor resolved = whoops.resolveAll(List.of("whoops(one)", "whoops(nope)"));
+    assertThat(resolved).isSameAs(whoops);
+    assertThatExceptionOfType(MissingLookupValue.class)
+        .isThrownBy(() -> resolved.apply("whoops(one) whoops(nope)"));
+  }
+
   @Test
   void notEnoughValuesThrowsException() {
     SecretProcessor whoops =
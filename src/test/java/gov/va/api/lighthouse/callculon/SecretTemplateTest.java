@@ -0,0 +1,39 @@
+package gov.va.api.lighthouse.callculon;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class SecretTemplateTest {
+
+  @Test
+  void parsedTemplatesAreReused() {
+    assertThat(SecretTemplate.parse("up", "reuse up(me)"))
+        .isSameAs(SecretTemplate.parse("up", "reuse up(me)"));
+    assertThat(SecretTemplate.parse("up", "reuse up(me)"))
+        .isNotSameAs(SecretTemplate.parse("down", "reuse up(me)"));
+  }
+
+  @Test
+  void renderSubstitutesValuesInOrder() {
+    SecretTemplate template = SecretTemplate.parse("up", "(up(a))-up(b)up(a) and up( c )!");
+    assertThat(template.secrets()).containsExactly("a", "b", "a", "c");
+    assertThat(template.render(List.of("1", "22", "333", "4444")))
+        .isEqualTo("(1)-22333 and 4444!");
+  }
+
+  @Test
+  void shortestNameIsUsed() {
+    SecretTemplate template = SecretTemplate.parse("up", "up(a)b)");
+    assertThat(template.secrets()).containsExactly("a");
+    assertThat(template.render(List.of("A"))).isEqualTo("Ab)");
+  }
+
+  @Test
+  void tokensNotOnAWordBreakAreLiterals() {
+    SecretTemplate template = SecretTemplate.parse("up", "cup(a) sup(b)");
+    assertThat(template.secrets()).isEmpty();
+    assertThat(template.render(List.of())).isEqualTo("cup(a) sup(b)");
+  }
+}
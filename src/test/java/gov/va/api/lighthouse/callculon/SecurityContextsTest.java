@@ -0,0 +1,81 @@
+package gov.va.api.lighthouse.callculon;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.util.Map;
+import javax.net.ssl.SSLParameters;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.mockserver.client.MockServerClient;
+import org.mockserver.netty.MockServer;
+
+class SecurityContextsTest {
+
+  @Test
+  @SneakyThrows
+  void handshakesAreCounted() {
+    MockServer server = new MockServer();
+    MockServerClient mockHttp = new MockServerClient("localhost", server.getLocalPort());
+    try {
+      mockHttp.when(request().withPath("/tls")).respond(response().withStatusCode(200));
+      long fullBefore = TlsHandshakes.full();
+      long resumedBefore = TlsHandshakes.resumed();
+      for (int i = 0; i < 2; i++) {
+        /*
+         * A new client each time, so each request needs its own connection and handshake. TLS 1.2
+         * resumes the cached session itself, so the second handshake is reliably a resumption.
+         */
+        var client =
+            HttpClient.newBuilder()
+                .sslContext(SecurityContexts.relaxed())
+                .sslParameters(new SSLParameters(null, new String[] {"TLSv1.2"}))
+                .build();
+        var response =
+            client.send(
+                HttpRequest.newBuilder(
+                        URI.create("https://localhost:" + server.getLocalPort() + "/tls"))
+                    .build(),
+                BodyHandlers.discarding());
+        assertThat(response.statusCode()).isEqualTo(200);
+        /* Creation times are in milliseconds, so let the first session be strictly older. */
+        Thread.sleep(5);
+      }
+      assertThat(TlsHandshakes.full()).isEqualTo(fullBefore + 1);
+      assertThat(TlsHandshakes.resumed()).isEqualTo(resumedBefore + 1);
+      assertThat(TlsHandshakes.statistics()).startsWith("TLS handshakes full=");
+    } finally {
+      server.stop();
+      server.close();
+      mockHttp.stop(true);
+      mockHttp.close();
+    }
+  }
+
+  @Test
+  void relaxedContextIsShared() {
+    assertThat(SecurityContexts.relaxed()).isSameAs(SecurityContexts.relaxed());
+  }
+
+  @Test
+  void sessionCacheIsConfigurable() {
+    var sessions =
+        SecurityContexts.createRelaxed(
+                Map.of(
+                    SecurityContexts.OPTION_TLS_SESSION_CACHE_SIZE,
+                    "7",
+                    SecurityContexts.OPTION_TLS_SESSION_TIMEOUT,
+                    "PT10M"))
+            .getClientSessionContext();
+    assertThat(sessions.getSessionCacheSize()).isEqualTo(7);
+    assertThat(sessions.getSessionTimeout()).isEqualTo(600);
+    assertThat(SecurityContexts.createRelaxed(Map.of()).getClientSessionContext())
+        .extracting(s -> s.getSessionCacheSize(), s -> s.getSessionTimeout())
+        .containsExactly(100, 3600);
+  }
+}
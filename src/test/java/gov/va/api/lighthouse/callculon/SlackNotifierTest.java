@@ -1,7 +1,9 @@
 package gov.va.api.lighthouse.callculon;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
@@ -12,14 +14,20 @@ import gov.va.api.lighthouse.callculon.CallculonConfiguration.Notification;
 import gov.va.api.lighthouse.callculon.CallculonConfiguration.Slack;
 import gov.va.api.lighthouse.callculon.Notifier.NotificationContext;
 import gov.va.api.lighthouse.callculon.Notifier.NotificationFailure;
+import gov.va.api.lighthouse.callculon.Notifier.NotificationQueued;
+import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -29,6 +37,8 @@ class SlackNotifierTest {
   @Mock LambdaLogger logger;
   @Mock Function<HttpRequest, HttpResponse<String>> invoker;
   @Mock HttpResponse<String> response;
+  @Mock HttpResponse<String> unavailable;
+  @TempDir Path outboxDirectory;
 
   private CallculonConfiguration config(boolean onFailure, boolean onSuccess) {
     return CallculonConfiguration.builder()
@@ -79,6 +89,22 @@ class SlackNotifierTest {
     };
   }
 
+  @Test
+  void failedMessageIsSavedAndRedelivered() {
+    when(unavailable.statusCode()).thenReturn(503);
+    when(response.statusCode()).thenReturn(200);
+    when(invoker.apply(any(HttpRequest.class))).thenReturn(unavailable, response);
+    var outbox = NotificationOutbox.builder().file(outboxDirectory.resolve("outbox")).build();
+    var ctx = failContext(true);
+    ctx.getConfig().getNotification().getSlack().setWebhook("https://fugazi.com/redelivered");
+    var slack = SlackNotifier.builder().invoker(invoker).outbox(outbox).build();
+    assertThatExceptionOfType(NotificationQueued.class).isThrownBy(() -> slack.onFailure(ctx));
+    assertThat(outbox.isEmpty()).isFalse();
+    slack.redeliver(noSecrets(), logger);
+    assertThat(outbox.isEmpty()).isTrue();
+    verify(invoker, times(2)).apply(any(HttpRequest.class));
+  }
+
   @Test
   void onFailureDoesNotSendMessageWhenDisabled() {
     SlackNotifier.builder().invoker(invoker).build().onFailure(failContext(false));
@@ -108,6 +134,14 @@ class SlackNotifierTest {
     verify(invoker).apply(any(HttpRequest.class));
   }
 
+  @Test
+  void onRecoverySendsMessageWhenFailuresAreEnabled() {
+    when(response.statusCode()).thenReturn(200);
+    when(invoker.apply(any(HttpRequest.class))).thenReturn(response);
+    SlackNotifier.builder().invoker(invoker).build().onRecovery(successContext(false), 3);
+    verify(invoker).apply(any(HttpRequest.class));
+  }
+
   @Test
   void onSuccessDoesNotSendMessageWhenDisabled() {
     SlackNotifier.builder().invoker(invoker).build().onSuccess(successContext(false));
@@ -137,6 +171,87 @@ class SlackNotifierTest {
     verify(invoker).apply(any(HttpRequest.class));
   }
 
+  @Test
+  void onWarningDoesNotSendMessageWhenFailuresAreDisabled() {
+    SlackNotifier.builder().invoker(invoker).build().onWarning(failContext(false));
+    verifyNoInteractions(invoker);
+  }
+
+  @Test
+  void onWarningSendsMessageWhenFailuresAreEnabled() {
+    when(response.statusCode()).thenReturn(200);
+    when(invoker.apply(any(HttpRequest.class))).thenReturn(response);
+    var ctx =
+        failContext(true).toBuilder()
+            .statusCode(200)
+            .note(Optional.of("Took 12000 ms, more than the warnDuration of 10000 ms"))
+            .build();
+    ctx.getConfig().getNotification().getSlack().setWebhook("https://fugazi.com/warning");
+    SlackNotifier.builder().invoker(invoker).build().onWarning(ctx);
+    verify(invoker).apply(any(HttpRequest.class));
+  }
+
+  @Test
+  void rateLimitedWebhookIsPausedForRetryAfter() {
+    when(response.statusCode()).thenReturn(429);
+    when(response.headers())
+        .thenReturn(HttpHeaders.of(Map.of("Retry-After", List.of("60")), (k, v) -> true));
+    when(invoker.apply(any(HttpRequest.class))).thenReturn(response);
+    var ctx = failContext(true);
+    ctx.getConfig().getNotification().getSlack().setWebhook("https://fugazi.com/rate-limited");
+    var slack = SlackNotifier.builder().invoker(invoker).build();
+    assertThatExceptionOfType(NotificationFailure.class)
+        .isThrownBy(() -> slack.onFailure(ctx))
+        .withMessageContaining("retry after 60 seconds");
+    assertThatExceptionOfType(NotificationFailure.class)
+        .isThrownBy(() -> slack.onFailure(ctx))
+        .withMessageContaining("Rate limited, not notifying");
+    verify(invoker).apply(any(HttpRequest.class));
+  }
+
+  @Test
+  void redeliveryKeepsMessagesWhenTheWebhookCannotBeResolved() {
+    var outbox = NotificationOutbox.builder().file(outboxDirectory.resolve("outbox")).build();
+    for (String channel : List.of("first", "second")) {
+      outbox.add(
+          NotificationOutbox.Entry.builder()
+              .created(Instant.now())
+              .channel(channel)
+              .webhook("broken(webhook)")
+              .message("{}")
+              .build());
+    }
+    SecretProcessor broken =
+        new SecretProcessor() {
+          @Override
+          public String identifier() {
+            return "broken";
+          }
+
+          @Override
+          public List<String> lookup(List<String> secrets) {
+            throw new IllegalStateException("SSM is down");
+          }
+        };
+    SlackNotifier.builder().invoker(invoker).outbox(outbox).build().redeliver(broken, logger);
+    verifyNoInteractions(invoker);
+    assertThat(outbox.drain())
+        .extracting(NotificationOutbox.Entry::channel)
+        .containsExactly("first", "second");
+  }
+
+  @Test
+  void rejectedMessageIsNotSaved() {
+    when(response.statusCode()).thenReturn(400);
+    when(invoker.apply(any(HttpRequest.class))).thenReturn(response);
+    var outbox = NotificationOutbox.builder().file(outboxDirectory.resolve("outbox")).build();
+    var ctx = failContext(true);
+    ctx.getConfig().getNotification().getSlack().setWebhook("https://fugazi.com/rejected");
+    var slack = SlackNotifier.builder().invoker(invoker).outbox(outbox).build();
+    assertThatExceptionOfType(NotificationFailure.class).isThrownBy(() -> slack.onFailure(ctx));
+    assertThat(outbox.isEmpty()).isTrue();
+  }
+
   @Test
   @Tag("manual")
   void reallySendNotifications() {
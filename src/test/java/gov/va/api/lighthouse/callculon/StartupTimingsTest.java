@@ -0,0 +1,40 @@
+package gov.va.api.lighthouse.callculon;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class StartupTimingsTest {
+
+  @Mock LambdaLogger logger;
+
+  @Test
+  void firstValuesAreLoggedOnce() {
+    var timings = new StartupTimings();
+    timings.record("warmedOrigins", 2);
+    timings.record("warmedOrigins", 3);
+    assertThat(timings.time("ssmClient", () -> "client")).isEqualTo("client");
+    timings.logOnce(logger, Duration.ofMillis(1234));
+    timings.logOnce(logger, Duration.ofMillis(5));
+    var line = ArgumentCaptor.forClass(String.class);
+    verify(logger).log(line.capture());
+    verifyNoMoreInteractions(logger);
+    assertThat(line.getValue())
+        .startsWith("Startup warmedOrigins=2 ssmClientMillis=")
+        .contains(" firstInvocationMillis=1234");
+  }
+
+  @Test
+  void sharedTimingsAreShared() {
+    assertThat(StartupTimings.shared()).isSameAs(StartupTimings.shared());
+  }
+}
@@ -0,0 +1,138 @@
+package gov.va.api.lighthouse.callculon;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import gov.va.api.lighthouse.callculon.CallculonConfiguration.Deployment;
+import gov.va.api.lighthouse.callculon.Notifier.NotificationContext;
+import gov.va.api.lighthouse.callculon.Notifier.NotificationFailure;
+import gov.va.api.lighthouse.callculon.Notifier.NotificationQueued;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class SuppressingNotifierTest {
+
+  @Mock LambdaLogger logger;
+  @Mock Notifier delegate;
+
+  private NotificationContext ctx(String deploymentId, int statusCode) {
+    return NotificationContext.builder()
+        .logger(logger)
+        .statusCode(statusCode)
+        .config(
+            CallculonConfiguration.builder()
+                .deployment(Deployment.builder().id(deploymentId).build())
+                .build())
+        .build();
+  }
+
+  private SuppressingNotifier notifier(Duration window) {
+    return SuppressingNotifier.builder().delegate(delegate).window(window).build();
+  }
+
+  @Test
+  void failedNotificationIsNotCountedAsSent() {
+    var notifier = notifier(Duration.ofHours(1));
+    doThrow(new NotificationFailure("nope"))
+        .doNothing()
+        .when(delegate)
+        .onFailure(ctx("unsent", 500));
+    assertThatExceptionOfType(NotificationFailure.class)
+        .isThrownBy(() -> notifier.onFailure(ctx("unsent", 500)));
+    notifier.onFailure(ctx("unsent", 500));
+    verify(delegate, times(2)).onFailure(ctx("unsent", 500));
+  }
+
+  @Test
+  void failuresAfterTheWindowAreSentWithTheSuppressedCount() {
+    var notifier = notifier(Duration.ZERO);
+    notifier.onFailure(ctx("window", 500));
+    notifier.onFailure(ctx("window", 500));
+    verify(delegate, times(2)).onFailure(any(NotificationContext.class));
+  }
+
+  @Test
+  void queuedNotificationIsCountedAsSent() {
+    var notifier = notifier(Duration.ofHours(1));
+    doThrow(new NotificationQueued("later")).when(delegate).onFailure(ctx("queued", 500));
+    assertThatExceptionOfType(NotificationQueued.class)
+        .isThrownBy(() -> notifier.onFailure(ctx("queued", 500)));
+    notifier.onFailure(ctx("queued", 500));
+    verify(delegate).onFailure(ctx("queued", 500));
+  }
+
+  @Test
+  void repeatedFailuresAreSuppressedUntilRecovery() {
+    var notifier = notifier(Duration.ofHours(1));
+    notifier.onFailure(ctx("storm", 500));
+    notifier.onFailure(ctx("storm", 500));
+    notifier.onFailure(ctx("storm", 500));
+    verify(delegate).onFailure(ctx("storm", 500));
+    notifier.onSuccess(ctx("storm", 200));
+    verify(delegate).onRecovery(ctx("storm", 200), 3);
+    notifier.onSuccess(ctx("storm", 200));
+    verify(delegate).onSuccess(ctx("storm", 200));
+    verifyNoMoreInteractions(delegate);
+  }
+
+  @Test
+  void slowSuccessAfterFailuresIsARecovery() {
+    var notifier = notifier(Duration.ofHours(1));
+    notifier.onFailure(ctx("slow", 500));
+    notifier.onWarning(ctx("slow", 200));
+    verify(delegate).onRecovery(ctx("slow", 200), 1);
+    notifier.onWarning(ctx("slow", 200));
+    verify(delegate).onWarning(ctx("slow", 200));
+  }
+
+  @Test
+  void suppressedCountIsAddedToTheNote() {
+    var notifier = notifier(Duration.ofHours(1));
+    notifier.onFailure(ctx("count", 500));
+    notifier.onFailure(ctx("count", 500));
+    notifier.onFailure(ctx("count", 500));
+    var suppressing = notifier(Duration.ZERO);
+    suppressing.onFailure(ctx("count", 500));
+    var sent = ArgumentCaptor.forClass(NotificationContext.class);
+    verify(delegate, times(2)).onFailure(sent.capture());
+    assertThat(sent.getAllValues().get(0).getNote()).isEmpty();
+    assertThat(sent.getAllValues().get(1).getNote())
+        .isEqualTo(
+            Optional.of(
+                "HTTP status 500 (2 more failure(s) since the last notification were not"
+                    + " reported)"));
+  }
+
+  @Test
+  void windowFromEnvironmentVariables() {
+    assertThat(SuppressingNotifier.windowFromEnvironmentVariables(Map.of()))
+        .isEqualTo(Duration.ofMinutes(30));
+    assertThat(
+            SuppressingNotifier.windowFromEnvironmentVariables(
+                Map.of(SuppressingNotifier.OPTION_SUPPRESSION_WINDOW, "PT5M")))
+        .isEqualTo(Duration.ofMinutes(5));
+  }
+
+  @Test
+  void withoutDeploymentIdNothingIsSuppressed() {
+    var notifier = notifier(Duration.ofHours(1));
+    notifier.onFailure(ctx(null, 500));
+    notifier.onFailure(ctx(null, 500));
+    notifier.onSuccess(ctx(null, 200));
+    verify(delegate, times(2)).onFailure(ctx(null, 500));
+    verify(delegate).onSuccess(ctx(null, 200));
+  }
+}
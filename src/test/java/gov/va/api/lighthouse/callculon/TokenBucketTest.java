@@ -0,0 +1,53 @@
+package gov.va.api.lighthouse.callculon;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTest {
+
+  AtomicLong now = new AtomicLong(1_000_000_000L);
+
+  private void advance(Duration duration) {
+    now.addAndGet(duration.toNanos());
+  }
+
+  @Test
+  void burstIsAllowedThenTokensRefillAtRate() {
+    var bucket = new TokenBucket(2, Duration.ofSeconds(1), now::get);
+    assertThat(bucket.tryAcquire()).isTrue();
+    assertThat(bucket.tryAcquire()).isTrue();
+    assertThat(bucket.tryAcquire()).isFalse();
+    assertThat(bucket.nanosUntilAvailable()).isEqualTo(Duration.ofSeconds(1).toNanos());
+    advance(Duration.ofMillis(500));
+    assertThat(bucket.tryAcquire()).isFalse();
+    advance(Duration.ofMillis(500));
+    assertThat(bucket.tryAcquire()).isTrue();
+    advance(Duration.ofSeconds(10));
+    assertThat(bucket.tryAcquire()).isTrue();
+    assertThat(bucket.tryAcquire()).isTrue();
+    assertThat(bucket.tryAcquire()).isFalse();
+  }
+
+  @Test
+  void pauseStopsTokensUntilItHasPassed() {
+    var bucket = new TokenBucket(5, Duration.ofSeconds(1), now::get);
+    bucket.pause(Duration.ofSeconds(30));
+    assertThat(bucket.tryAcquire()).isFalse();
+    assertThat(bucket.nanosUntilAvailable()).isEqualTo(Duration.ofSeconds(30).toNanos());
+    advance(Duration.ofSeconds(29));
+    assertThat(bucket.tryAcquire()).isFalse();
+    advance(Duration.ofSeconds(1));
+    assertThat(bucket.tryAcquire()).isTrue();
+    assertThat(bucket.tryAcquire()).isFalse();
+  }
+
+  @Test
+  void acquireDoesNotWaitLongerThanAllowed() throws InterruptedException {
+    var bucket = new TokenBucket(1, Duration.ofHours(1), now::get);
+    assertThat(bucket.acquire(Duration.ofSeconds(1))).isTrue();
+    assertThat(bucket.acquire(Duration.ofSeconds(1))).isFalse();
+  }
+}